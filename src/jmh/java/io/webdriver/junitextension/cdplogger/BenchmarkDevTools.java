@@ -0,0 +1,76 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.NoOpHttpClient;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.v96.V96Domains;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link DevTools} without a browser which hands out the registered events and listeners, so benchmarks call the
+ * listener bodies directly instead of going through the Selenium dispatch.
+ */
+class BenchmarkDevTools extends DevTools {
+
+    private final Map<String, Event<?>> events = new HashMap<>();
+    private final Map<String, Consumer<?>> listeners = new HashMap<>();
+
+    BenchmarkDevTools() {
+        super(V96Domains::new, new Connection(new NoOpHttpClient(), "ws://benchmark"));
+    }
+
+    @Override
+    public void createSession() {
+    }
+
+    @Override
+    public <X> X send(Command<X> command) {
+        return null;
+    }
+
+    @Override
+    public <X> void addListener(Event<X> event, Consumer<X> handler) {
+        events.put(event.getMethod(), event);
+        listeners.put(event.getMethod(), handler);
+    }
+
+    /**
+     * @return the event registered for the method, whose mapper turns the event parameters into the listener value
+     */
+    Event<?> event(String method) {
+        Event<?> event = events.get(method);
+        if (event == null) {
+            throw new IllegalStateException("No listener registered for " + method);
+        }
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    Consumer<Object> listener(String method) {
+        return (Consumer<Object>) listener(event(method));
+    }
+
+    @SuppressWarnings("unchecked")
+    <X> Consumer<X> listener(Event<X> event) {
+        Consumer<X> listener = (Consumer<X>) listeners.get(event.getMethod());
+        if (listener == null) {
+            throw new IllegalStateException("No listener registered for " + event.getMethod());
+        }
+        return listener;
+    }
+
+    @Override
+    public void clearListeners() {
+        events.clear();
+        listeners.clear();
+    }
+
+    @Override
+    public void close() {
+    }
+}
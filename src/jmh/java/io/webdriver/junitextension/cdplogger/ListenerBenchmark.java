@@ -0,0 +1,161 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import io.webdriver.junitextension.cdplogger.pipeline.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.devtools.v96.log.Log;
+import org.openqa.selenium.devtools.v96.log.model.LogEntry;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.LoadingFinished;
+import org.openqa.selenium.devtools.v96.network.model.RequestWillBeSent;
+import org.openqa.selenium.devtools.v96.network.model.ResponseReceived;
+import org.openqa.selenium.devtools.v96.runtime.Runtime;
+import org.openqa.selenium.devtools.v96.runtime.model.ExceptionThrown;
+import org.openqa.selenium.json.Json;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures what {@link DevToolsExtension} costs per Dev Tools event on the dispatch thread: the bodies of the
+ * request, response, log and JavaScript exception listeners, driven with synthetic v96 events.
+ *
+ * <p>Events are deserialized once in setup, so only the listener work is measured: filtering, request correlation
+ * and publishing into the event pipeline. Requests are measured as a pair of {@code requestWillBeSent} and
+ * {@code loadingFinished} events, rotating over {@value #REQUEST_IDS} request IDs so that each request is correlated
+ * and completed like in a page load rather than as a redirect of the previous one. The pipeline consumer counts
+ * events without formatting them; events it cannot keep up with are dropped and reported at teardown. Run with the
+ * GC profiler for allocation rates:
+ * <pre>{@code gradle jmh -Pjmh.includes=ListenerBenchmark}</pre> or
+ * <pre>{@code java -jar build/libs/*-jmh.jar ListenerBenchmark -prof gc}</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+    private static final Json JSON = new Json();
+    private static final int REQUEST_IDS = 1024;
+
+    /**
+     * Response URL filter of the test class, empty for none. {@code app.test} matches the synthetic events,
+     * {@code other.test} filters them out.
+     */
+    @Param({"", "app.test", "other.test"})
+    public String urlFilter;
+
+    /**
+     * Size of the request post data and of the log entry text.
+     */
+    @Param({"0", "1024", "65536"})
+    public int payloadSize;
+
+    private BenchmarkDevTools devTools;
+    private TestSession session;
+    private volatile long handledEvents;
+
+    private Consumer<RequestWillBeSent> requestListener;
+    private Consumer<LoadingFinished> loadingFinishedListener;
+    private Consumer<ResponseReceived> responseListener;
+    private Consumer<LogEntry> logListener;
+    private Consumer<ExceptionThrown> exceptionListener;
+
+    private final RequestWillBeSent[] requests = new RequestWillBeSent[REQUEST_IDS];
+    private final LoadingFinished[] loadingFinished = new LoadingFinished[REQUEST_IDS];
+    private int nextRequest;
+    private ResponseReceived response;
+    private LogEntry logEntry;
+    private ExceptionThrown exception;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        devTools = new BenchmarkDevTools();
+        DevToolsSettings settings = DevToolsSettings.from(Map.of(
+                DevToolsSettings.PIPELINE_WAIT_STRATEGY, WaitStrategy.YIELDING.name()));
+        session = new TestSession("benchmark", devTools, UrlFilter.compile(List.of(urlFilter)), settings,
+                event -> handledEvents++);
+        session.beginTest("benchmark");
+
+        DevToolsExtension extension = new DevToolsExtension();
+        extension.registerNetworkRequestListener(session);
+        extension.registerNetworkResponseListener(session);
+        extension.registerNetworkLoadingListener(session);
+        extension.registerLogListener(session);
+        extension.logJavaScriptExceptions(session);
+        requestListener = devTools.listener(Network.requestWillBeSent());
+        loadingFinishedListener = devTools.listener(Network.loadingFinished());
+        responseListener = devTools.listener(Network.responseReceived());
+        logListener = devTools.listener(Log.entryAdded());
+        exceptionListener = devTools.listener(Runtime.exceptionThrown());
+
+        String payload = "x".repeat(payloadSize);
+        for (int i = 0; i < REQUEST_IDS; i++) {
+            String requestId = "1000." + i;
+            requests[i] = JSON.toType("{\"requestId\":\"" + requestId + "\",\"loaderId\":\"loader\","
+                    + "\"documentURL\":\"https://app.test/\",\"request\":{\"url\":\"https://app.test/api/items\","
+                    + "\"method\":\"POST\",\"headers\":{},\"postData\":\"" + payload + "\","
+                    + "\"initialPriority\":\"High\",\"referrerPolicy\":\"no-referrer\"},\"timestamp\":1.0,"
+                    + "\"wallTime\":1.0,\"initiator\":{\"type\":\"script\"},\"type\":\"Fetch\"}",
+                    RequestWillBeSent.class);
+            loadingFinished[i] = JSON.toType("{\"requestId\":\"" + requestId + "\",\"timestamp\":1.2,"
+                    + "\"encodedDataLength\":512}", LoadingFinished.class);
+        }
+        response = JSON.toType("{\"requestId\":\"1000.1\",\"loaderId\":\"loader\",\"timestamp\":1.1,"
+                + "\"type\":\"XHR\",\"response\":{\"url\":\"https://app.test/api/items\",\"status\":200,"
+                + "\"statusText\":\"OK\",\"headers\":{},\"mimeType\":\"application/json\",\"connectionReused\":true,"
+                + "\"connectionId\":1,\"encodedDataLength\":512,\"securityState\":\"secure\"}}", ResponseReceived.class);
+        logEntry = JSON.toType("{\"source\":\"javascript\",\"level\":\"error\",\"text\":\"" + payload + "\","
+                + "\"timestamp\":1.0}", LogEntry.class);
+        exception = JSON.toType("{\"timestamp\":1.0,\"exceptionDetails\":{\"exceptionId\":1,"
+                + "\"text\":\"Uncaught\",\"lineNumber\":10,\"columnNumber\":5,\"url\":\"https://app.test/app.js\","
+                + "\"exception\":{\"type\":\"object\",\"description\":\"Error: boom\"}}}", ExceptionThrown.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        session.close(false);
+        System.out.printf("%n%s: %d events published, %d dropped, %d handled, peak queue depth %d%n",
+                session.testName(), session.pipeline().publishedCount(), session.pipeline().droppedCount(),
+                handledEvents, session.pipeline().peakQueueDepth());
+    }
+
+    @Benchmark
+    public void requestListeners() {
+        int i = nextRequest;
+        nextRequest = (i + 1) % REQUEST_IDS;
+        requestListener.accept(requests[i]);
+        loadingFinishedListener.accept(loadingFinished[i]);
+    }
+
+    @Benchmark
+    public void responseListener() {
+        responseListener.accept(response);
+    }
+
+    @Benchmark
+    public void logListener() {
+        logListener.accept(logEntry);
+    }
+
+    @Benchmark
+    public void javaScriptExceptionListener() {
+        exceptionListener.accept(exception);
+    }
+}
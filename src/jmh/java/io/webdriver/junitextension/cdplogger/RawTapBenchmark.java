@@ -0,0 +1,162 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import io.webdriver.junitextension.cdplogger.fixtures.ReplaySpeed;
+import io.webdriver.junitextension.cdplogger.pipeline.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v96.network.Network;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the typed v96 listeners with the raw JSON tap ({@code cdplogger.network.rawTap}) on an event stream
+ * played by a {@link FakeCdpServer} to Dev Tools connected over a WebSocket. Every event goes through the Selenium
+ * connection as it would from a browser: frame decoding, the parse of the whole message into a map that the
+ * connection dispatches on, and the mapper of the registered event. One operation plays the whole stream and waits
+ * until its last {@code Network.loadingFinished} event was handled, so the difference between the two variants is
+ * only the mapping to model classes, measured against the full cost of receiving the events.
+ *
+ * <p>By default the stream is a synthetic page load of {@value #REQUESTS} requests of mixed resource types with
+ * realistic headers, timing and security details, of which only the Fetch and XHR ones are published. A recording
+ * written with {@code cdplogger.record.dir} can be replayed instead:
+ * <pre>{@code java -jar build/libs/*-jmh.jar RawTapBenchmark -p recording=build/cdp/LoginTest.login.cdp.jsonl.gz -prof gc}</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RawTapBenchmark {
+
+    static final int REQUESTS = 100;
+    private static final String[] RESOURCE_TYPES = {"Document", "Script", "Stylesheet", "Image", "Image", "Image",
+            "Font", "XHR", "Fetch", "XHR"};
+
+    /**
+     * Recording to replay, empty for the synthetic page load.
+     */
+    @Param({""})
+    public String recording;
+
+    @Param({"false", "true"})
+    public boolean rawTap;
+
+    private FakeCdpServer server;
+    private DevTools devTools;
+    private TestSession session;
+    private EventStream stream;
+    private long loadingFinishedPerReplay;
+    private final AtomicLong loadingFinished = new AtomicLong();
+    private volatile long handledEvents;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stream = recording.isEmpty() ? syntheticPageLoad() : EventStream.fromJsonLines(Paths.get(recording));
+        loadingFinishedPerReplay = stream.events().stream()
+                .filter(event -> event.method().equals("Network.loadingFinished"))
+                .count();
+        if (loadingFinishedPerReplay == 0) {
+            throw new IllegalArgumentException("Recording " + recording + " has no Network.loadingFinished events");
+        }
+        server = FakeCdpServer.start();
+        devTools = server.connect();
+        devTools.createSession();
+        DevToolsSettings settings = DevToolsSettings.from(Map.of(
+                DevToolsSettings.PIPELINE_WAIT_STRATEGY, WaitStrategy.YIELDING.name(),
+                DevToolsSettings.NETWORK_RAW_TAP, String.valueOf(rawTap)));
+        session = new TestSession("benchmark", devTools, UrlFilter.ALL, settings, event -> handledEvents++);
+        session.beginTest("benchmark");
+
+        DevToolsExtension extension = new DevToolsExtension();
+        extension.registerNetworkRequestListener(session);
+        extension.registerNetworkResponseListener(session);
+        extension.registerNetworkLoadingListener(session);
+        extension.registerLogListener(session);
+        devTools.addListener(Network.loadingFinished(), event -> loadingFinished.incrementAndGet());
+        System.out.printf("%nReplaying %d events per operation%n", stream.events().size());
+    }
+
+    private static EventStream syntheticPageLoad() {
+        String headers = "{\"accept-ranges\":\"bytes\",\"cache-control\":\"public, max-age=31536000\","
+                + "\"content-encoding\":\"br\",\"content-length\":\"48213\",\"content-type\":\"text/javascript\","
+                + "\"date\":\"Fri, 10 Dec 2021 10:00:00 GMT\",\"etag\":\"\\\"5f3c-1a2b3c4d\\\"\","
+                + "\"last-modified\":\"Thu, 09 Dec 2021 08:00:00 GMT\",\"server\":\"nginx\","
+                + "\"strict-transport-security\":\"max-age=63072000\",\"vary\":\"Accept-Encoding\","
+                + "\"x-content-type-options\":\"nosniff\",\"x-frame-options\":\"DENY\","
+                + "\"x-request-id\":\"7d1c2b3a-4e5f-6789-abcd-ef0123456789\"}";
+        List<EventStream.Event> events = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String id = "1000." + i;
+            String type = RESOURCE_TYPES[i % RESOURCE_TYPES.length];
+            String url = "https://app.test/" + type.toLowerCase() + "/" + i + "?v=1a2b3c";
+            events.add(new EventStream.Event("Network.requestWillBeSent", "{\"requestId\":\"" + id + "\","
+                    + "\"loaderId\":\"loader\",\"documentURL\":\"https://app.test/\",\"request\":{\"url\":\"" + url
+                    + "\",\"method\":\"GET\",\"headers\":" + headers + ",\"mixedContentType\":\"none\","
+                    + "\"initialPriority\":\"High\",\"referrerPolicy\":\"strict-origin-when-cross-origin\"},"
+                    + "\"timestamp\":" + (100.0 + i) + ",\"wallTime\":1639130400.0,\"initiator\":{\"type\":\"script\","
+                    + "\"stack\":{\"callFrames\":[{\"functionName\":\"load\",\"scriptId\":\"12\","
+                    + "\"url\":\"https://app.test/app.js\",\"lineNumber\":10,\"columnNumber\":4}]}},"
+                    + "\"redirectHasExtraInfo\":false,\"type\":\"" + type + "\",\"frameId\":\"frame\","
+                    + "\"hasUserGesture\":false}"));
+            events.add(new EventStream.Event("Network.responseReceived", "{\"requestId\":\"" + id + "\","
+                    + "\"loaderId\":\"loader\",\"timestamp\":" + (100.05 + i) + ",\"type\":\"" + type + "\","
+                    + "\"response\":{\"url\":\"" + url + "\",\"status\":200,\"statusText\":\"OK\",\"headers\":"
+                    + headers + ",\"mimeType\":\"text/javascript\",\"connectionReused\":true,\"connectionId\":42,"
+                    + "\"remoteIPAddress\":\"10.0.0.1\",\"remotePort\":443,\"fromDiskCache\":false,"
+                    + "\"fromServiceWorker\":false,\"fromPrefetchCache\":false,\"encodedDataLength\":48500,"
+                    + "\"timing\":{\"requestTime\":" + (100.0 + i) + ",\"proxyStart\":-1,\"proxyEnd\":-1,"
+                    + "\"dnsStart\":-1,\"dnsEnd\":-1,\"connectStart\":-1,\"connectEnd\":-1,\"sslStart\":-1,"
+                    + "\"sslEnd\":-1,\"workerStart\":-1,\"workerReady\":-1,\"workerFetchStart\":-1,"
+                    + "\"workerRespondWithSettled\":-1,\"sendStart\":0.5,\"sendEnd\":0.7,\"pushStart\":0,"
+                    + "\"pushEnd\":0,\"receiveHeadersEnd\":45.2},\"responseTime\":1639130400050.0,"
+                    + "\"protocol\":\"h2\",\"securityState\":\"secure\",\"securityDetails\":{\"protocol\":\"TLS 1.3\","
+                    + "\"keyExchange\":\"\",\"keyExchangeGroup\":\"X25519\",\"cipher\":\"AES_128_GCM\","
+                    + "\"certificateId\":0,\"subjectName\":\"app.test\",\"sanList\":[\"app.test\",\"*.app.test\"],"
+                    + "\"issuer\":\"Test CA\",\"validFrom\":1630000000,\"validTo\":1660000000,"
+                    + "\"signedCertificateTimestampList\":[],\"certificateTransparencyCompliance\":\"compliant\"}},"
+                    + "\"frameId\":\"frame\"}"));
+            events.add(EventStream.Event.loadingFinished(id, 48500));
+        }
+        return EventStream.of(events);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        session.close(false);
+        server.close();
+        System.out.printf("%n%s: %d events published, %d dropped, %d handled%n",
+                rawTap ? "raw tap" : "typed", session.pipeline().publishedCount(),
+                session.pipeline().droppedCount(), handledEvents);
+    }
+
+    @Benchmark
+    public void replay() {
+        long expected = loadingFinished.get() + loadingFinishedPerReplay;
+        server.replay(stream, ReplaySpeed.AS_FAST_AS_POSSIBLE).join();
+        while (loadingFinished.get() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-test driver and filter lookup done with {@code getDeclaredField} on every test, as
+ * {@link DevToolsExtension} did before, with the lookup through {@link TestClassAccessors}.
+ * The unfiltered case includes the thrown and caught {@code NoSuchFieldException} of the old path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestClassAccessorsBenchmark {
+
+    @Param({"filtered", "unfiltered"})
+    public String testClass;
+
+    private Object testInstance;
+
+    @Setup
+    public void setUp() {
+        testInstance = "filtered".equals(testClass) ? new FilteredTest() : new UnfilteredTest();
+    }
+
+    @Benchmark
+    public void reflectiveLookup(Blackhole blackhole) throws Exception {
+        Field driverField = testInstance.getClass().getDeclaredField("driver");
+        driverField.setAccessible(true);
+        if (driverField.getType().isAssignableFrom(ChromiumDriver.class)) {
+            blackhole.consume(driverField.get(testInstance));
+        }
+        try {
+            Field responseURLFilterField = testInstance.getClass().getDeclaredField("responseURLFilter");
+            responseURLFilterField.setAccessible(true);
+            blackhole.consume(responseURLFilterField.get(testInstance));
+        } catch (NoSuchFieldException e) {
+            //no-op
+        }
+    }
+
+    @Benchmark
+    public void cachedLookup(Blackhole blackhole) throws Exception {
+        TestClassAccessors accessors = TestClassAccessors.forClass(testInstance.getClass());
+        blackhole.consume(accessors.driver(testInstance));
+        blackhole.consume(accessors.responseURLFilter(testInstance));
+    }
+
+    public static class FilteredTest {
+        static final String responseURLFilter = "app.test";
+        private ChromiumDriver driver;
+    }
+
+    public static class UnfilteredTest {
+        private ChromiumDriver driver;
+    }
+}
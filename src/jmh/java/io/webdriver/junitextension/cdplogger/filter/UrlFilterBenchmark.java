@@ -0,0 +1,85 @@
+package io.webdriver.junitextension.cdplogger.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares checking every URL of a page load against each substring pattern with {@code String.contains}, as the
+ * single {@code responseURLFilter} was checked, with the compiled {@link UrlFilter}. The URLs are distinct, so the
+ * compiled filter is measured with and without its memo cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlFilterBenchmark {
+
+    private static final int URLS = 500;
+
+    @Param({"1", "10", "100"})
+    public int patternCount;
+
+    private final List<String> patterns = new ArrayList<>();
+    private final List<String> urls = new ArrayList<>();
+    private UrlFilter filter;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < patternCount; i++) {
+            patterns.add("/service-" + i + "/api/");
+        }
+        for (int i = 0; i < URLS; i++) {
+            urls.add("https://app.test/service-" + (i % (2 * patternCount)) + "/api/items/" + i + "?page=1&size=20");
+        }
+        filter = UrlFilter.compile(patterns);
+    }
+
+    @Benchmark
+    public void containsLoop(Blackhole blackhole) {
+        for (String url : urls) {
+            boolean matches = false;
+            for (String pattern : patterns) {
+                if (url.contains(pattern)) {
+                    matches = true;
+                    break;
+                }
+            }
+            blackhole.consume(matches);
+        }
+    }
+
+    @Benchmark
+    public void compiledMemoized(Blackhole blackhole) {
+        for (String url : urls) {
+            blackhole.consume(filter.test(url));
+        }
+    }
+
+    /**
+     * A fresh filter per operation, so every URL is matched by the automaton instead of the memo cache. Includes
+     * compiling the patterns.
+     */
+    @Benchmark
+    public void compiledUncached(Blackhole blackhole) {
+        UrlFilter uncached = UrlFilter.compile(patterns);
+        for (String url : urls) {
+            blackhole.consume(uncached.test(url));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cost per event of each shipped sink, including copying the event into a record and batching it as the
+ * consumer of a session does. Every operation handles a batch of {@value #EVENTS} requests, responses, log entries
+ * and completed requests; the sinks are flushed once per iteration, as at the end of a test.
+ *
+ * <p>The {@code slf4j} sink writes through slf4j-simple to a temporary file, like a console appender redirected to a
+ * file. Run with {@code ./gradlew jmh -Pjmh.includes=EventSinkBenchmark}, the {@code gc} profiler reports the bytes
+ * allocated per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSinkBenchmark {
+
+    private static final int EVENTS = 256;
+
+    static {
+        try {
+            Path logFile = Files.createTempFile("cdp-logger-sink-benchmark", ".log");
+            logFile.toFile().deleteOnExit();
+            System.setProperty("org.slf4j.simpleLogger.logFile", logFile.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Param({Slf4jEventSink.NAME, JsonLinesEventSink.NAME, BinaryEventSink.NAME})
+    public String sink;
+
+    private final List<CdpEvent> events = new ArrayList<>();
+    private Path directory;
+    private EventSinks sinks;
+    private BatchingEventHandler handler;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(event(i));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openSinks() throws IOException {
+        directory = Files.createTempDirectory("cdp-logger-sinks");
+        sinks = EventSinks.load(List.of(sink), directory);
+        handler = new BatchingEventHandler(sinks, EVENTS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeSinks() throws IOException {
+        handler.flush();
+        sinks.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void writeBatch() {
+        for (CdpEvent event : events) {
+            handler.onEvent(event);
+        }
+        handler.endOfBatch();
+    }
+
+    private static CdpEvent event(int i) {
+        CdpEvent event = new CdpEvent();
+        event.testName = "checkoutAsGuest";
+        String url = "https://app.test/api/cart/items/" + i + "?expand=prices";
+        switch (i % 4) {
+            case 0:
+                event.kind = CdpEvent.Kind.REQUEST;
+                event.method = "POST";
+                event.url = url;
+                event.body = "{\"sku\":\"SKU-" + i + "\",\"quantity\":1}";
+                break;
+            case 1:
+                event.kind = CdpEvent.Kind.RESPONSE;
+                event.url = url;
+                event.status = i % 16 == 1 ? 500 : 200;
+                break;
+            case 2:
+                event.kind = CdpEvent.Kind.LOG;
+                event.text = "Failed to load resource: the server responded with a status of 500 ()";
+                break;
+            default:
+                RequestRecord record = new RequestRecord(String.valueOf(i));
+                record.method = "GET";
+                record.url = url;
+                record.resourceType = "XHR";
+                record.status = 200;
+                record.startTime = 100;
+                record.endTime = 100.120;
+                record.encodedDataLength = 2048;
+                record.requestTime = 100;
+                record.dnsStart = 0;
+                record.dnsEnd = 2;
+                record.sendStart = 3;
+                record.sendEnd = 4;
+                record.receiveHeadersEnd = 90;
+                event.kind = CdpEvent.Kind.REQUEST_COMPLETED;
+                event.record = record;
+        }
+        return event;
+    }
+}
@@ -0,0 +1,121 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the consumer handling a flood of XHR requests, responses and completed requests with the {@code slf4j}
+ * sink, once with the logger at {@code warn}, where none of them is logged, and once at {@code info}. Run with
+ * {@code ./gradlew jmh -Pjmh.includes=Slf4jLevelBenchmark}: the {@code gc} profiler should report close to zero
+ * bytes per disabled event, as the level is checked before the event is copied or formatted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class Slf4jLevelBenchmark {
+
+    private static final int EVENTS = 256;
+    private static final String LOG_LEVEL =
+            "-Dorg.slf4j.simpleLogger.log.io.webdriver.junitextension.cdplogger.DevToolsExtension=";
+
+    static {
+        try {
+            Path logFile = Files.createTempFile("cdp-logger-level-benchmark", ".log");
+            logFile.toFile().deleteOnExit();
+            System.setProperty("org.slf4j.simpleLogger.logFile", logFile.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final List<CdpEvent> events = new ArrayList<>();
+    private EventSinks sinks;
+    private BatchingEventHandler handler;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(event(i));
+        }
+        sinks = EventSinks.load(List.of(Slf4jEventSink.NAME), Path.of("."));
+        handler = new BatchingEventHandler(sinks, EVENTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sinks.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    @Fork(value = 1, jvmArgsAppend = LOG_LEVEL + "warn")
+    public void disabled() {
+        handleAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    @Fork(value = 1, jvmArgsAppend = LOG_LEVEL + "info")
+    public void enabled() {
+        handleAll();
+    }
+
+    private void handleAll() {
+        for (int i = 0; i < events.size(); i++) {
+            handler.onEvent(events.get(i));
+        }
+        handler.endOfBatch();
+    }
+
+    private static CdpEvent event(int i) {
+        CdpEvent event = new CdpEvent();
+        event.testName = "searchSuggestions";
+        String url = "https://app.test/api/suggestions?q=" + i;
+        switch (i % 3) {
+            case 0:
+                event.kind = CdpEvent.Kind.REQUEST;
+                event.method = "GET";
+                event.url = url;
+                break;
+            case 1:
+                event.kind = CdpEvent.Kind.RESPONSE;
+                event.url = url;
+                event.status = 200;
+                break;
+            default:
+                RequestRecord record = new RequestRecord(String.valueOf(i));
+                record.method = "GET";
+                record.url = url;
+                record.resourceType = "XHR";
+                record.status = 200;
+                record.startTime = 100;
+                record.endTime = 100.035;
+                record.encodedDataLength = 512;
+                event.kind = CdpEvent.Kind.REQUEST_COMPLETED;
+                event.record = record;
+        }
+        return event;
+    }
+}
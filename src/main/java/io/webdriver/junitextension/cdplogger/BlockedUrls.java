@@ -0,0 +1,26 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * URL patterns of requests the browser is told to block while a test runs, e.g. analytics, fonts and ad scripts
+ * which slow page loads down without being under test. Patterns use the syntax of {@code Network.setBlockedURLs} in
+ * every network mode: {@code '*'} matches any characters, other characters are literal and a pattern may match
+ * anywhere in the URL, e.g. {@code "*://*.doubleclick.net/*"} or {@code "analytics"}.
+ *
+ * <p>The patterns of the test class, its superclasses and the test method are blocked together with those of the
+ * {@code cdplogger.network.blockedUrls} configuration parameter, see {@link DevToolsSettings#networkBlockedUrls()}.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface BlockedUrls {
+
+    String[] value();
+}
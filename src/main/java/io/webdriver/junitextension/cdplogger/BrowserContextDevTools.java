@@ -0,0 +1,127 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+import org.openqa.selenium.devtools.idealized.target.model.SessionID;
+import org.openqa.selenium.devtools.v96.V96Domains;
+import org.openqa.selenium.devtools.v96.browser.model.BrowserContextID;
+import org.openqa.selenium.devtools.v96.target.Target;
+import org.openqa.selenium.devtools.v96.target.model.TargetID;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Dev Tools of a page in its own incognito browser context, see {@link SessionIsolation#BROWSER_CONTEXT}.
+ *
+ * <p>It has its own connection to the browser of the driver, so only events of its page reach its listeners.
+ * {@link #open(SessionSetup)} creates the context and the page, attaches to the page and switches the driver to it.
+ * {@link #restoreWindow()} switches the driver back to the window it used before, and {@link #close()} disposes the
+ * context with its page and closes the connection.
+ */
+final class BrowserContextDevTools extends DevTools {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final ChromiumDriver driver;
+    private final Connection connection;
+    private String previousWindow;
+    private BrowserContextID browserContextId;
+    private TargetID targetId;
+    private SessionID sessionId;
+    private long setupNanos;
+
+    private BrowserContextDevTools(ChromiumDriver driver, Connection connection) {
+        super(V96Domains::new, connection);
+        this.driver = driver;
+        this.connection = connection;
+    }
+
+    static BrowserContextDevTools connect(ChromiumDriver driver) {
+        Connection connection = SeleniumCdpConnection.create(driver)
+                .orElseThrow(() -> new IllegalStateException("The driver does not report a Dev Tools address, "
+                        + "browser context isolation needs a Chromium browser"));
+        return new BrowserContextDevTools(driver, connection);
+    }
+
+    /**
+     * Creates the browser context and its page as steps of the session setup.
+     */
+    void open(SessionSetup setup) {
+        long start = System.nanoTime();
+        previousWindow = driver.getWindowHandle();
+        setup.step("Target.createBrowserContext", () -> browserContextId = connection.sendAndWait(null,
+                Target.createBrowserContext(Optional.of(true), Optional.empty(), Optional.empty()), TIMEOUT));
+        setup.step("Target.createTarget", () -> targetId = connection.sendAndWait(null,
+                Target.createTarget("about:blank", Optional.empty(), Optional.empty(), Optional.of(browserContextId),
+                        Optional.empty(), Optional.empty(), Optional.empty()), TIMEOUT));
+        setup.step("Target.attachToTarget", () -> sessionId = new SessionID(connection.sendAndWait(null,
+                Target.attachToTarget(targetId, Optional.of(true)), TIMEOUT).toString()));
+        driver.switchTo().window(targetId.toString());
+        setupNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return time taken to create the context and its page and to switch the driver to it
+     */
+    long setupNanos() {
+        return setupNanos;
+    }
+
+    /**
+     * Switches the driver back to its window before the test, as the page of the test is about to be closed.
+     */
+    void restoreWindow() {
+        if (previousWindow != null) {
+            driver.switchTo().window(previousWindow);
+            previousWindow = null;
+        }
+    }
+
+    @Override
+    public <X> X send(Command<X> command) {
+        return connection.sendAndWait(sessionId, command, TIMEOUT);
+    }
+
+    /**
+     * The session is attached to the page of the context by {@link #open(SessionSetup)}.
+     */
+    @Override
+    public void createSessionIfThereIsNotOne() {
+    }
+
+    @Override
+    public void createSession() {
+    }
+
+    @Override
+    public SessionID getCdpSession() {
+        return sessionId;
+    }
+
+    /**
+     * Disposes the browser context, which closes its page.
+     */
+    @Override
+    public void disconnectSession() {
+        if (browserContextId == null) {
+            return;
+        }
+        BrowserContextID disposed = browserContextId;
+        browserContextId = null;
+        sessionId = null;
+        connection.sendAndWait(null, Target.disposeBrowserContext(disposed), TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        try {
+            disconnectSession();
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.util.Locale;
+
+/**
+ * Defines when captured Dev Tools events of a test are written to the log.
+ */
+public enum CaptureMode {
+
+    /**
+     * Events are written while the test runs.
+     */
+    ALWAYS,
+
+    /**
+     * Events are kept in a bounded per-test buffer and written only when the test fails.
+     */
+    ON_FAILURE;
+
+    static CaptureMode parse(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,23 +1,71 @@
 package io.webdriver.junitextension.cdplogger;
 
+import io.webdriver.junitextension.cdplogger.cache.AssetCache;
+import io.webdriver.junitextension.cdplogger.cache.CachedAsset;
+import io.webdriver.junitextension.cdplogger.cache.LoginSnapshotCache;
+import io.webdriver.junitextension.cdplogger.filter.BlockList;
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import io.webdriver.junitextension.cdplogger.metrics.AssetCacheStats;
+import io.webdriver.junitextension.cdplogger.metrics.BlockedRequests;
+import io.webdriver.junitextension.cdplogger.metrics.LatencyRegistry;
+import io.webdriver.junitextension.cdplogger.metrics.LoginSnapshotStats;
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+import io.webdriver.junitextension.cdplogger.pipeline.EventPipeline;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import io.webdriver.junitextension.cdplogger.pool.DriverFactory;
+import io.webdriver.junitextension.cdplogger.pool.DriverPool;
+import io.webdriver.junitextension.cdplogger.pool.PooledDriver;
+import io.webdriver.junitextension.cdplogger.sink.BatchingEventHandler;
+import io.webdriver.junitextension.cdplogger.sink.EventSink;
+import io.webdriver.junitextension.cdplogger.sink.EventSinks;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
-import org.junit.jupiter.api.extension.TestInstances;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
 import org.openqa.selenium.chromium.ChromiumDriver;
 import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v96.fetch.Fetch;
+import org.openqa.selenium.devtools.v96.fetch.model.HeaderEntry;
+import org.openqa.selenium.devtools.v96.fetch.model.RequestPaused;
+import org.openqa.selenium.devtools.v96.fetch.model.RequestPattern;
+import org.openqa.selenium.devtools.v96.fetch.model.RequestStage;
 import org.openqa.selenium.devtools.v96.log.Log;
 import org.openqa.selenium.devtools.v96.log.model.LogEntry;
 import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.BlockedReason;
+import org.openqa.selenium.devtools.v96.network.model.ErrorReason;
+import org.openqa.selenium.devtools.v96.network.model.MonotonicTime;
 import org.openqa.selenium.devtools.v96.network.model.Request;
 import org.openqa.selenium.devtools.v96.network.model.ResourceType;
 import org.openqa.selenium.devtools.v96.network.model.Response;
+import org.openqa.selenium.devtools.v96.page.Page;
+import org.openqa.selenium.devtools.v96.runtime.Runtime;
+import org.openqa.selenium.devtools.v96.storage.Storage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * JUnit Jupiter class extension to work with Dev Tools Protocol logging.
@@ -27,7 +75,9 @@ import java.util.function.Consumer;
  * <p>This class can be registered by {@code @ExtendWith} annotation on class or method level.
  *
  * <p>Each test class extensible with this class must have a {@code 'driver'} field of type {@code ChromiumDriver}
- * to be accessible via Java reflection call.
+ * to be accessible via Java reflection call. The field may be declared in a superclass; without a {@code 'driver'}
+ * field any field of a {@code ChromiumDriver} subtype is used. Field accessors are resolved once per test class,
+ * see {@link TestClassAccessors}.
  * This field must be instantiated in {@code @BeforeEach} method in test class with either {@code ChromeDriver} or
  * {@code EdgeDriver} types (only these drivers support Dev Tools Protocol).
  *
@@ -36,152 +86,1035 @@ import java.util.function.Consumer;
  * To filter responses by some URL match pattern there is need to add a {@code 'responseURLFilter'}
  * field in a test class. This can be done with static field, e.g.
  * {@code final static String responseURLFilter = "your.application.url.part";}.
+ * The field may also hold several include and exclude patterns of hosts, globs and regular expressions, e.g.
+ * {@code final static String[] responseURLFilter = {"host:app.test", "!regex:/health$"};}, see
+ * {@link UrlFilter}. The filter applies to published requests, responses and log entries alike.
+ *
+ * <p>Listeners do not log on the Dev Tools dispatch thread. They publish captured values into a bounded
+ * {@link EventPipeline} whose consumer thread copies them into records, see {@link DevToolsSettings} for the
+ * pipeline capacity and wait strategy parameters. With {@code cdplogger.capture.mode=on-failure} events are kept
+ * in a bounded per-test buffer and written only for failed tests.
+ *
+ * <p>Records are written in batches to the {@link EventSink}s named by {@code cdplogger.sinks}, by default
+ * {@code slf4j}; {@code json-lines} and {@code binary} write files to {@code cdplogger.sink.dir}. Further sinks are
+ * discovered with {@link java.util.ServiceLoader}. A batch holds the events the consumer drained at once, at most
+ * {@code cdplogger.sink.batchSize}, and the sinks are flushed when a test ends.
+ *
+ * <p>The extension keeps no per-test state in its fields. Everything belonging to a test invocation lives in a
+ * {@link TestSession} stored in the invocation's {@link ExtensionContext.Store}, so the extension can be used with
+ * {@code junit.jupiter.execution.parallel.enabled=true}.
+ *
+ * <p>With {@code cdplogger.session.scope=class} the Dev Tools session and its enabled domains are opened once per
+ * test class and closed in {@code @AfterAll}; tests then only switch the test name events are attributed to.
+ * This pays off when the class reuses one browser across its tests (e.g. a static {@code 'driver'} field), which
+ * must not run concurrently.
+ *
+ * <p>With {@code cdplogger.session.isolation=browser-context} the browser of the driver is kept across tests (e.g. a
+ * static {@code 'driver'} field created in {@code @BeforeAll}) and each test runs in a fresh incognito browser
+ * context instead of a new browser. The driver is switched to the page of the context for the test and back
+ * afterwards, and the context is disposed when the session closes, see {@link SessionIsolation}. The time taken to
+ * set up the context is logged, compared with the average driver start measured by the driver pool when drivers
+ * are pooled.
+ *
+ * <p>With {@code cdplogger.pool.size} drivers are not created by the test class: a {@link DriverPool} keeps started
+ * drivers with their Dev Tools session attached and domains enabled, and a driver is leased into the
+ * {@code 'driver'} field before {@code @BeforeEach} and returned after {@code @AfterEach}, which must not quit it.
+ * Drivers are started by {@code cdplogger.pool.driverFactory}, see {@link DriverFactory}, in the background while
+ * tests run, checked before every lease and replaced after {@code cdplogger.pool.maxUses} tests. The pool statistics
+ * are logged at the end of the test run.
+ *
+ * <p>Tests waiting for the page get a {@link PageActivity} parameter. The first one resolved in a session adds the
+ * {@code Runtime.addBinding} binding and the script the current and every new document of the page push DOM
+ * mutations and application signals through, so waits complete on pushes instead of polling the page.
+ *
+ * <p>Tests annotated with {@link ReuseLogin} get a {@link LoginSession} parameter to log in through: the first test
+ * runs the named login step and captures the cookies and local storage it left, later tests get them restored
+ * instead. Snapshots are kept in memory and in {@code cdplogger.login.snapshotDir} for
+ * {@code cdplogger.login.snapshotTtlSeconds}; the hit rate and the time saved are logged after each test.
+ *
+ * <p>With {@code cdplogger.reset.enabled=true} the state a test left in the browser is cleared after it, so the next
+ * test can reuse the browser instead of launching a new one: storage of every origin the test requested is cleared
+ * with {@code Storage.clearDataForOrigin}, along with the browser cookies and cache. The commands are issued together
+ * and awaited up to {@code cdplogger.reset.timeoutMillis}; the time taken is logged. A pooled driver whose reset
+ * failed is not leased again.
+ *
+ * <p>The remaining events of a session are written on the test thread when the test ends. With
+ * {@code cdplogger.teardown.async=true} the session then detaches on a background executor with a deadline
+ * ({@code cdplogger.teardown.timeoutMillis}), so a browser that is slow to detach does not delay the next test, and
+ * all teardowns are awaited before the test run finishes. Only drivers that outlive the test (e.g. pooled or static
+ * ones) may be detached in the background: a driver quit in {@code @AfterEach} closes the connection while the
+ * teardown still sends commands, which then wait for their timeout.
+ *
+ * <p>Network events are correlated by request ID into one {@link RequestRecord} per request, written as a summary
+ * line with status, duration, size and timing phases when the request completes: at info level for Fetch and XHR
+ * requests, at debug level for other resources.
+ *
+ * <p>Request latencies are recorded per endpoint into mergeable histograms, merged from tests into their class,
+ * whose summary is logged in {@code @AfterAll}, and into the test run. With {@code cdplogger.latency.reportDir}
+ * the run summary is written to a file that can be merged with those of other forks, see
+ * {@link io.webdriver.junitextension.cdplogger.metrics.LatencyRegistry}.
+ *
+ * <p>Test methods may declare a {@link NetworkActivity} parameter to wait until the browser network is idle
+ * instead of sleeping for a fixed time.
+ *
+ * <p>With {@code cdplogger.network.rawTap=true} request and response events are scanned from their raw JSON for the
+ * fields the listeners use instead of being mapped to the v96 model classes, see {@link RawNetworkEvent}.
+ *
+ * <p>With {@code cdplogger.network.mode=fetch} the Network domain is not enabled. The Fetch domain is enabled
+ * instead with request patterns built from the URL filter, so the browser reports only matching Fetch and XHR
+ * requests instead of every request of the page, see {@link NetworkMode}.
+ *
+ * <p>Requests of URLs listed by {@link BlockedUrls} on the test class or method, or by
+ * {@code cdplogger.network.blockedUrls}, are blocked by the browser, and the number of blocked requests with an
+ * estimate of the bytes saved is logged after each test.
+ *
+ * <p>With {@code cdplogger.assetCache.dir} static assets (by default scripts, stylesheets, images and fonts) are
+ * served by the Fetch domain from an on-disk cache shared by all tests and forks of the run, and stored there when
+ * their cache headers allow it, see {@link AssetCache}. Hits, misses and the bytes saved are logged after each test.
+ *
+ * <p>With {@code cdplogger.record.dir} the raw events of every session are recorded to a file named after the test
+ * class and test, see {@link EventRecorder}, to replay them later without a browser.
  */
-public class DevToolsExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+public class DevToolsExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback,
+        BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
 
     protected final static Logger logger = LoggerFactory.getLogger(DevToolsExtension.class);
     protected static final String ANSI_GREEN = "\u001B[32m";
     protected static final String ANSI_RESET = "\u001B[0m";
-    protected DevTools devTools;
-    protected String testMethodName;
-    protected String responseURLFilter;
+    protected static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DevToolsExtension.class);
+    protected static final String CLASS_SESSION_KEY = "classSession";
+    protected static final String TEARDOWN_KEY = "teardown";
+    protected static final String CLASS_LATENCIES_KEY = "classLatencies";
+    protected static final String LATENCY_REPORT_KEY = "latencyReport";
+    protected static final String ASSET_CACHE_KEY = "assetCache";
+    protected static final String DRIVER_POOL_KEY = "driverPool";
+    protected static final String POOLED_DRIVER_KEY = "pooledDriver";
+    protected static final String RESET_FAILED_KEY = "resetFailed";
+    protected static final String LOGIN_SNAPSHOTS_KEY = "loginSnapshots";
+    protected static final String EVENT_SINKS_KEY = "eventSinks";
+    private static final String FETCH = ResourceType.FETCH.toString();
+    private static final String XHR = ResourceType.XHR.toString();
 
     protected DevToolsExtension() {
 
     }
 
     @Override
-    public void beforeTestExecution(ExtensionContext context) throws Exception {
-        TestInstances testInstances = context.getRequiredTestInstances();
-        this.testMethodName = context.getRequiredTestMethod().getName();
-        try {
-            Field driverField = testInstances.getInnermostInstance().getClass().getDeclaredField("driver");
-            driverField.setAccessible(true);
+    public void beforeAll(ExtensionContext context) throws Exception {
+        DevToolsSettings settings = DevToolsSettings.from(context);
+        if (settings.sessionScope() != SessionScope.CLASS) {
+            return;
+        }
+        DevTools devTools = resolveDevTools(context);
+        if (devTools != null) {
+            openSession(context, context.getStore(NAMESPACE), CLASS_SESSION_KEY,
+                    context.getRequiredTestClass().getSimpleName(), devTools, settings);
+        }
+    }
 
-            if (driverField.getType().isAssignableFrom(ChromiumDriver.class)) {
-                ChromiumDriver driver = (ChromiumDriver) driverField.get(testInstances.getInnermostInstance());
-                this.devTools = driver.getDevTools();
+    /**
+     * Leases a driver from the pool into the {@code 'driver'} field, when drivers are pooled.
+     */
+    @Override
+    public void beforeEach(ExtensionContext context) throws Exception {
+        DevToolsSettings settings = DevToolsSettings.from(context);
+        if (settings.poolSize() <= 0) {
+            return;
+        }
+        PooledDriver pooled = driverPool(context, settings).acquire(settings.poolAcquireTimeout());
+        context.getStore(NAMESPACE).put(POOLED_DRIVER_KEY, pooled);
+        TestClassAccessors.forClass(context.getRequiredTestClass())
+                .injectDriver(context.getRequiredTestInstance(), pooled.driver());
+    }
 
-            } else {
-                throw new IllegalArgumentException("Unsupported type of WebDriver is provided. "
-                        + "\nChrome Dev Tools supports either ChromeDriver or EdgeDriver.");
-            }
-        } catch (NoSuchFieldException e) {
-            throw new NoSuchFieldException(String.format("There is no 'driver' field in test class '%s'. "
-                            + "\nThis field is required to work with Dev Tools extension class.",
-                    testInstances.getInnermostInstance().getClass().getName()));
+    /**
+     * Returns the leased driver to the pool after {@code @AfterEach} methods used it.
+     */
+    @Override
+    public void afterEach(ExtensionContext context) throws Exception {
+        PooledDriver pooled = context.getStore(NAMESPACE).remove(POOLED_DRIVER_KEY, PooledDriver.class);
+        if (pooled == null) {
+            return;
         }
+        TestClassAccessors.forClass(context.getRequiredTestClass())
+                .injectDriver(context.getRequiredTestInstance(), null);
+        boolean resetFailed = context.getStore(NAMESPACE).remove(RESET_FAILED_KEY) != null;
+        driverPool(context, DevToolsSettings.from(context)).release(pooled, !resetFailed);
+    }
+
+    /**
+     * @return driver pool shared by the whole test run, opened on first use
+     */
+    protected DriverPool driverPool(ExtensionContext context, DevToolsSettings settings) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(DRIVER_POOL_KEY,
+                key -> new DriverPool(createDriverFactory(settings), settings.poolSize(), settings.poolMaxUses(),
+                        driver ->
+                        {
+                            awaitTeardown(context, driver.getDevTools());
+                            warmUp(driver, settings);
+                        }),
+                DriverPool.class);
+    }
 
+    /**
+     * @return factory of {@code cdplogger.pool.driverFactory}, or one launching a local Chrome
+     */
+    protected DriverFactory createDriverFactory(DevToolsSettings settings) {
+        if (settings.poolDriverFactory().isEmpty()) {
+            return DriverFactory.CHROME;
+        }
+        String className = settings.poolDriverFactory().get();
         try {
-            Field responseURLFilterField = testInstances.getInnermostInstance()
-                    .getClass()
-                    .getDeclaredField("responseURLFilter");
-            responseURLFilterField.setAccessible(true);
-            this.responseURLFilter = (String) responseURLFilterField.get(testInstances.getInnermostInstance());
+            return Class.forName(className, true, Thread.currentThread().getContextClassLoader())
+                    .asSubclass(DriverFactory.class)
+                    .getConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Cannot create driver factory " + className, e);
+        }
+    }
 
-        } catch (NoSuchFieldException e) {
-            //no-op
+    /**
+     * Waits until a session of the test run still closing on the Dev Tools has detached them, so a warm-up is not
+     * undone by the close.
+     */
+    private static void awaitTeardown(ExtensionContext context, DevTools devTools) {
+        SessionTeardown teardown = context.getRoot().getStore(NAMESPACE).get(TEARDOWN_KEY, SessionTeardown.class);
+        if (teardown != null) {
+            teardown.awaitPending(devTools);
         }
+    }
 
-        devTools.createSession();
-        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
-        registerNetworkRequestListener();
-        registerNetworkResponseListener(Optional.ofNullable(responseURLFilter));
+    /**
+     * Attaches the Dev Tools session of a started or released driver and enables the Network and Log domains its
+     * sessions use, so the test leasing it next does not wait for them: the session opened on the leased driver
+     * skips these enables. Closing the session of a test detaches the Dev Tools, so the pool runs the warm-up again
+     * after every release, off the test thread.
+     */
+    protected void warmUp(ChromiumDriver driver, DevToolsSettings settings) {
+        DevTools devTools = driver.getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        if (settings.networkMode() != NetworkMode.FETCH) {
+            devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        }
         devTools.send(Log.enable());
-        registerLogListener();
-        logJavaScriptExceptions();
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) throws Exception {
+        String testMethodName = context.getRequiredTestMethod().getName();
+        DevToolsSettings settings = DevToolsSettings.from(context);
+        DevTools devTools = resolveDevTools(context);
+        if (devTools == null) {
+            throw new IllegalStateException(String.format("The driver of test class '%s' is not initialized. "
+                            + "\nIt must be instantiated before the test is executed, e.g. in @BeforeEach method.",
+                    context.getRequiredTestClass().getName()));
+        }
 
+        if (settings.sessionScope() == SessionScope.CLASS) {
+            TestSession session = classSession(context, devTools, settings);
+            updateBlockList(session, resolveBlockList(context, settings));
+            session.beginTest(testMethodName);
+        } else {
+            if (settings.sessionIsolation() == SessionIsolation.BROWSER_CONTEXT) {
+                devTools = resolveIsolatedDevTools(context);
+            }
+            openSession(context, context.getStore(NAMESPACE), context.getUniqueId(), testMethodName, devTools,
+                    settings).beginTest(testMethodName);
+        }
     }
 
-    protected void logJavaScriptExceptions() {
+    /**
+     * Returns the session of the test class, opening it on first use. The session is reopened when the class
+     * switched to another driver, e.g. one created per test in {@code @BeforeEach}.
+     */
+    private TestSession classSession(ExtensionContext context, DevTools devTools, DevToolsSettings settings)
+            throws Exception {
+        ExtensionContext classContext = classContext(context);
+        ExtensionContext.Store classStore = classContext.getStore(NAMESPACE);
+        TestSession session = classStore.get(CLASS_SESSION_KEY, TestSession.class);
+        if (session != null && session.devTools() != devTools) {
+            logger.debug("[{}] : Driver changed between tests, reopening class scoped Dev Tools session",
+                    classContext.getRequiredTestClass().getSimpleName());
+            classStore.remove(CLASS_SESSION_KEY);
+            closeSession(context, session, false);
+            session = null;
+        }
+        if (session == null) {
+            session = openSession(context, classStore, CLASS_SESSION_KEY,
+                    classContext.getRequiredTestClass().getSimpleName(), devTools, settings);
+        }
+        return session;
+    }
 
-        devTools.getDomains().events().addJavascriptExceptionListener(e ->
-        {
-            logger.error(ANSI_GREEN + "[{}] : Java script exception occurred : {}" + ANSI_RESET,
-                    testMethodName, e.getMessage());
-            e.printStackTrace();
-        });
+    private static ExtensionContext classContext(ExtensionContext context) {
+        ExtensionContext classContext = context;
+        while (classContext.getTestMethod().isPresent()) {
+            classContext = classContext.getParent().orElseThrow();
+        }
+        return classContext;
     }
 
-    protected void registerNetworkRequestListener() {
-        devTools.addListener(Network.requestWillBeSent(),
+    /**
+     * Creates a session, puts it in the store under the given key and enables the Dev Tools domains with their
+     * listeners. Listeners are registered first and the domains are then enabled concurrently, except those the
+     * warm-up of a leased pooled driver enabled already.
+     */
+    protected TestSession openSession(ExtensionContext context, ExtensionContext.Store store, String key,
+                                      String name, DevTools devTools, DevToolsSettings settings) throws Exception {
+        teardown(context).awaitPending(devTools);
+        boolean warmedUp = isLeasedFromPool(context, devTools);
+        SessionSetup setup = new SessionSetup();
+        TestSession session = new TestSession(name, devTools, resolveUrlFilter(context), settings,
+                createEventHandler(context));
+        session.recordSetup(setup);
+        store.put(key, session);
+
+        if (devTools instanceof BrowserContextDevTools) {
+            ((BrowserContextDevTools) devTools).open(setup);
+        } else {
+            setup.step("Target.attachToTarget", devTools::createSessionIfThereIsNotOne);
+        }
+        settings.recordDir().ifPresent(directory -> recordEvents(context, session, directory));
+        session.blockList(resolveBlockList(context, settings));
+        settings.assetCacheDir().ifPresent(directory -> session.assetCache(assetCache(context, settings)));
+        Map<String, Runnable> domains = new LinkedHashMap<>();
+        if (settings.networkMode() == NetworkMode.FETCH || session.assetCache().isPresent()) {
+            registerFetchListener(session);
+            domains.put("Fetch.enable", () -> enableFetch(session));
+        }
+        if (settings.networkMode() != NetworkMode.FETCH) {
+            registerNetworkRequestListener(session);
+            registerNetworkResponseListener(session);
+            registerNetworkLoadingListener(session);
+            if (!warmedUp || !session.blockList().isEmpty()) {
+                domains.put("Network.enable", () ->
+                {
+                    if (!warmedUp) {
+                        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+                    }
+                    if (!session.blockList().isEmpty()) {
+                        devTools.send(Network.setBlockedURLs(session.blockList().patterns()));
+                    }
+                });
+            }
+        }
+        registerLogListener(session);
+        if (!warmedUp) {
+            domains.put("Log.enable", () -> devTools.send(Log.enable()));
+        }
+        domains.put("Runtime.enable", () -> logJavaScriptExceptions(session));
+        setup.concurrently(settings.setupTimeout(), domains);
+        setup.finish();
+        logger.debug("[{}] : Dev Tools session set up: {}", name, setup);
+        return session;
+    }
+
+    /**
+     * @return whether the Dev Tools are those of the pooled driver leased for the test, see
+     * {@link #warmUp(ChromiumDriver, DevToolsSettings)}
+     */
+    private static boolean isLeasedFromPool(ExtensionContext context, DevTools devTools) {
+        PooledDriver pooled = context.getStore(NAMESPACE).get(POOLED_DRIVER_KEY, PooledDriver.class);
+        return pooled != null && pooled.driver().getDevTools() == devTools;
+    }
+
+    private static void enableFetch(TestSession session) {
+        List<RequestPattern> patterns = new ArrayList<>();
+        if (session.settings().networkMode() == NetworkMode.FETCH) {
+            patterns.addAll(requestPatterns(session.urlFilter(), session.blockList()));
+        }
+        if (session.assetCache().isPresent()) {
+            patterns.addAll(assetCachePatterns(session.settings().assetCacheResourceTypes()));
+        }
+        session.devTools().send(Fetch.enable(Optional.of(patterns), Optional.of(false)));
+    }
+
+    /**
+     * @return asset cache shared by the whole test run, opened on first use
+     */
+    protected AssetCache assetCache(ExtensionContext context, DevToolsSettings settings) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ASSET_CACHE_KEY,
+                key ->
+                {
+                    try {
+                        return AssetCache.open(settings.assetCacheDir().orElseThrow(), settings.assetCacheMaxBytes());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, AssetCache.class);
+    }
+
+    /**
+     * @return login snapshots shared by the whole test run, opened on first use
+     */
+    protected LoginSnapshotCache loginSnapshots(ExtensionContext context, DevToolsSettings settings) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(LOGIN_SNAPSHOTS_KEY,
+                key ->
+                {
+                    try {
+                        return LoginSnapshotCache.open(settings.loginSnapshotDir().orElse(null),
+                                settings.loginSnapshotTtl());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, LoginSnapshotCache.class);
+    }
+
+    /**
+     * @return URL patterns blocked for the test or class of the context, from the {@link BlockedUrls} annotations
+     * and the {@code cdplogger.network.blockedUrls} parameter
+     */
+    protected BlockList resolveBlockList(ExtensionContext context, DevToolsSettings settings) {
+        List<String> patterns = new ArrayList<>(settings.networkBlockedUrls());
+        AnnotationSupport.findAnnotation(context.getRequiredTestClass(), BlockedUrls.class)
+                .ifPresent(blockedUrls -> patterns.addAll(Arrays.asList(blockedUrls.value())));
+        context.getTestMethod()
+                .flatMap(method -> AnnotationSupport.findAnnotation(method, BlockedUrls.class))
+                .ifPresent(blockedUrls -> patterns.addAll(Arrays.asList(blockedUrls.value())));
+        return BlockList.of(patterns);
+    }
+
+    /**
+     * Switches a class scoped session to the block list of the next test, when its method adds patterns to those
+     * of the class.
+     */
+    private static void updateBlockList(TestSession session, BlockList blockList) {
+        if (blockList.equals(session.blockList())) {
+            return;
+        }
+        session.blockList(blockList);
+        if (session.settings().networkMode() == NetworkMode.FETCH) {
+            enableFetch(session);
+        } else {
+            session.devTools().send(Network.setBlockedURLs(blockList.patterns()));
+        }
+    }
+
+    /**
+     * Taps the session events into a recording named {@code TestClass.test}, or {@code TestClass} for class
+     * scoped sessions.
+     */
+    protected void recordEvents(ExtensionContext context, TestSession session, Path directory) {
+        String className = context.getRequiredTestClass().getSimpleName();
+        String name = session.testName().equals(className) ? className : className + "." + session.testName();
+        EventRecorder recorder = new EventRecorder(EventRecorder.file(directory, name));
+        recorder.register(session.devTools());
+        session.recordEvents(recorder);
+    }
+
+    /**
+     * @return Dev Tools of the test class driver or {@code null} when the driver is not available yet
+     */
+    protected DevTools resolveDevTools(ExtensionContext context) throws Exception {
+        ChromiumDriver driver = resolveDriver(context);
+        return driver != null ? driver.getDevTools() : null;
+    }
+
+    /**
+     * @return Dev Tools of a new browser context in the browser of the test class driver, opened with the session,
+     * see {@link SessionIsolation#BROWSER_CONTEXT}
+     */
+    protected DevTools resolveIsolatedDevTools(ExtensionContext context) throws Exception {
+        return BrowserContextDevTools.connect(resolveDriver(context));
+    }
+
+    /**
+     * @return driver of the test class or {@code null} when it is not available yet
+     */
+    protected ChromiumDriver resolveDriver(ExtensionContext context) throws Exception {
+        return TestClassAccessors.forClass(context.getRequiredTestClass())
+                .driver(context.getTestInstance().orElse(null));
+    }
+
+    protected UrlFilter resolveUrlFilter(ExtensionContext context) {
+        return TestClassAccessors.forClass(context.getRequiredTestClass())
+                .urlFilter(context.getTestInstance().orElse(null));
+    }
+
+    /**
+     * @return handler writing the events of a session to the sinks of the run in batches
+     */
+    protected EventHandler createEventHandler(ExtensionContext context) {
+        DevToolsSettings settings = DevToolsSettings.from(context);
+        return new BatchingEventHandler(eventSinks(context, settings), settings.sinkBatchSize());
+    }
+
+    /**
+     * @return sinks shared by the whole test run, loaded on first use and closed when the run ends, after the
+     * sessions still being torn down have written their last events
+     */
+    protected EventSinks eventSinks(ExtensionContext context, DevToolsSettings settings) {
+        SessionTeardown teardown = teardown(context);
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(EVENT_SINKS_KEY,
+                key ->
+                {
+                    try {
+                        EventSinks sinks = EventSinks.load(settings.sinks(), settings.sinkDir());
+                        teardown.closeAfterTeardowns(sinks);
+                        return sinks;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, EventSinks.class);
+    }
+
+    protected void logJavaScriptExceptions(TestSession session) {
+
+        session.devTools().getDomains().events().addJavascriptExceptionListener(e ->
+                session.pipeline().publishJavaScriptException(session.testName(), e));
+    }
+
+    protected void registerNetworkRequestListener(TestSession session) {
+        if (session.settings().networkRawTap()) {
+            session.devTools().addListener(RawNetworkEvent.requestWillBeSent(),
+                    entry -> requestWillBeSent(session, entry.requestId, entry.method, entry.url,
+                            entry.resourceType, entry.timestamp, entry.redirectStatus, entry.postData));
+            return;
+        }
+        session.devTools().addListener(Network.requestWillBeSent(),
                 entry ->
                 {
                     Request request = entry.getRequest();
-                    if (entry.getType().equals(Optional.of(ResourceType.FETCH))) {
-                        if (request.getPostData().isPresent()) {
-                            logger.info("[{}] : [{}] Request with URL : {} : With body : {}",
-                                    testMethodName,
-                                    request.getMethod(),
-                                    request.getUrl(),
-                                    request.getPostData().get());
-                        } else {
-                            logger.info("[{}] : [{}] Request with URL : {}",
-                                    testMethodName,
-                                    request.getMethod(),
-                                    request.getUrl());
-                        }
+                    Optional<ResourceType> type = entry.getType();
+                    Optional<Response> redirectResponse = entry.getRedirectResponse();
+                    requestWillBeSent(session,
+                            entry.getRequestId().toString(),
+                            request.getMethod(),
+                            request.getUrl(),
+                            type.isPresent() ? type.get().toString() : null,
+                            seconds(entry.getTimestamp()),
+                            redirectResponse.isPresent() ? redirectResponse.get().getStatus() : -1,
+                            request.getPostData().orElse(null));
+                });
+    }
+
+    private static void requestWillBeSent(TestSession session, String requestId, String method, String url,
+                                          String resourceType, double timestamp, int redirectStatus,
+                                          String postData) {
+        session.networkEventReceived();
+        session.requestSent(url);
+        session.networkActivity().requestStarted(requestId);
+        publishCompletedRequest(session, session.requests().requestWillBeSent(requestId, method, url, resourceType,
+                timestamp, redirectStatus));
+        if (FETCH.equals(resourceType) && session.urlFilter().test(url)) {
+            session.pipeline().publishRequest(session.testName(), method, url, postData);
+        }
+    }
+
+    protected void registerNetworkResponseListener(TestSession session) {
+        if (session.settings().networkRawTap()) {
+            session.devTools().addListener(RawNetworkEvent.responseReceived(),
+                    entry ->
+                    {
+                        session.networkEventReceived();
+                        session.requests().responseReceived(entry);
+                        publishResponse(session, entry.resourceType, entry.url, entry.status);
+                    });
+            return;
+        }
+        session.devTools().addListener(Network.responseReceived(),
+                entry ->
+                {
+                    session.networkEventReceived();
+                    session.requests().responseReceived(entry.getRequestId().toString(),
+                            entry.getType().toString(),
+                            entry.getResponse().getStatus(),
+                            entry.getResponse().getTiming().orElse(null));
+                    publishResponse(session, entry.getType().toString(), entry.getResponse().getUrl(),
+                            entry.getResponse().getStatus());
+                });
+    }
+
+    private static void publishResponse(TestSession session, String resourceType, String url, int status) {
+        if ((FETCH.equals(resourceType) || XHR.equals(resourceType))
+                && session.urlFilter().test(url)) {
+            session.pipeline().publishResponse(session.testName(), url, status);
+        }
+    }
+
+    /**
+     * Completes requests tracked by {@link NetworkActivity} and publishes their correlated records.
+     */
+    protected void registerNetworkLoadingListener(TestSession session) {
+        session.devTools().addListener(Network.loadingFinished(),
+                entry ->
+                {
+                    String requestId = entry.getRequestId().toString();
+                    session.networkEventReceived();
+                    session.networkActivity().requestCompleted(requestId);
+                    publishCompletedRequest(session, session.requests().loadingFinished(requestId,
+                            seconds(entry.getTimestamp()),
+                            entry.getEncodedDataLength().longValue()));
+                });
+        session.devTools().addListener(Network.loadingFailed(),
+                entry ->
+                {
+                    String requestId = entry.getRequestId().toString();
+                    session.networkEventReceived();
+                    session.networkActivity().requestCompleted(requestId);
+                    if (entry.getBlockedReason().filter(BlockedReason.INSPECTOR::equals).isPresent()) {
+                        session.blockedRequests().record(entry.getType().toString());
                     }
+                    publishCompletedRequest(session, session.requests().loadingFailed(requestId,
+                            seconds(entry.getTimestamp()),
+                            entry.getErrorText()));
                 });
     }
 
-    protected void registerNetworkResponseListener(Optional<String> responseURLFilter) {
-        devTools.addListener(Network.responseReceived(),
+    /**
+     * Logs Fetch and XHR requests paused by the Fetch domain, see {@link NetworkMode#FETCH}, and continues them.
+     * A request is paused before it is sent and again when its response or error arrives. Requests matching the
+     * block list are failed instead, as the Network domain which could block them is not enabled.
+     *
+     * <p>Static assets paused for the {@link AssetCache} are fulfilled from the cache before they are sent, and
+     * their responses are stored when they arrive. In {@link NetworkMode#FULL} mode they are only paused for the
+     * cache and logged by the Network listeners.
+     */
+    protected void registerFetchListener(TestSession session) {
+        session.devTools().addListener(Fetch.requestPaused(),
                 entry ->
                 {
-                    Response response = entry.getResponse();
-                    if (entry.getType().equals(ResourceType.FETCH)
-                            || entry.getType().equals(ResourceType.XHR)) {
-                        if (response.getStatus() >= 400) {
-                            logResponse(response, responseURLFilter,
-                                    log -> logger.error(ANSI_GREEN + "[{}] : Response with URL : {} : With status code : {}" + ANSI_RESET,
-                                            testMethodName,
-                                            response.getUrl(),
-                                            response.getStatus()));
+                    session.networkEventReceived();
+                    String requestId = entry.getRequestId().toString();
+                    String resourceType = entry.getResourceType().toString();
+                    Request request = entry.getRequest();
+                    boolean requestStage = entry.getResponseStatusCode().isEmpty()
+                            && entry.getResponseErrorReason().isEmpty();
+                    boolean fetchMode = session.settings().networkMode() == NetworkMode.FETCH;
+                    if (fetchMode && requestStage && session.blockList().matches(request.getUrl())) {
+                        session.blockedRequests().record(resourceType);
+                        session.devTools().send(Fetch.failRequest(entry.getRequestId(), ErrorReason.BLOCKEDBYCLIENT));
+                        return;
+                    }
+                    AssetCache assetCache = cachedAssets(session, resourceType, request.getMethod());
+                    if (assetCache != null && requestStage && fulfillFromCache(session, assetCache, entry)) {
+                        return;
+                    }
+                    try {
+                        if (assetCache != null && entry.getResponseStatusCode().filter(status -> status == 200)
+                                .isPresent()) {
+                            storeInCache(session, assetCache, entry);
+                        }
+                        if (!fetchMode) {
+                            return;
+                        }
+                        if (requestStage) {
+                            session.requestSent(request.getUrl());
+                            session.networkActivity().requestStarted(requestId);
+                            if (FETCH.equals(resourceType) && session.urlFilter().test(request.getUrl())) {
+                                session.pipeline().publishRequest(session.testName(), request.getMethod(),
+                                        request.getUrl(), request.getPostData().orElse(null));
+                            }
                         } else {
-                            logResponse(response, responseURLFilter,
-                                    log -> logger.info("[{}] : Response with URL : {} : With status code : {}",
-                                            testMethodName,
-                                            response.getUrl(),
-                                            response.getStatus()));
+                            session.networkActivity().requestCompleted(requestId);
+                            if (entry.getResponseStatusCode().isPresent()) {
+                                publishResponse(session, resourceType, request.getUrl(),
+                                        entry.getResponseStatusCode().get());
+                            }
                         }
+                    } finally {
+                        session.devTools().send(Fetch.continueRequest(entry.getRequestId(), Optional.empty(),
+                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()));
                     }
                 });
     }
 
-    private void logResponse(Response resp, Optional<String> responseURLFilter, Consumer<Response> handler) {
-        if (responseURLFilter.isPresent()) {
-            if (resp.getUrl().contains(responseURLFilter.get())) {
-                handler.accept(resp);
+    /**
+     * @return the asset cache when the session caches GET requests of the resource type, otherwise {@code null}
+     */
+    private static AssetCache cachedAssets(TestSession session, String resourceType, String method) {
+        Optional<AssetCache> assetCache = session.assetCache();
+        return assetCache.isPresent() && "GET".equals(method)
+                && session.settings().assetCacheResourceTypes().contains(resourceType)
+                ? assetCache.get()
+                : null;
+    }
+
+    /**
+     * @return whether the paused request was fulfilled with a fresh cached response. A cache entry that cannot be
+     * read or served is counted as a miss, so the request is continued to the network.
+     */
+    private static boolean fulfillFromCache(TestSession session, AssetCache assetCache, RequestPaused entry) {
+        Optional<CachedAsset> asset;
+        try {
+            asset = assetCache.lookup(entry.getRequest().getUrl());
+        } catch (RuntimeException e) {
+            logger.warn("[{}] : Asset {} not read from cache: {}", session.testName(), entry.getRequest().getUrl(),
+                    e.toString());
+            asset = Optional.empty();
+        }
+        if (asset.isEmpty()) {
+            session.assetCacheStats().miss();
+            return false;
+        }
+        CachedAsset cached = asset.get();
+        session.assetCacheStats().hit(cached.body().length);
+        try {
+            session.devTools().send(Fetch.fulfillRequest(entry.getRequestId(), cached.status(),
+                    Optional.of(cached.headers().stream()
+                            .map(header -> new HeaderEntry(header.getKey(), header.getValue()))
+                            .collect(Collectors.toList())),
+                    Optional.empty(),
+                    Optional.of(Base64.getEncoder().encodeToString(cached.body())),
+                    Optional.empty()));
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("[{}] : Asset {} not served from cache: {}", session.testName(), entry.getRequest().getUrl(),
+                    e.toString());
+            session.assetCacheStats().notServed(cached.body().length);
+            return false;
+        }
+    }
+
+    /**
+     * Stores the paused response in the cache when its headers allow it. The body can only be read while the
+     * response is paused.
+     */
+    private static void storeInCache(TestSession session, AssetCache assetCache, RequestPaused entry) {
+        List<Map.Entry<String, String>> headers = entry.getResponseHeaders().orElse(List.of()).stream()
+                .map(header -> Map.entry(header.getName(), header.getValue()))
+                .collect(Collectors.toList());
+        try {
+            Fetch.GetResponseBodyResponse response = session.devTools().send(
+                    Fetch.getResponseBody(entry.getRequestId()));
+            byte[] body = response.getBase64Encoded()
+                    ? Base64.getDecoder().decode(response.getBody())
+                    : response.getBody().getBytes(StandardCharsets.UTF_8);
+            if (assetCache.store(entry.getRequest().getUrl(), 200, headers, body)) {
+                session.assetCacheStats().stored();
+            }
+        } catch (RuntimeException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("[{}] : Asset {} not cached: {}", session.testName(), entry.getRequest().getUrl(),
+                        e.toString());
             }
-        } else {
-            handler.accept(resp);
         }
     }
 
-    protected void registerLogListener() {
-        devTools.addListener(Log.entryAdded(),
+    /**
+     * @return patterns pausing static assets of the given resource types for the {@link AssetCache}, before they
+     * are sent and when their responses arrive
+     */
+    protected static List<RequestPattern> assetCachePatterns(List<String> resourceTypes) {
+        List<RequestPattern> patterns = new ArrayList<>();
+        for (String resourceType : resourceTypes) {
+            for (RequestStage stage : RequestStage.values()) {
+                patterns.add(new RequestPattern(Optional.of("*"), Optional.of(ResourceType.fromString(resourceType)),
+                        Optional.of(stage)));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * @return patterns pausing the Fetch and XHR requests which may pass the filter, before they are sent and when
+     * their responses arrive, and requests of any type matching the block list before they are sent
+     */
+    protected static List<RequestPattern> requestPatterns(UrlFilter filter, BlockList blockList) {
+        List<RequestPattern> patterns = new ArrayList<>();
+        for (String urlPattern : blockList.fetchPatterns()) {
+            patterns.add(new RequestPattern(Optional.of(urlPattern), Optional.empty(),
+                    Optional.of(RequestStage.REQUEST)));
+        }
+        for (String urlPattern : filter.browserPatterns()) {
+            for (ResourceType resourceType : List.of(ResourceType.FETCH, ResourceType.XHR)) {
+                for (RequestStage stage : RequestStage.values()) {
+                    patterns.add(new RequestPattern(Optional.of(urlPattern), Optional.of(resourceType),
+                            Optional.of(stage)));
+                }
+            }
+        }
+        return patterns;
+    }
+
+    private static void publishCompletedRequest(TestSession session, RequestRecord record) {
+        if (record != null && session.urlFilter().test(record.url)) {
+            session.latencies().record(record.method, record.url, Math.round(record.durationMillis() * 1000));
+            session.pipeline().publishRequestCompleted(session.testName(), record);
+        }
+    }
+
+    private static double seconds(MonotonicTime timestamp) {
+        return Double.parseDouble(timestamp.toJson());
+    }
+
+    protected void registerLogListener(TestSession session) {
+        session.devTools().addListener(Log.entryAdded(),
                 entry ->
                 {
-                    if (entry.getLevel().equals(LogEntry.Level.ERROR)) {
-
-                        logger.error(ANSI_GREEN + "[{} : LOG.ERROR] Entry added with text: {}" + ANSI_RESET,
-                                testMethodName,
-                                entry.getText());
-                        if (entry.getStackTrace().isPresent()) {
-                            logger.error(ANSI_GREEN + "[{} : LOG.ERROR]\tWith stack trace : {}" + ANSI_RESET,
-                                    testMethodName,
-                                    entry.getStackTrace().get());
-                        }
+                    Optional<String> url = entry.getUrl();
+                    if (entry.getLevel() == LogEntry.Level.ERROR
+                            && (url.isEmpty() || session.urlFilter().test(url.get()))) {
+                        session.pipeline().publishLog(session.testName(),
+                                entry.getText(),
+                                entry.getStackTrace().orElse(null));
                     }
                 });
     }
 
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == NetworkActivity.class || type == PageActivity.class || type == LoginSession.class;
+    }
+
+    /**
+     * Resolves the {@link NetworkActivity}, the {@link PageActivity} or the {@link LoginSession} of the session the
+     * test runs with. Test method parameters are resolved after {@code beforeTestExecution}, so the session is
+     * already open.
+     */
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+        TestSession session = store.get(extensionContext.getUniqueId(), TestSession.class);
+        if (session == null) {
+            session = store.get(CLASS_SESSION_KEY, TestSession.class);
+        }
+        if (session == null) {
+            throw new ParameterResolutionException(String.format("No Dev Tools session is open for '%s'. "
+                            + "\n%s can be injected into test methods only.",
+                    extensionContext.getDisplayName(), parameterContext.getParameter().getType().getSimpleName()));
+        }
+        if (parameterContext.getParameter().getType() == LoginSession.class) {
+            String name = extensionContext.getTestMethod()
+                    .flatMap(method -> AnnotationSupport.findAnnotation(method, ReuseLogin.class))
+                    .or(() -> AnnotationSupport.findAnnotation(extensionContext.getRequiredTestClass(),
+                            ReuseLogin.class))
+                    .map(ReuseLogin::value)
+                    .orElseThrow(() -> new ParameterResolutionException(String.format("'%s' has no login step "
+                                    + "to reuse. \nAnnotate the test method or class with @ReuseLogin.",
+                            extensionContext.getDisplayName())));
+            return new LoginSession(session, name, loginSnapshots(extensionContext, session.settings()));
+        }
+        if (parameterContext.getParameter().getType() == PageActivity.class) {
+            installPageSignals(session);
+            return session.pageActivity();
+        }
+        return session.networkActivity();
+    }
+
+    /**
+     * Adds the binding the page pushes DOM mutations and signals through, and the script pushing them, once per
+     * session. The script is added for new documents and evaluated in the current one, whose mutations before are
+     * not seen.
+     */
+    private static void installPageSignals(TestSession session) {
+        PageActivity page = session.pageActivity();
+        if (!page.startInstalling()) {
+            return;
+        }
+        DevTools devTools = session.devTools();
+        devTools.addListener(Runtime.bindingCalled(), call ->
+        {
+            if (PageActivity.BINDING.equals(call.getName())) {
+                page.pushed(call.getPayload());
+            }
+        });
+        SessionSetup setup = new SessionSetup();
+        setup.step("Runtime.addBinding", () -> devTools.send(Runtime.addBinding(PageActivity.BINDING,
+                Optional.empty(), Optional.empty())));
+        setup.step("Page.addScriptToEvaluateOnNewDocument", () -> devTools.send(
+                Page.addScriptToEvaluateOnNewDocument(PageActivity.SCRIPT, Optional.empty(), Optional.empty())));
+        setup.step("Runtime.evaluate", () -> devTools.send(Runtime.evaluate(PageActivity.SCRIPT, Optional.empty(),
+                Optional.empty(), Optional.of(true), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty())));
+        setup.finish();
+        logger.debug("[{}] : Page signals installed: {}", session.testName(), setup);
+    }
+
     @Override
     public void afterTestExecution(ExtensionContext context) throws Exception {
-        if (devTools != null) {
-            devTools.clearListeners();
-            devTools.close();
+        boolean testFailed = context.getExecutionException().isPresent();
+        TestSession session = context.getStore(NAMESPACE).remove(context.getUniqueId(), TestSession.class);
+        if (session != null) {
+            recordTestLatencies(context, session.takeLatencies());
+            reportBlockedRequests(context, session.takeBlockedRequests());
+            reportAssetCache(context, session.takeAssetCacheStats());
+            reportLoginSnapshot(context, session.takeLoginSnapshotStats());
+            if (session.devTools() instanceof BrowserContextDevTools) {
+                BrowserContextDevTools devTools = (BrowserContextDevTools) session.devTools();
+                devTools.restoreWindow();
+                reportBrowserContext(context, Duration.ofNanos(devTools.setupNanos()), averageDriverStart(context));
+            }
+            resetBrowserState(context, session);
+            closeSession(context, session, testFailed);
+            return;
+        }
+        TestSession classSession = context.getStore(NAMESPACE).get(CLASS_SESSION_KEY, TestSession.class);
+        if (classSession != null) {
+            classSession.endTest(testFailed);
+            recordTestLatencies(context, classSession.takeLatencies());
+            reportBlockedRequests(context, classSession.takeBlockedRequests());
+            reportAssetCache(context, classSession.takeAssetCacheStats());
+            reportLoginSnapshot(context, classSession.takeLoginSnapshotStats());
+            resetBrowserState(context, classSession);
+        }
+    }
+
+    /**
+     * Clears storage of the origins the test requested, the browser cookies and the browser cache, so the next test
+     * can reuse the browser. Nothing is left to clear in a browser context of the test, which is disposed.
+     * A failed reset is logged and does not fail the test, but a pooled driver is then not leased again.
+     */
+    private void resetBrowserState(ExtensionContext context, TestSession session) {
+        Set<String> origins = session.takeOrigins();
+        if (!session.settings().resetEnabled() || session.devTools() instanceof BrowserContextDevTools) {
+            return;
+        }
+        DevTools devTools = session.devTools();
+        Map<String, Runnable> commands = new LinkedHashMap<>();
+        for (String origin : origins) {
+            commands.put("Storage.clearDataForOrigin " + origin,
+                    () -> devTools.send(Storage.clearDataForOrigin(origin, "all")));
+        }
+        commands.put("Network.clearBrowserCookies", () -> devTools.send(Network.clearBrowserCookies()));
+        commands.put("Network.clearBrowserCache", () -> devTools.send(Network.clearBrowserCache()));
+        SessionSetup reset = new SessionSetup();
+        try {
+            reset.concurrently(session.settings().resetTimeout(), commands);
+        } catch (RuntimeException e) {
+            context.getStore(NAMESPACE).put(RESET_FAILED_KEY, Boolean.TRUE);
+            logger.warn("[{}] : Browser state was not reset: {}", context.getRequiredTestMethod().getName(),
+                    e.getMessage());
+            return;
+        }
+        reset.finish();
+        reportReset(context, reset, origins.size());
+    }
+
+    /**
+     * Logs the time the browser state reset after the test took, see {@code cdplogger.reset.enabled}.
+     *
+     * @param reset latencies of the reset commands
+     * @param origins number of origins whose storage was cleared
+     */
+    protected void reportReset(ExtensionContext context, SessionSetup reset, int origins) {
+        logger.info("[{}] : Browser state of {} origins reset in {} ms", context.getRequiredTestMethod().getName(),
+                origins, TimeUnit.NANOSECONDS.toMillis(reset.totalNanos()));
+        if (logger.isDebugEnabled()) {
+            logger.debug("[{}] : Browser state reset: {}", context.getRequiredTestMethod().getName(), reset);
+        }
+    }
+
+    /**
+     * Logs the requests blocked while the test ran, see {@link BlockedUrls}.
+     */
+    protected void reportBlockedRequests(ExtensionContext context, BlockedRequests blockedRequests) {
+        if (!blockedRequests.isEmpty()) {
+            logger.info("[{}] : {}", context.getRequiredTestMethod().getName(), blockedRequests);
+        }
+    }
+
+    /**
+     * @return average time the drivers of the pool took to start, empty when drivers are not pooled or none has
+     * started yet
+     */
+    private static Optional<Duration> averageDriverStart(ExtensionContext context) {
+        DriverPool pool = context.getRoot().getStore(NAMESPACE).get(DRIVER_POOL_KEY, DriverPool.class);
+        if (pool == null || pool.stats().started() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(pool.stats().averageStartNanos()));
+    }
+
+    /**
+     * Logs the time the browser context of the test took to set up, see {@link SessionIsolation#BROWSER_CONTEXT}.
+     * With pooled drivers it is compared with the measured average driver start, which the context saved.
+     */
+    protected void reportBrowserContext(ExtensionContext context, Duration contextSetup,
+                                        Optional<Duration> driverStart) {
+        if (driverStart.isPresent()) {
+            logger.info("[{}] : Browser context set up in {} ms, drivers of the pool started in {} ms on average",
+                    context.getRequiredTestMethod().getName(), contextSetup.toMillis(), driverStart.get().toMillis());
+        } else {
+            logger.info("[{}] : Browser context set up in {} ms", context.getRequiredTestMethod().getName(),
+                    contextSetup.toMillis());
+        }
+    }
+
+    /**
+     * Logs the static assets served from and stored in the asset cache while the test ran, see {@link AssetCache}.
+     */
+    protected void reportAssetCache(ExtensionContext context, AssetCacheStats stats) {
+        if (!stats.isEmpty()) {
+            logger.info("[{}] : {}", context.getRequiredTestMethod().getName(), stats);
         }
     }
+
+    /**
+     * Logs the login steps the test restored or ran, with the hit rate and time saved of the whole run so far, see
+     * {@link LoginSession}.
+     */
+    protected void reportLoginSnapshot(ExtensionContext context, LoginSnapshotStats stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        LoginSnapshotCache snapshots = context.getRoot().getStore(NAMESPACE).get(LOGIN_SNAPSHOTS_KEY,
+                LoginSnapshotCache.class);
+        logger.info("[{}] : {}; test run: {}", context.getRequiredTestMethod().getName(), stats,
+                snapshots != null ? snapshots.stats() : stats);
+    }
+
+    /**
+     * Merges the request latencies of a test into the latencies of its class.
+     */
+    private static void recordTestLatencies(ExtensionContext context, LatencyRegistry latencies) {
+        if (latencies.isEmpty()) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("[{}] : Network latency per endpoint:{}", context.getRequiredTestMethod().getName(),
+                    latencies.summary());
+        }
+        classContext(context).getStore(NAMESPACE)
+                .getOrComputeIfAbsent(CLASS_LATENCIES_KEY, key -> new LatencyRegistry(), LatencyRegistry.class)
+                .merge(latencies);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        LatencyRegistry classLatencies = context.getStore(NAMESPACE).remove(CLASS_LATENCIES_KEY,
+                LatencyRegistry.class);
+        if (classLatencies != null) {
+            logger.info("[{}] : Network latency per endpoint:{}", context.getRequiredTestClass().getSimpleName(),
+                    classLatencies.summary());
+            DevToolsSettings settings = DevToolsSettings.from(context);
+            context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(LATENCY_REPORT_KEY,
+                            key -> new LatencyReport(settings.latencyReportDir().orElse(null)), LatencyReport.class)
+                    .latencies().merge(classLatencies);
+        }
+        TestSession session = context.getStore(NAMESPACE).remove(CLASS_SESSION_KEY, TestSession.class);
+        if (session != null) {
+            logger.debug("[{}] : Dev Tools session set up once in {} ms and reused by {} tests",
+                    context.getRequiredTestClass().getSimpleName(),
+                    TimeUnit.NANOSECONDS.toMillis(session.setup().totalNanos()),
+                    session.testsServed());
+            closeSession(context, session, false);
+        }
+    }
+
+    /**
+     * Closes the session on the calling thread, or with {@code cdplogger.teardown.async=true} writes its remaining
+     * events and then detaches it in the background, see {@link SessionTeardown}.
+     */
+    protected void closeSession(ExtensionContext context, TestSession session, boolean testFailed)
+            throws Exception {
+        if (DevToolsSettings.from(context).teardownAsync()) {
+            session.finish(testFailed);
+            teardown(context).submit(session, testFailed);
+        } else {
+            teardown(context).closeNow(session, testFailed);
+        }
+    }
+
+    /**
+     * @return teardown executor shared by the whole test run
+     */
+    protected SessionTeardown teardown(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(TEARDOWN_KEY,
+                key -> new SessionTeardown(DevToolsSettings.from(context).teardownTimeout()),
+                SessionTeardown.class);
+    }
 }
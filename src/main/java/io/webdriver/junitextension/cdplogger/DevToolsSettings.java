@@ -0,0 +1,387 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.pipeline.WaitStrategy;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Settings of {@link DevToolsExtension} read from JUnit Platform configuration parameters.
+ *
+ * <p>Parameters can be provided in {@code junit-platform.properties} on the test class path or as JVM system
+ * properties, e.g. {@code -Dcdplogger.pipeline.waitStrategy=sleeping}.
+ */
+public final class DevToolsSettings {
+
+    public static final String PIPELINE_CAPACITY = "cdplogger.pipeline.capacity";
+    public static final String PIPELINE_WAIT_STRATEGY = "cdplogger.pipeline.waitStrategy";
+    public static final String CAPTURE_MODE = "cdplogger.capture.mode";
+    public static final String CAPTURE_MAX_BYTES = "cdplogger.capture.maxBytes";
+    public static final String SESSION_SCOPE = "cdplogger.session.scope";
+    public static final String SESSION_ISOLATION = "cdplogger.session.isolation";
+    public static final String SETUP_TIMEOUT_MILLIS = "cdplogger.setup.timeoutMillis";
+    public static final String TEARDOWN_ASYNC = "cdplogger.teardown.async";
+    public static final String TEARDOWN_TIMEOUT_MILLIS = "cdplogger.teardown.timeoutMillis";
+    public static final String NETWORK_MAX_PENDING_REQUESTS = "cdplogger.network.maxPendingRequests";
+    public static final String NETWORK_RAW_TAP = "cdplogger.network.rawTap";
+    public static final String NETWORK_MODE = "cdplogger.network.mode";
+    public static final String NETWORK_BLOCKED_URLS = "cdplogger.network.blockedUrls";
+    public static final String LATENCY_REPORT_DIR = "cdplogger.latency.reportDir";
+    public static final String RECORD_DIR = "cdplogger.record.dir";
+    public static final String RESET_ENABLED = "cdplogger.reset.enabled";
+    public static final String RESET_TIMEOUT_MILLIS = "cdplogger.reset.timeoutMillis";
+    public static final String POOL_SIZE = "cdplogger.pool.size";
+    public static final String POOL_MAX_USES = "cdplogger.pool.maxUses";
+    public static final String POOL_ACQUIRE_TIMEOUT_MILLIS = "cdplogger.pool.acquireTimeoutMillis";
+    public static final String POOL_DRIVER_FACTORY = "cdplogger.pool.driverFactory";
+    public static final String ASSET_CACHE_DIR = "cdplogger.assetCache.dir";
+    public static final String ASSET_CACHE_MAX_BYTES = "cdplogger.assetCache.maxBytes";
+    public static final String ASSET_CACHE_RESOURCE_TYPES = "cdplogger.assetCache.resourceTypes";
+    public static final String LOGIN_SNAPSHOT_DIR = "cdplogger.login.snapshotDir";
+    public static final String LOGIN_SNAPSHOT_TTL_SECONDS = "cdplogger.login.snapshotTtlSeconds";
+    public static final String SINKS = "cdplogger.sinks";
+    public static final String SINK_DIR = "cdplogger.sink.dir";
+    public static final String SINK_BATCH_SIZE = "cdplogger.sink.batchSize";
+
+    static final int DEFAULT_PIPELINE_CAPACITY = 8192;
+    static final long DEFAULT_CAPTURE_MAX_BYTES = 4L * 1024 * 1024;
+    static final long DEFAULT_SETUP_TIMEOUT_MILLIS = 10_000;
+    static final long DEFAULT_TEARDOWN_TIMEOUT_MILLIS = 10_000;
+    static final int DEFAULT_NETWORK_MAX_PENDING_REQUESTS = 1024;
+    static final long DEFAULT_RESET_TIMEOUT_MILLIS = 5_000;
+    static final int DEFAULT_POOL_MAX_USES = 50;
+    static final long DEFAULT_POOL_ACQUIRE_TIMEOUT_MILLIS = 60_000;
+    static final long DEFAULT_ASSET_CACHE_MAX_BYTES = 512L * 1024 * 1024;
+    static final String DEFAULT_ASSET_CACHE_RESOURCE_TYPES = "Script,Stylesheet,Image,Font";
+    static final long DEFAULT_LOGIN_SNAPSHOT_TTL_SECONDS = 30 * 60;
+    static final String DEFAULT_SINKS = "slf4j";
+    static final String DEFAULT_SINK_DIR = "build/cdp-events";
+    static final int DEFAULT_SINK_BATCH_SIZE = 256;
+
+    private final int pipelineCapacity;
+    private final WaitStrategy waitStrategy;
+    private final CaptureMode captureMode;
+    private final long captureMaxBytes;
+    private final SessionScope sessionScope;
+    private final SessionIsolation sessionIsolation;
+    private final Duration setupTimeout;
+    private final boolean teardownAsync;
+    private final Duration teardownTimeout;
+    private final int networkMaxPendingRequests;
+    private final boolean networkRawTap;
+    private final NetworkMode networkMode;
+    private final List<String> networkBlockedUrls;
+    private final Path latencyReportDir;
+    private final Path recordDir;
+    private final boolean resetEnabled;
+    private final Duration resetTimeout;
+    private final int poolSize;
+    private final int poolMaxUses;
+    private final Duration poolAcquireTimeout;
+    private final String poolDriverFactory;
+    private final Path assetCacheDir;
+    private final long assetCacheMaxBytes;
+    private final List<String> assetCacheResourceTypes;
+    private final Path loginSnapshotDir;
+    private final Duration loginSnapshotTtl;
+    private final List<String> sinks;
+    private final Path sinkDir;
+    private final int sinkBatchSize;
+
+    private DevToolsSettings(ConfigurationParameters context) {
+        this.pipelineCapacity = context.getConfigurationParameter(PIPELINE_CAPACITY, Integer::parseInt)
+                .orElse(DEFAULT_PIPELINE_CAPACITY);
+        this.waitStrategy = context.getConfigurationParameter(PIPELINE_WAIT_STRATEGY,
+                        value -> WaitStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT)))
+                .orElse(WaitStrategy.BLOCKING);
+        this.captureMode = context.getConfigurationParameter(CAPTURE_MODE, CaptureMode::parse)
+                .orElse(CaptureMode.ALWAYS);
+        this.captureMaxBytes = context.getConfigurationParameter(CAPTURE_MAX_BYTES, Long::parseLong)
+                .orElse(DEFAULT_CAPTURE_MAX_BYTES);
+        this.sessionScope = context.getConfigurationParameter(SESSION_SCOPE, SessionScope::parse)
+                .orElse(SessionScope.TEST);
+        this.sessionIsolation = context.getConfigurationParameter(SESSION_ISOLATION, SessionIsolation::parse)
+                .orElse(SessionIsolation.NONE);
+        if (sessionScope == SessionScope.CLASS && sessionIsolation == SessionIsolation.BROWSER_CONTEXT) {
+            throw new IllegalArgumentException(SESSION_ISOLATION + "=browser-context isolates tests of test scoped "
+                    + "sessions only, it cannot be combined with " + SESSION_SCOPE + "=class");
+        }
+        this.setupTimeout = Duration.ofMillis(context.getConfigurationParameter(SETUP_TIMEOUT_MILLIS, Long::parseLong)
+                .orElse(DEFAULT_SETUP_TIMEOUT_MILLIS));
+        this.teardownAsync = context.getConfigurationParameter(TEARDOWN_ASYNC, Boolean::parseBoolean)
+                .orElse(false);
+        this.teardownTimeout = Duration.ofMillis(context.getConfigurationParameter(TEARDOWN_TIMEOUT_MILLIS,
+                        Long::parseLong)
+                .orElse(DEFAULT_TEARDOWN_TIMEOUT_MILLIS));
+        this.networkMaxPendingRequests = context.getConfigurationParameter(NETWORK_MAX_PENDING_REQUESTS,
+                        Integer::parseInt)
+                .orElse(DEFAULT_NETWORK_MAX_PENDING_REQUESTS);
+        this.networkRawTap = context.getConfigurationParameter(NETWORK_RAW_TAP, Boolean::parseBoolean)
+                .orElse(false);
+        this.networkMode = context.getConfigurationParameter(NETWORK_MODE, NetworkMode::parse)
+                .orElse(NetworkMode.FULL);
+        this.networkBlockedUrls = context.getConfigurationParameter(NETWORK_BLOCKED_URLS,
+                        DevToolsSettings::commaSeparated)
+                .orElse(List.of());
+        this.latencyReportDir = context.getConfigurationParameter(LATENCY_REPORT_DIR, Paths::get)
+                .orElse(null);
+        this.recordDir = context.getConfigurationParameter(RECORD_DIR, Paths::get)
+                .orElse(null);
+        this.resetEnabled = context.getConfigurationParameter(RESET_ENABLED, Boolean::parseBoolean)
+                .orElse(false);
+        this.resetTimeout = Duration.ofMillis(context.getConfigurationParameter(RESET_TIMEOUT_MILLIS, Long::parseLong)
+                .orElse(DEFAULT_RESET_TIMEOUT_MILLIS));
+        this.poolSize = context.getConfigurationParameter(POOL_SIZE, Integer::parseInt)
+                .orElse(0);
+        this.poolMaxUses = context.getConfigurationParameter(POOL_MAX_USES, Integer::parseInt)
+                .orElse(DEFAULT_POOL_MAX_USES);
+        this.poolAcquireTimeout = Duration.ofMillis(context.getConfigurationParameter(POOL_ACQUIRE_TIMEOUT_MILLIS,
+                        Long::parseLong)
+                .orElse(DEFAULT_POOL_ACQUIRE_TIMEOUT_MILLIS));
+        this.poolDriverFactory = context.getConfigurationParameter(POOL_DRIVER_FACTORY, String::trim)
+                .orElse(null);
+        this.assetCacheDir = context.getConfigurationParameter(ASSET_CACHE_DIR, Paths::get)
+                .orElse(null);
+        this.assetCacheMaxBytes = context.getConfigurationParameter(ASSET_CACHE_MAX_BYTES, Long::parseLong)
+                .orElse(DEFAULT_ASSET_CACHE_MAX_BYTES);
+        this.assetCacheResourceTypes = context.getConfigurationParameter(ASSET_CACHE_RESOURCE_TYPES,
+                        DevToolsSettings::commaSeparated)
+                .orElse(commaSeparated(DEFAULT_ASSET_CACHE_RESOURCE_TYPES));
+        this.loginSnapshotDir = context.getConfigurationParameter(LOGIN_SNAPSHOT_DIR, Paths::get)
+                .orElse(null);
+        this.loginSnapshotTtl = Duration.ofSeconds(context.getConfigurationParameter(LOGIN_SNAPSHOT_TTL_SECONDS,
+                Long::parseLong).orElse(DEFAULT_LOGIN_SNAPSHOT_TTL_SECONDS));
+        this.sinks = context.getConfigurationParameter(SINKS, DevToolsSettings::commaSeparated)
+                .orElse(commaSeparated(DEFAULT_SINKS));
+        this.sinkDir = context.getConfigurationParameter(SINK_DIR, Paths::get)
+                .orElse(Paths.get(DEFAULT_SINK_DIR));
+        this.sinkBatchSize = context.getConfigurationParameter(SINK_BATCH_SIZE, Integer::parseInt)
+                .orElse(DEFAULT_SINK_BATCH_SIZE);
+    }
+
+    private static List<String> commaSeparated(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(element -> !element.isEmpty())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public static DevToolsSettings from(ExtensionContext context) {
+        return new DevToolsSettings(context::getConfigurationParameter);
+    }
+
+    /**
+     * Reads the settings from the given parameters, e.g. to set up sessions outside of JUnit in benchmarks.
+     */
+    public static DevToolsSettings from(Map<String, String> parameters) {
+        return new DevToolsSettings(key -> Optional.ofNullable(parameters.get(key)));
+    }
+
+    @FunctionalInterface
+    private interface ConfigurationParameters {
+
+        Optional<String> get(String key);
+
+        default <T> Optional<T> getConfigurationParameter(String key, Function<String, T> transformer) {
+            return get(key).map(transformer);
+        }
+    }
+
+    public int pipelineCapacity() {
+        return pipelineCapacity;
+    }
+
+    public WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    public CaptureMode captureMode() {
+        return captureMode;
+    }
+
+    public long captureMaxBytes() {
+        return captureMaxBytes;
+    }
+
+    public SessionScope sessionScope() {
+        return sessionScope;
+    }
+
+    /**
+     * @return how test scoped sessions are isolated within the browser of the driver
+     */
+    public SessionIsolation sessionIsolation() {
+        return sessionIsolation;
+    }
+
+    /**
+     * @return overall time allowed for enabling the Dev Tools domains of a session
+     */
+    public Duration setupTimeout() {
+        return setupTimeout;
+    }
+
+    /**
+     * @return whether sessions are detached on a background executor instead of the test thread, off by default
+     * because a driver quit in {@code @AfterEach} closes the connection under a background teardown
+     */
+    public boolean teardownAsync() {
+        return teardownAsync;
+    }
+
+    /**
+     * @return time allowed for closing a session before its teardown is counted as timed out
+     */
+    public Duration teardownTimeout() {
+        return teardownTimeout;
+    }
+
+    /**
+     * @return number of incomplete requests kept for correlation before the oldest is evicted
+     */
+    public int networkMaxPendingRequests() {
+        return networkMaxPendingRequests;
+    }
+
+    /**
+     * @return whether request and response events are scanned from raw JSON instead of mapped to model classes,
+     * see {@link RawNetworkEvent}
+     */
+    public boolean networkRawTap() {
+        return networkRawTap;
+    }
+
+    /**
+     * @return domain network traffic is observed through
+     */
+    public NetworkMode networkMode() {
+        return networkMode;
+    }
+
+    /**
+     * @return comma separated URL patterns blocked in every test, see {@link BlockedUrls}
+     */
+    public List<String> networkBlockedUrls() {
+        return networkBlockedUrls;
+    }
+
+    /**
+     * @return directory the network latency summary of the test run is written to, if configured
+     */
+    public Optional<Path> latencyReportDir() {
+        return Optional.ofNullable(latencyReportDir);
+    }
+
+    /**
+     * @return directory the Dev Tools events of every session are recorded to, if configured
+     */
+    public Optional<Path> recordDir() {
+        return Optional.ofNullable(recordDir);
+    }
+
+    /**
+     * @return whether cookies, storage and cache of the browser are cleared after each test, so the next test can
+     * reuse the browser
+     */
+    public boolean resetEnabled() {
+        return resetEnabled;
+    }
+
+    public Duration resetTimeout() {
+        return resetTimeout;
+    }
+
+    /**
+     * @return number of drivers kept started by the driver pool, {@code 0} when drivers are not pooled, see
+     * {@link io.webdriver.junitextension.cdplogger.pool.DriverPool}
+     */
+    public int poolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return number of tests a pooled driver serves before it is replaced by a fresh one
+     */
+    public int poolMaxUses() {
+        return poolMaxUses;
+    }
+
+    public Duration poolAcquireTimeout() {
+        return poolAcquireTimeout;
+    }
+
+    /**
+     * @return class name of the {@link io.webdriver.junitextension.cdplogger.pool.DriverFactory} starting pooled
+     * drivers, if not the default local Chrome
+     */
+    public Optional<String> poolDriverFactory() {
+        return Optional.ofNullable(poolDriverFactory);
+    }
+
+    /**
+     * @return directory of the static asset cache shared by all tests and forks, if the cache is enabled, see
+     * {@link io.webdriver.junitextension.cdplogger.cache.AssetCache}
+     */
+    public Optional<Path> assetCacheDir() {
+        return Optional.ofNullable(assetCacheDir);
+    }
+
+    /**
+     * @return limit of the size of the cached asset bodies
+     */
+    public long assetCacheMaxBytes() {
+        return assetCacheMaxBytes;
+    }
+
+    /**
+     * @return resource types served from the asset cache, e.g. {@code Script}
+     */
+    public List<String> assetCacheResourceTypes() {
+        return assetCacheResourceTypes;
+    }
+
+    /**
+     * @return directory login snapshots are kept in across runs and forks, empty to keep them in memory only, see
+     * {@link ReuseLogin}
+     */
+    public Optional<Path> loginSnapshotDir() {
+        return Optional.ofNullable(loginSnapshotDir);
+    }
+
+    /**
+     * @return time a login snapshot is restored for after it was captured
+     */
+    public Duration loginSnapshotTtl() {
+        return loginSnapshotTtl;
+    }
+
+    /**
+     * @return names of the {@link io.webdriver.junitextension.cdplogger.sink.EventSink}s the events are written to
+     */
+    public List<String> sinks() {
+        return sinks;
+    }
+
+    /**
+     * @return directory of the sinks writing files
+     */
+    public Path sinkDir() {
+        return sinkDir;
+    }
+
+    /**
+     * @return number of events a session writes to the sinks at most at once
+     */
+    public int sinkBatchSize() {
+        return sinkBatchSize;
+    }
+}
@@ -0,0 +1,195 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the Dev Tools events of a session as they arrived, to replay them later without a browser.
+ *
+ * <p>The recorder taps the event stream next to the logging listeners: its listeners only queue the raw event
+ * parameters with their arrival time, and a background writer streams them in arrival order to a gzipped file with
+ * one event per line, {@code {"t":micros,"method":"Network.responseReceived","params":{...}}}, where {@code t} is
+ * the time since the first recorded event. Events waiting for the writer are bounded by
+ * {@value #MAX_PENDING_BYTES} bytes, estimated from the average size of the events written so far; events arriving
+ * while the writer is that far behind are counted as dropped.
+ */
+public final class EventRecorder {
+
+    static final long MAX_PENDING_BYTES = 64L * 1024 * 1024;
+    static final String FILE_SUFFIX = ".cdp.jsonl.gz";
+
+    /**
+     * Events a recording replays into the listeners of {@link DevToolsExtension}.
+     */
+    static final List<String> RECORDED_METHODS = List.of(
+            "Network.requestWillBeSent",
+            "Network.responseReceived",
+            "Network.loadingFinished",
+            "Network.loadingFailed",
+            "Log.entryAdded",
+            "Runtime.exceptionThrown");
+
+    private static final Json JSON = new Json();
+    private static final RecordedEvent END = new RecordedEvent(0, null, null);
+    private static final long INITIAL_EVENT_BYTES = 512;
+
+    private final Path file;
+    private final long maxPendingBytes;
+    private final long startNanos = System.nanoTime();
+    private final BlockingQueue<RecordedEvent> events = new LinkedBlockingQueue<>();
+    private final AtomicInteger recordedCount = new AtomicInteger();
+    private final AtomicInteger droppedCount = new AtomicInteger();
+    private final Thread writer;
+    private volatile long averageEventBytes = INITIAL_EVENT_BYTES;
+    private volatile boolean finished;
+    private volatile IOException writeError;
+
+    public EventRecorder(Path file) {
+        this(file, MAX_PENDING_BYTES);
+    }
+
+    EventRecorder(Path file, long maxPendingBytes) {
+        this.file = file;
+        this.maxPendingBytes = maxPendingBytes;
+        this.writer = new Thread(this::writeEvents, "cdp-logger-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @return file in the directory for the recording with the given name, with characters unsafe in file names
+     * replaced
+     */
+    public static Path file(Path directory, String name) {
+        return directory.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_SUFFIX);
+    }
+
+    /**
+     * Adds a listener for every recorded event method. Parameters are read into maps without mapping them to
+     * model classes.
+     */
+    public void register(DevTools devTools) {
+        for (String method : RECORDED_METHODS) {
+            devTools.addListener(new Event<Map<String, Object>>(method, input -> input.read(Json.MAP_TYPE)),
+                    params -> record(method, params));
+        }
+    }
+
+    void record(String method, Map<String, Object> params) {
+        long nanos = System.nanoTime() - startNanos;
+        long eventBytes = averageEventBytes;
+        if (finished || writeError != null || (events.size() + 1) * eventBytes > maxPendingBytes) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        recordedCount.incrementAndGet();
+        events.add(new RecordedEvent(nanos, method, params));
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public int recordedCount() {
+        return recordedCount.get();
+    }
+
+    public int droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Waits for the writer to write the queued events and closes the recording. Events recorded afterwards are
+     * dropped.
+     *
+     * @throws IOException when the recording could not be written
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            events.add(END);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for recording " + file);
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    /**
+     * Writes events until {@link #finish()}. Listeners may run concurrently, so arrival times are kept from going
+     * backwards.
+     */
+    private void writeEvents() {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (Writer output = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+                StringBuilder line = new StringBuilder(256);
+                long firstNanos = -1;
+                long lastMicros = 0;
+                long writtenCount = 0;
+                long writtenBytes = 0;
+                RecordedEvent event;
+                while ((event = events.take()) != END) {
+                    if (firstNanos < 0) {
+                        firstNanos = event.nanos;
+                    }
+                    lastMicros = Math.max(lastMicros, (event.nanos - firstNanos) / 1000);
+                    line.append("{\"t\":").append(lastMicros).append(",\"method\":\"").append(event.method)
+                            .append("\",\"params\":");
+                    try (JsonOutput json = JSON.newOutput(line).setPrettyPrint(false)) {
+                        json.write(event.params);
+                    }
+                    line.append("}\n");
+                    output.append(line);
+                    writtenBytes += line.length();
+                    averageEventBytes = writtenBytes / ++writtenCount;
+                    line.setLength(0);
+                }
+            }
+        } catch (IOException e) {
+            writeError = e;
+            events.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RecordedEvent {
+
+        private final long nanos;
+        private final String method;
+        private final Map<String, Object> params;
+
+        private RecordedEvent(long nanos, String method, Map<String, Object> params) {
+            this.nanos = nanos;
+            this.method = method;
+            this.params = params;
+        }
+    }
+}
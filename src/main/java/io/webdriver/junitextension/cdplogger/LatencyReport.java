@@ -0,0 +1,38 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.metrics.LatencyRegistry;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Network latencies of the whole test run, kept in the root {@link ExtensionContext.Store}.
+ *
+ * <p>Test classes merge their latencies in when they finish. When the store is closed at the end of the run the
+ * merged registry is written to {@code latency-<pid>.tsv} in the directory configured by
+ * {@code cdplogger.latency.reportDir}, so every fork of a parallel build writes its own file.
+ */
+public final class LatencyReport implements ExtensionContext.Store.CloseableResource {
+
+    private final LatencyRegistry latencies = new LatencyRegistry();
+    private final Path reportDir;
+
+    public LatencyReport(Path reportDir) {
+        this.reportDir = reportDir;
+    }
+
+    public LatencyRegistry latencies() {
+        return latencies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reportDir == null || latencies.isEmpty()) {
+            return;
+        }
+        Path file = reportDir.resolve("latency-" + ProcessHandle.current().pid() + ".tsv");
+        latencies.writeTo(file);
+        DevToolsExtension.logger.info("Network latency summary written to {}", file.toAbsolutePath());
+    }
+}
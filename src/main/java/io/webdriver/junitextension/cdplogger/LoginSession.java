@@ -0,0 +1,193 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.cache.LoginSnapshot;
+import io.webdriver.junitextension.cdplogger.cache.LoginSnapshotCache;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.Cookie;
+import org.openqa.selenium.devtools.v96.network.model.CookieParam;
+import org.openqa.selenium.devtools.v96.network.model.CookieSameSite;
+import org.openqa.selenium.devtools.v96.network.model.TimeSinceEpoch;
+import org.openqa.selenium.devtools.v96.page.Page;
+import org.openqa.selenium.devtools.v96.runtime.Runtime;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Login step of a test annotated with {@link ReuseLogin}, run once and restored from its snapshot afterwards.
+ *
+ * <p>Tests get it as a parameter and log in through it before they navigate to the application:
+ * <pre>{@code
+ * @Test
+ * @ReuseLogin("admin")
+ * void test(LoginSession login) {
+ *     login.login(() -> loginPage.logInAs("admin"));
+ *     driver.get("https://app.example/admin");
+ * }
+ * }</pre>
+ *
+ * <p>When no snapshot is cached the step runs, then cookies of the browser are captured with
+ * {@code Network.getAllCookies} and local storage of the page the step ended on with {@code Runtime.evaluate}.
+ * Otherwise the step is skipped: cookies are restored with {@code Network.setCookies}, and local storage by a script
+ * added with {@code Page.addScriptToEvaluateOnNewDocument}, which writes the items when the first document of the
+ * origin loads, before any of its scripts run. Local storage needs a document of its origin, so it cannot be written
+ * ahead of navigation directly. The script is removed when the test ends, so later tests of a class scoped session
+ * do not get the items.
+ */
+public final class LoginSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginSession.class);
+    private static final String CAPTURE_STORAGE = "({origin: location.origin, items: Object.assign({}, localStorage)})";
+    private static final String RESTORED_MARKER = "cdplogger.login";
+
+    private final TestSession session;
+    private final String name;
+    private final LoginSnapshotCache snapshots;
+
+    LoginSession(TestSession session, String name, LoginSnapshotCache snapshots) {
+        this.session = session;
+        this.name = name;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * @return name of the login step, see {@link ReuseLogin}
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Restores the snapshot of the login step, or runs the step and captures its snapshot when there is none.
+     * A snapshot that could not be captured is logged and the next test runs the step again.
+     *
+     * @return whether the snapshot was restored instead of running the step
+     */
+    public boolean login(Runnable loginStep) {
+        Optional<LoginSnapshot> snapshot = snapshots.lookup(name);
+        if (snapshot.isPresent()) {
+            long start = System.nanoTime();
+            restore(snapshot.get());
+            long restoreNanos = System.nanoTime() - start;
+            long loginNanos = snapshot.get().loginTime().toNanos();
+            session.loginSnapshotStats().hit(restoreNanos, loginNanos);
+            snapshots.stats().hit(restoreNanos, loginNanos);
+            return true;
+        }
+        long start = System.nanoTime();
+        loginStep.run();
+        Duration loginTime = Duration.ofNanos(System.nanoTime() - start);
+        session.loginSnapshotStats().miss();
+        snapshots.stats().miss();
+        try {
+            snapshots.store(name, capture(loginTime));
+        } catch (RuntimeException e) {
+            logger.warn("[{}] : Login snapshot '{}' was not captured: {}", session.testName(), name, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the snapshot, e.g. when the application no longer accepts the restored session, so the next login
+     * runs the step again.
+     */
+    public void invalidate() {
+        snapshots.invalidate(name);
+    }
+
+    private LoginSnapshot capture(Duration loginTime) {
+        DevTools devTools = session.devTools();
+        List<Map<String, String>> cookies = new ArrayList<>();
+        long expiresMillis = System.currentTimeMillis() + snapshots.timeToLive().toMillis();
+        for (Cookie cookie : devTools.send(Network.getAllCookies())) {
+            cookies.add(attributes(cookie));
+            if (!cookie.getSession()) {
+                expiresMillis = Math.min(expiresMillis, (long) (cookie.getExpires().doubleValue() * 1000));
+            }
+        }
+        Object storage = devTools.send(Runtime.evaluate(CAPTURE_STORAGE, Optional.empty(), Optional.empty(),
+                        Optional.of(true), Optional.empty(), Optional.of(true), Optional.empty(), Optional.empty(),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty(), Optional.empty()))
+                .getResult().getValue().orElse(null);
+        String origin = null;
+        Map<String, String> localStorage = new LinkedHashMap<>();
+        if (storage instanceof Map) {
+            Object pageOrigin = ((Map<?, ?>) storage).get("origin");
+            Object items = ((Map<?, ?>) storage).get("items");
+            if (pageOrigin instanceof String && ((String) pageOrigin).startsWith("http") && items instanceof Map) {
+                origin = (String) pageOrigin;
+                ((Map<?, ?>) items).forEach((key, value) -> localStorage.put(String.valueOf(key),
+                        String.valueOf(value)));
+            }
+        }
+        return new LoginSnapshot(cookies, origin, localStorage, loginTime, expiresMillis);
+    }
+
+    private void restore(LoginSnapshot snapshot) {
+        DevTools devTools = session.devTools();
+        List<CookieParam> cookies = new ArrayList<>();
+        for (Map<String, String> cookie : snapshot.cookies()) {
+            cookies.add(cookieParam(cookie));
+        }
+        if (!cookies.isEmpty()) {
+            devTools.send(Network.setCookies(cookies));
+        }
+        if (snapshot.origin() != null && !snapshot.localStorage().isEmpty()) {
+            session.removeScriptAfterTest(devTools.send(Page.addScriptToEvaluateOnNewDocument(
+                    restoreStorageScript(snapshot), Optional.empty(), Optional.empty())));
+        }
+    }
+
+    private static Map<String, String> attributes(Cookie cookie) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("name", cookie.getName());
+        attributes.put("value", cookie.getValue());
+        attributes.put("domain", cookie.getDomain());
+        attributes.put("path", cookie.getPath());
+        attributes.put("secure", String.valueOf(cookie.getSecure()));
+        attributes.put("httpOnly", String.valueOf(cookie.getHttpOnly()));
+        if (!cookie.getSession()) {
+            attributes.put("expires", String.valueOf(cookie.getExpires()));
+        }
+        cookie.getSameSite().ifPresent(sameSite -> attributes.put("sameSite", sameSite.toString()));
+        return attributes;
+    }
+
+    private static CookieParam cookieParam(Map<String, String> attributes) {
+        return new CookieParam(attributes.get("name"), attributes.get("value"), Optional.empty(),
+                Optional.ofNullable(attributes.get("domain")),
+                Optional.ofNullable(attributes.get("path")),
+                Optional.ofNullable(attributes.get("secure")).map(Boolean::parseBoolean),
+                Optional.ofNullable(attributes.get("httpOnly")).map(Boolean::parseBoolean),
+                Optional.ofNullable(attributes.get("sameSite")).map(CookieSameSite::fromString),
+                Optional.ofNullable(attributes.get("expires")).map(expires -> new TimeSinceEpoch(
+                        Double.parseDouble(expires))),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * @return script writing the local storage items once per tab, so a page reload keeps what the test changed
+     */
+    static String restoreStorageScript(LoginSnapshot snapshot) {
+        Json json = new Json();
+        return "(function () {\n"
+                + "  if (location.origin !== " + json.toJson(snapshot.origin()) + "\n"
+                + "      || sessionStorage.getItem('" + RESTORED_MARKER + "') !== null) {\n"
+                + "    return;\n"
+                + "  }\n"
+                + "  sessionStorage.setItem('" + RESTORED_MARKER + "', " + json.toJson(snapshot.origin()) + ");\n"
+                + "  var items = " + json.toJson(snapshot.localStorage()) + ";\n"
+                + "  Object.keys(items).forEach(function (key) { localStorage.setItem(key, items[key]); });\n"
+                + "})();";
+    }
+}
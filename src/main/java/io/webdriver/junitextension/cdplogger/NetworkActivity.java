@@ -0,0 +1,115 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Network requests in flight in the browser of a {@link TestSession}, tracked by request ID from
+ * {@code Network.requestWillBeSent} until {@code Network.loadingFinished} or {@code Network.loadingFailed}.
+ *
+ * <p>Tests get the activity of their session as a parameter and wait for the network to settle instead of sleeping:
+ * <pre>{@code
+ * @Test
+ * void test(NetworkActivity network) throws Exception {
+ *     driver.get("https://example.com");
+ *     network.awaitNetworkIdle(Duration.ofMillis(500), Duration.ofSeconds(10)).get();
+ * }
+ * }</pre>
+ *
+ * <p>Waiting is push based: the Dev Tools listeners completing the last request in flight schedule the completion
+ * of pending waits after their quiet period, and a request started in the meantime cancels it.
+ */
+public final class NetworkActivity {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cdp-logger-network-idle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<IdleWait> waits = new ArrayList<>();
+    private long idleSince = System.nanoTime();
+
+    synchronized void requestStarted(String requestId) {
+        if (inFlight.add(requestId) && inFlight.size() == 1) {
+            waits.forEach(IdleWait::cancelCompletion);
+        }
+    }
+
+    synchronized void requestCompleted(String requestId) {
+        if (inFlight.remove(requestId) && inFlight.isEmpty()) {
+            idleSince = System.nanoTime();
+            waits.forEach(wait -> wait.scheduleCompletion(wait.quietNanos));
+        }
+    }
+
+    /**
+     * @return number of requests started and neither finished nor failed yet
+     */
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Returns a future completed once no request has been in flight for the quiet period.
+     * The future fails with {@link java.util.concurrent.TimeoutException} when the network does not settle within
+     * the timeout. Requests that never finish, e.g. long polling, keep the network busy.
+     */
+    public CompletableFuture<Void> awaitNetworkIdle(Duration quietPeriod, Duration timeout) {
+        IdleWait wait = new IdleWait(quietPeriod.toNanos());
+        synchronized (this) {
+            waits.add(wait);
+            if (inFlight.isEmpty()) {
+                wait.scheduleCompletion(wait.quietNanos - (System.nanoTime() - idleSince));
+            }
+        }
+        wait.future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    synchronized (this) {
+                        waits.remove(wait);
+                        wait.cancelCompletion();
+                    }
+                });
+        return wait.future;
+    }
+
+    private final class IdleWait {
+
+        private final long quietNanos;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private ScheduledFuture<?> completion;
+
+        private IdleWait(long quietNanos) {
+            this.quietNanos = quietNanos;
+        }
+
+        private void scheduleCompletion(long delayNanos) {
+            cancelCompletion();
+            completion = scheduler.schedule(this::completeIfIdle, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        }
+
+        private void completeIfIdle() {
+            synchronized (NetworkActivity.this) {
+                if (inFlight.isEmpty()) {
+                    future.complete(null);
+                }
+            }
+        }
+
+        private void cancelCompletion() {
+            if (completion != null) {
+                completion.cancel(false);
+                completion = null;
+            }
+        }
+    }
+}
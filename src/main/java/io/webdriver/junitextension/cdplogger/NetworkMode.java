@@ -0,0 +1,28 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.util.Locale;
+
+/**
+ * Defines which Dev Tools domain {@link DevToolsExtension} observes network traffic through.
+ */
+public enum NetworkMode {
+
+    /**
+     * The Network domain is enabled and the browser sends events for every request of the page, which are filtered
+     * by resource type and URL on the Java side. Requests are correlated into records with timing and size, and
+     * their latencies are recorded.
+     */
+    FULL,
+
+    /**
+     * Only the Fetch domain is enabled, with request patterns built from the URL filter for Fetch and XHR requests,
+     * so the browser sends events for the matching requests only. Each of them is paused twice, before it is sent
+     * and when its response arrives, and continued by the listener, which costs a round trip per stage. Requests
+     * and responses are logged and tracked by {@link NetworkActivity}, but not correlated into records.
+     */
+    FETCH;
+
+    static NetworkMode parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
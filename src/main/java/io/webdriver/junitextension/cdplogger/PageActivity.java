@@ -0,0 +1,225 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DOM mutations and application signals pushed by the page of a {@link TestSession} through the
+ * {@code Runtime.addBinding} binding {@value #BINDING}.
+ *
+ * <p>Tests get the activity of their session as a parameter and wait for the page instead of polling it with
+ * implicit waits:
+ * <pre>{@code
+ * @Test
+ * void test(PageActivity page) throws Exception {
+ *     driver.get("https://example.com");
+ *     page.awaitDomQuiet(Duration.ofMillis(300), Duration.ofSeconds(10)).get();
+ *     page.awaitSignal("checkout-ready", Duration.ofSeconds(10)).get();
+ * }
+ * }</pre>
+ *
+ * <p>An injected script runs in every document before its own scripts. Its {@code MutationObserver} reports that
+ * the DOM changed at most once per {@value #MUTATION_BATCH_MILLIS} ms, and the application reports that it is ready
+ * by calling {@code window.cdpLoggerSignal('name')}. Waiting is push based like
+ * {@link NetworkActivity}: a mutation reschedules the completion of pending waits after their quiet period, and a
+ * signal completes the waits for it, so no WebDriver command polls the page.
+ *
+ * <p>The quiet period of a wait starts at the later of its call and the last mutation. The script also pushes once
+ * when it starts in a new document, which counts as a change: the DOM of the previous document says nothing about
+ * whether the new one has settled.
+ */
+public final class PageActivity {
+
+    static final String BINDING = "__cdpLoggerBinding";
+    static final int MUTATION_BATCH_MILLIS = 16;
+    static final String MUTATION = "mutation";
+    static final String DOCUMENT = "document";
+    static final String SIGNAL_PREFIX = "signal:";
+    static final String SCRIPT = "(function () {\n"
+            + "  if (window.cdpLoggerSignal || typeof window." + BINDING + " !== 'function') {\n"
+            + "    return;\n"
+            + "  }\n"
+            + "  var push = window." + BINDING + ";\n"
+            + "  window.cdpLoggerSignal = function (name) { push('" + SIGNAL_PREFIX + "' + name); };\n"
+            + "  push('" + DOCUMENT + "');\n"
+            + "  var pending = false;\n"
+            + "  new MutationObserver(function () {\n"
+            + "    if (!pending) {\n"
+            + "      pending = true;\n"
+            + "      setTimeout(function () { pending = false; push('" + MUTATION + "'); }, "
+            + MUTATION_BATCH_MILLIS + ");\n"
+            + "    }\n"
+            + "  }).observe(document, {childList: true, subtree: true, attributes: true, characterData: true});\n"
+            + "})();";
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cdp-logger-dom-quiet");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<String> signals = new HashSet<>();
+    private final List<QuietWait> quietWaits = new ArrayList<>();
+    private final List<SignalWait> signalWaits = new ArrayList<>();
+    private final AtomicBoolean installed = new AtomicBoolean();
+    private long mutatedAt = System.nanoTime();
+    private long mutations;
+
+    /**
+     * Handles a payload the page pushed through the binding.
+     */
+    void pushed(String payload) {
+        if (payload.startsWith(SIGNAL_PREFIX)) {
+            signalled(payload.substring(SIGNAL_PREFIX.length()));
+        } else if (payload.equals(MUTATION)) {
+            mutated();
+        } else if (payload.equals(DOCUMENT)) {
+            changed();
+        }
+    }
+
+    synchronized void mutated() {
+        mutations++;
+        changed();
+    }
+
+    /**
+     * Restarts the quiet period of pending waits, also when a new document replaced the one that mutated last.
+     */
+    private void changed() {
+        mutatedAt = System.nanoTime();
+        quietWaits.forEach(wait -> wait.scheduleCompletion(wait.quietNanos));
+    }
+
+    synchronized void signalled(String name) {
+        signals.add(name);
+        for (SignalWait wait : List.copyOf(signalWaits)) {
+            if (wait.name.equals(name)) {
+                wait.future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Forgets the signals of the previous test of a class session.
+     */
+    synchronized void reset() {
+        signals.clear();
+    }
+
+    /**
+     * @return whether the binding and script are yet to be installed, true only for the first caller
+     */
+    boolean startInstalling() {
+        return installed.compareAndSet(false, true);
+    }
+
+    /**
+     * @return number of mutation batches the page reported
+     */
+    public synchronized long mutationCount() {
+        return mutations;
+    }
+
+    /**
+     * @return names of the signals the page sent since the test began
+     */
+    public synchronized Set<String> signals() {
+        return Set.copyOf(signals);
+    }
+
+    /**
+     * Returns a future completed once the DOM has not changed for the quiet period, counted from this call at the
+     * earliest.
+     * The future fails with {@link java.util.concurrent.TimeoutException} when the DOM does not settle within the
+     * timeout, e.g. because of an animation changing styles.
+     */
+    public CompletableFuture<Void> awaitDomQuiet(Duration quietPeriod, Duration timeout) {
+        QuietWait wait = new QuietWait(quietPeriod.toNanos());
+        synchronized (this) {
+            quietWaits.add(wait);
+            wait.scheduleCompletion(wait.quietNanos);
+        }
+        wait.future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    synchronized (this) {
+                        quietWaits.remove(wait);
+                        wait.cancelCompletion();
+                    }
+                });
+        return wait.future;
+    }
+
+    /**
+     * Returns a future completed once the page called {@code window.cdpLoggerSignal(name)}, already completed when it
+     * did so since the test began. The future fails with {@link java.util.concurrent.TimeoutException} when the
+     * signal does not arrive within the timeout.
+     */
+    public CompletableFuture<Void> awaitSignal(String name, Duration timeout) {
+        SignalWait wait = new SignalWait(name);
+        synchronized (this) {
+            if (signals.contains(name)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            signalWaits.add(wait);
+        }
+        wait.future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    synchronized (this) {
+                        signalWaits.remove(wait);
+                    }
+                });
+        return wait.future;
+    }
+
+    private static final class SignalWait {
+
+        private final String name;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private SignalWait(String name) {
+            this.name = name;
+        }
+    }
+
+    private final class QuietWait {
+
+        private final long quietNanos;
+        private final long startedAt = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private ScheduledFuture<?> completion;
+
+        private QuietWait(long quietNanos) {
+            this.quietNanos = quietNanos;
+        }
+
+        private void scheduleCompletion(long delayNanos) {
+            cancelCompletion();
+            completion = scheduler.schedule(this::completeIfQuiet, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        }
+
+        private void completeIfQuiet() {
+            synchronized (PageActivity.this) {
+                if (System.nanoTime() - Math.max(mutatedAt, startedAt) >= quietNanos) {
+                    future.complete(null);
+                }
+            }
+        }
+
+        private void cancelCompletion() {
+            if (completion != null) {
+                completion.cancel(false);
+                completion = null;
+            }
+        }
+    }
+}
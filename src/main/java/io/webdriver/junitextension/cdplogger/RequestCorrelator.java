@@ -0,0 +1,150 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import org.openqa.selenium.devtools.v96.network.model.ResourceTiming;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Correlates the network events of a {@link TestSession} by request ID into one {@link RequestRecord} per request.
+ *
+ * <p>Pending records are kept in insertion order, keyed by the request ID instance of the first event, which later
+ * events of the same request only look up. Requests which never complete, e.g. those cancelled by navigation
+ * before any event reported it, are evicted oldest first once more than the configured number is pending.
+ *
+ * <p>Selenium dispatches events concurrently, so the methods are synchronized. Events for a request ID that is not
+ * pending, e.g. a response of a request sent before the session was opened, are ignored.
+ */
+public final class RequestCorrelator {
+
+    private final int maxPending;
+    private final LinkedHashMap<String, RequestRecord> pending = new LinkedHashMap<>();
+    private long completedCount;
+    private long evictedCount;
+
+    public RequestCorrelator(int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Number of pending requests must be positive: " + maxPending);
+        }
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Starts a record for the request. A redirect reuses the request ID, so the record of the redirected request is
+     * completed with the redirect status, {@code -1} when the browser reported none.
+     *
+     * @return the completed record of the redirected request or {@code null}
+     */
+    public synchronized RequestRecord requestWillBeSent(String requestId, String method, String url,
+                                                        String resourceType, double timestamp,
+                                                        int redirectStatus) {
+        RequestRecord redirected = pending.remove(requestId);
+        if (redirected != null) {
+            if (redirectStatus >= 0) {
+                redirected.status = redirectStatus;
+            }
+            complete(redirected, timestamp);
+        }
+        RequestRecord record = new RequestRecord(redirected != null ? redirected.requestId : requestId);
+        record.method = method;
+        record.url = url;
+        record.resourceType = resourceType;
+        record.startTime = timestamp;
+        pending.put(record.requestId, record);
+        if (pending.size() > maxPending) {
+            Iterator<RequestRecord> oldest = pending.values().iterator();
+            oldest.next();
+            oldest.remove();
+            evictedCount++;
+        }
+        return redirected;
+    }
+
+    public synchronized void responseReceived(String requestId, String resourceType, int status,
+                                              ResourceTiming timing) {
+        RequestRecord record = pending.get(requestId);
+        if (record == null) {
+            return;
+        }
+        record.resourceType = resourceType;
+        record.status = status;
+        if (timing != null) {
+            record.requestTime = timing.getRequestTime().doubleValue();
+            record.dnsStart = timing.getDnsStart().doubleValue();
+            record.dnsEnd = timing.getDnsEnd().doubleValue();
+            record.connectStart = timing.getConnectStart().doubleValue();
+            record.connectEnd = timing.getConnectEnd().doubleValue();
+            record.sslStart = timing.getSslStart().doubleValue();
+            record.sslEnd = timing.getSslEnd().doubleValue();
+            record.sendStart = timing.getSendStart().doubleValue();
+            record.sendEnd = timing.getSendEnd().doubleValue();
+            record.receiveHeadersEnd = timing.getReceiveHeadersEnd().doubleValue();
+        }
+    }
+
+    /**
+     * Same as {@link #responseReceived(String, String, int, ResourceTiming)} for a response scanned from raw JSON.
+     */
+    public synchronized void responseReceived(RawNetworkEvent response) {
+        RequestRecord record = pending.get(response.requestId);
+        if (record == null) {
+            return;
+        }
+        record.resourceType = response.resourceType;
+        record.status = response.status;
+        if (response.hasTiming()) {
+            record.requestTime = response.requestTime;
+            record.dnsStart = response.dnsStart;
+            record.dnsEnd = response.dnsEnd;
+            record.connectStart = response.connectStart;
+            record.connectEnd = response.connectEnd;
+            record.sslStart = response.sslStart;
+            record.sslEnd = response.sslEnd;
+            record.sendStart = response.sendStart;
+            record.sendEnd = response.sendEnd;
+            record.receiveHeadersEnd = response.receiveHeadersEnd;
+        }
+    }
+
+    /**
+     * @return the completed record or {@code null} when the request is not pending
+     */
+    public synchronized RequestRecord loadingFinished(String requestId, double timestamp, long encodedDataLength) {
+        RequestRecord record = pending.remove(requestId);
+        if (record != null) {
+            record.encodedDataLength = encodedDataLength;
+            complete(record, timestamp);
+        }
+        return record;
+    }
+
+    /**
+     * @return the completed record or {@code null} when the request is not pending
+     */
+    public synchronized RequestRecord loadingFailed(String requestId, double timestamp, String errorText) {
+        RequestRecord record = pending.remove(requestId);
+        if (record != null) {
+            record.errorText = errorText;
+            complete(record, timestamp);
+        }
+        return record;
+    }
+
+    private void complete(RequestRecord record, double timestamp) {
+        record.endTime = timestamp;
+        completedCount++;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    public synchronized long completedCount() {
+        return completedCount;
+    }
+
+    public synchronized long evictedCount() {
+        return evictedCount;
+    }
+}
@@ -0,0 +1,24 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Name of the login step whose result is shared by the tests of the class or method, e.g. {@code "admin"} for
+ * logging in as an administrator through the UI. Tests run the step through the injected {@link LoginSession}:
+ * the first one runs it and captures the cookies and local storage it left, later ones get them restored instead.
+ *
+ * <p>A method annotation overrides the one of the class.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ReuseLogin {
+
+    String value();
+}
@@ -0,0 +1,27 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.util.Locale;
+
+/**
+ * Defines how tests sharing one browser are isolated from each other by {@link DevToolsExtension}.
+ */
+public enum SessionIsolation {
+
+    /**
+     * Tests use the page of the driver as it is. Tests needing a clean browser create a new driver each.
+     */
+    NONE,
+
+    /**
+     * Each test gets a fresh incognito browser context with its own page, created with
+     * {@code Target.createBrowserContext} and {@code Target.createTarget} in the long-lived browser of the driver.
+     * The driver is switched to the new page for the test, the Dev Tools session is attached to it, and the context
+     * with its cookies, storage and cache is disposed after the test. Applies to test scoped sessions, see
+     * {@link SessionScope#TEST}; settings combining it with class scoped sessions are rejected.
+     */
+    BROWSER_CONTEXT;
+
+    static SessionIsolation parse(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
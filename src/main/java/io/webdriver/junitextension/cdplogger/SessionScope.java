@@ -0,0 +1,25 @@
+package io.webdriver.junitextension.cdplogger;
+
+import java.util.Locale;
+
+/**
+ * Defines how long a Dev Tools session opened by {@link DevToolsExtension} lives.
+ */
+public enum SessionScope {
+
+    /**
+     * A session is created before and closed after each test.
+     */
+    TEST,
+
+    /**
+     * A session is created once for a test class, before all tests when the driver already exists or before the
+     * first test otherwise, and closed after all tests. It is reopened only if the class switches to another
+     * driver.
+     */
+    CLASS;
+
+    static SessionScope parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,112 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.openqa.selenium.devtools.DevToolsException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the Dev Tools commands setting up a session and records how long each of them took.
+ *
+ * <p>Independent commands, such as enabling the Network, Log and Runtime domains, are issued together by
+ * {@link #concurrently(Duration, Map)}, so setup pays for one round trip instead of one per domain. The commands
+ * resetting the browser state after a test are timed the same way.
+ */
+public final class SessionSetup {
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cdp-logger-setup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long start = System.nanoTime();
+    private final Map<String, Long> latencies = Collections.synchronizedMap(new LinkedHashMap<>());
+    private long totalNanos;
+
+    /**
+     * Runs a command on the calling thread.
+     */
+    public void step(String command, Runnable action) {
+        long commandStart = System.nanoTime();
+        action.run();
+        latencies.put(command, System.nanoTime() - commandStart);
+    }
+
+    /**
+     * Issues all commands at once and waits for them together. Commands still running at the timeout are cancelled
+     * by interrupting their threads, so none of them is left behind issuing commands to the next session.
+     *
+     * @throws DevToolsException when a command failed or not all of them finished within the timeout
+     */
+    public void concurrently(Duration timeout, Map<String, Runnable> actions) {
+        List<Callable<Void>> tasks = actions.entrySet().stream()
+                .map(action -> (Callable<Void>) () ->
+                {
+                    step(action.getKey(), action.getValue());
+                    return null;
+                })
+                .collect(Collectors.toList());
+        List<Future<Void>> futures;
+        try {
+            futures = executor.invokeAll(tasks, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Thread has been interrupted", e);
+        }
+        if (futures.stream().anyMatch(Future::isCancelled)) {
+            throw new DevToolsException(String.format("Dev Tools commands %s were not completed within %d ms, "
+                            + "completed: %s",
+                    actions.keySet(), timeout.toMillis(), latencies.keySet()));
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Thread has been interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new DevToolsException(e.getCause());
+            }
+        }
+    }
+
+    void finish() {
+        totalNanos = System.nanoTime() - start;
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return latency of every completed command in nanoseconds, in completion order
+     */
+    public Map<String, Long> latencies() {
+        synchronized (latencies) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(latencies));
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (latencies) {
+            return latencies.entrySet().stream()
+                    .map(latency -> latency.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(latency.getValue()) + " ms")
+                    .collect(Collectors.joining(", ", "", ", total " + TimeUnit.NANOSECONDS.toMillis(totalNanos) + " ms"));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closes {@link TestSession}s on a background executor, so a browser that is slow to detach does not hold the
+ * test thread and the next test can start right away. {@link DevToolsExtension} writes the events of a session with
+ * {@link TestSession#finish(boolean)} before submitting it, so the teardown only removes the listeners and detaches.
+ *
+ * <p>Every teardown has a deadline. A teardown still running at its deadline is counted as timed out and the test
+ * run no longer waits for it, but the Dev Tools it closes stay pending until the close has finished. One instance is
+ * kept in the root {@link ExtensionContext.Store}, which JUnit closes at the end of the test run: {@link #close()}
+ * then waits for the remaining teardowns before the execution is reported as finished. Resources the sessions write
+ * to are closed only after that, see {@link #closeAfterTeardowns(AutoCloseable)}.
+ *
+ * <p>A session opened on Dev Tools which are still being torn down waits for that teardown first, see
+ * {@link #awaitPending(DevTools)}, because detaching clears all listeners of the Dev Tools.
+ */
+public final class SessionTeardown implements ExtensionContext.Store.CloseableResource {
+
+    private static final long AWAIT_GRACE_MILLIS = 1000;
+
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cdp-logger-teardown");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<DevTools, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final List<AutoCloseable> resources = new CopyOnWriteArrayList<>();
+
+    public SessionTeardown(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Closes the session in the background. The returned teardown completes when the session is closed or at the
+     * deadline, whichever comes first, while the Dev Tools stay pending until the close has actually finished. The
+     * teardown is recorded once, as timed out at the deadline or when the close finishes before it.
+     */
+    public CompletableFuture<Void> submit(TestSession session, boolean testFailed) {
+        long start = System.nanoTime();
+        DevTools devTools = session.devTools();
+        AtomicBoolean recorded = new AtomicBoolean();
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        pending.put(devTools, closed);
+        CompletableFuture<Void> teardown = closed.copy()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) ->
+                {
+                    if (error instanceof TimeoutException && recorded.compareAndSet(false, true)) {
+                        record(session, System.nanoTime() - start, error);
+                    }
+                });
+        executor.execute(() -> {
+            Throwable error = null;
+            try {
+                session.close(testFailed);
+            } catch (Throwable e) {
+                error = e;
+            }
+            if (recorded.compareAndSet(false, true)) {
+                record(session, System.nanoTime() - start, error);
+            }
+            pending.remove(devTools, closed);
+            if (error == null) {
+                closed.complete(null);
+            } else {
+                closed.completeExceptionally(error);
+            }
+        });
+        return teardown;
+    }
+
+    /**
+     * Closes the resource when the test run ends, after the remaining teardowns, which may still write to it.
+     */
+    public void closeAfterTeardowns(AutoCloseable resource) {
+        resources.add(resource);
+    }
+
+    /**
+     * Closes the session on the calling thread, recording the same metrics as a background teardown.
+     */
+    public void closeNow(TestSession session, boolean testFailed) throws Exception {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            session.close(testFailed);
+        } catch (Exception e) {
+            error = e;
+            throw e;
+        } finally {
+            record(session, System.nanoTime() - start, error);
+        }
+    }
+
+    private void record(TestSession session, long nanos, Throwable error) {
+        completedCount.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            timedOutCount.increment();
+            DevToolsExtension.logger.warn("[{}] : Dev Tools session was not closed within {} ms",
+                    session.testName(), timeout.toMillis());
+        } else if (cause != null) {
+            failedCount.increment();
+            DevToolsExtension.logger.warn("[{}] : Closing Dev Tools session failed", session.testName(), cause);
+        }
+    }
+
+    /**
+     * Waits until a teardown of the given Dev Tools still in progress has closed its session, also past its deadline,
+     * because the close detaches the Dev Tools and would detach a session opened on them in the meantime.
+     */
+    public void awaitPending(DevTools devTools) {
+        CompletableFuture<Void> closed = pending.get(devTools);
+        if (closed == null) {
+            return;
+        }
+        if (!await(closed, timeout.toMillis())) {
+            DevToolsExtension.logger.warn("Dev Tools session past its teardown deadline is still closing, "
+                    + "waiting for it before opening the next session");
+            await(closed, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Waits for all teardowns in progress, at most until the deadline plus a grace period.
+     */
+    public void awaitAll() {
+        await(CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new)),
+                timeout.toMillis() + AWAIT_GRACE_MILLIS);
+    }
+
+    /**
+     * @return whether the teardown has finished within the given time
+     */
+    private static boolean await(CompletableFuture<?> teardown, long millis) {
+        try {
+            teardown.get(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // recorded when the teardown completes
+        } catch (TimeoutException e) {
+            return false;
+        }
+        return true;
+    }
+
+    public long completedCount() {
+        return completedCount.sum();
+    }
+
+    public long timedOutCount() {
+        return timedOutCount.sum();
+    }
+
+    public long failedCount() {
+        return failedCount.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public long averageNanos() {
+        long completed = completedCount.sum();
+        return completed == 0 ? 0 : totalNanos.sum() / completed;
+    }
+
+    @Override
+    public void close() {
+        awaitAll();
+        executor.shutdown();
+        if (completedCount() > 0) {
+            DevToolsExtension.logger.debug("Dev Tools sessions closed: {}, average {} ms, max {} ms, "
+                            + "timed out {}, failed {}",
+                    completedCount(), TimeUnit.NANOSECONDS.toMillis(averageNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos()), timedOutCount(), failedCount());
+        }
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                DevToolsExtension.logger.warn("Closing {} failed", resource, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Field accessors of a test class used by {@link DevToolsExtension}, resolved once per class.
+ *
+ * <p>Resolution walks the class and its superclasses. The driver is taken from a field named {@code 'driver'} or,
+ * when there is none, from the first field whose type is assignable to {@link ChromiumDriver}. The optional
+ * {@code 'responseURLFilter'} field may be static or an instance field holding a {@code String}, a
+ * {@code String[]} or a {@code Collection<String>} of {@link UrlFilter} patterns. Fields are read through method
+ * handles, and a missing filter field is recorded as an absent accessor instead of an exception. A non-final
+ * instance driver field can also be written, to inject a pooled driver.
+ *
+ * <p>The filter is compiled on first use and reused for as long as the field holds the same patterns, so a class
+ * pays for compiling it once.
+ */
+public final class TestClassAccessors {
+
+    private static final String DRIVER_FIELD = "driver";
+    private static final String RESPONSE_URL_FILTER_FIELD = "responseURLFilter";
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final LongAdder lookups = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private static final ClassValue<TestClassAccessors> cache = new ClassValue<>() {
+        @Override
+        protected TestClassAccessors computeValue(Class<?> type) {
+            misses.increment();
+            return new TestClassAccessors(type);
+        }
+    };
+
+    private final Class<?> testClass;
+    private final MethodHandle driverGetter;
+    private final MethodHandle driverSetter;
+    private final Class<?> driverType;
+    private final boolean driverFieldMissing;
+    private final boolean driverStatic;
+    private final String driverProblem;
+    private final MethodHandle responseURLFilterGetter;
+    private final boolean responseURLFilterStatic;
+    private volatile CompiledFilter compiledFilter = new CompiledFilter(List.of(), UrlFilter.ALL);
+
+    private TestClassAccessors(Class<?> testClass) {
+        this.testClass = testClass;
+        Field driverField = findDriverField(testClass);
+        this.driverFieldMissing = driverField == null;
+        this.driverStatic = driverField != null && Modifier.isStatic(driverField.getModifiers());
+        this.driverType = driverField != null ? driverField.getType() : null;
+        if (driverField == null) {
+            this.driverGetter = null;
+            this.driverProblem = String.format("There is no 'driver' field in test class '%s'. "
+                    + "\nThis field is required to work with Dev Tools extension class.", testClass.getName());
+        } else if (!driverField.getType().isAssignableFrom(ChromiumDriver.class)
+                && !ChromiumDriver.class.isAssignableFrom(driverField.getType())) {
+            this.driverGetter = null;
+            this.driverProblem = "Unsupported type of WebDriver is provided. "
+                    + "\nChrome Dev Tools supports either ChromeDriver or EdgeDriver.";
+        } else {
+            this.driverGetter = getter(driverField);
+            this.driverProblem = null;
+        }
+        this.driverSetter = driverGetter != null && !driverStatic && !Modifier.isFinal(driverField.getModifiers())
+                ? setter(driverField)
+                : null;
+        Field filterField = findField(testClass, RESPONSE_URL_FILTER_FIELD);
+        this.responseURLFilterGetter = filterField != null && isFilterType(filterField.getType())
+                ? getter(filterField)
+                : null;
+        this.responseURLFilterStatic = filterField != null && Modifier.isStatic(filterField.getModifiers());
+    }
+
+    public static TestClassAccessors forClass(Class<?> testClass) {
+        lookups.increment();
+        return cache.get(testClass);
+    }
+
+    public static long cacheHits() {
+        return lookups.sum() - misses.sum();
+    }
+
+    public static long cacheMisses() {
+        return misses.sum();
+    }
+
+    public boolean hasDriver() {
+        return driverGetter != null;
+    }
+
+    /**
+     * Reads the driver of a test instance. A static driver field can be read without an instance.
+     *
+     * @return the driver or {@code null} when it is not initialized or there is no instance to read it from
+     *
+     * @throws NoSuchFieldException     when the test class has no driver field
+     * @throws IllegalArgumentException when the driver field or its value is not a {@link ChromiumDriver}
+     */
+    public ChromiumDriver driver(Object testInstance) throws NoSuchFieldException {
+        if (driverGetter == null) {
+            if (driverFieldMissing) {
+                throw new NoSuchFieldException(driverProblem);
+            }
+            throw new IllegalArgumentException(driverProblem);
+        }
+        if (testInstance == null && !driverStatic) {
+            return null;
+        }
+        Object driver = read(driverGetter, testInstance);
+        if (driver != null && !(driver instanceof ChromiumDriver)) {
+            throw new IllegalArgumentException("Unsupported type of WebDriver is provided. "
+                    + "\nChrome Dev Tools supports either ChromeDriver or EdgeDriver.");
+        }
+        return (ChromiumDriver) driver;
+    }
+
+    /**
+     * Sets the driver field of a test instance, e.g. to a driver leased from a pool.
+     *
+     * @param driver the driver, or {@code null} to clear the field
+     *
+     * @throws IllegalArgumentException when the driver field is missing, static or final, or cannot hold the driver
+     */
+    public void injectDriver(Object testInstance, ChromiumDriver driver) {
+        if (driverSetter == null) {
+            throw new IllegalArgumentException(String.format("Cannot inject a driver into test class '%s'. "
+                            + "\nIt needs a non-final instance field named 'driver' of a ChromiumDriver type.",
+                    testClass.getName()));
+        }
+        if (driver != null && !driverType.isInstance(driver)) {
+            throw new IllegalArgumentException(String.format("Driver field of test class '%s' of type %s cannot hold "
+                    + "a %s.", testClass.getName(), driverType.getName(), driver.getClass().getName()));
+        }
+        try {
+            driverSetter.invokeExact(testInstance, (Object) driver);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot write driver field of test class " + testClass.getName(), e);
+        }
+    }
+
+    /**
+     * @return value of a {@code String} typed {@code 'responseURLFilter'} field or {@code null} when the test class
+     * has none
+     */
+    public String responseURLFilter(Object testInstance) {
+        Object value = readFilter(testInstance);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * @return patterns of the {@code 'responseURLFilter'} field, empty when the test class has none
+     */
+    public List<String> urlFilterPatterns(Object testInstance) {
+        Object value = readFilter(testInstance);
+        if (value instanceof String) {
+            return List.of((String) value);
+        }
+        if (value instanceof String[]) {
+            return patterns(Arrays.stream((String[]) value));
+        }
+        if (value instanceof Collection) {
+            return patterns(((Collection<?>) value).stream());
+        }
+        return List.of();
+    }
+
+    /**
+     * @return filter compiled from the {@code 'responseURLFilter'} field, {@link UrlFilter#ALL} when there is none
+     *
+     * @throws IllegalArgumentException when a pattern is not a valid regular expression
+     */
+    public UrlFilter urlFilter(Object testInstance) {
+        List<String> patterns = urlFilterPatterns(testInstance);
+        CompiledFilter compiled = compiledFilter;
+        if (!compiled.patterns.equals(patterns)) {
+            compiled = new CompiledFilter(patterns, UrlFilter.compile(patterns));
+            compiledFilter = compiled;
+        }
+        return compiled.filter;
+    }
+
+    private static List<String> patterns(Stream<?> values) {
+        return values.filter(Objects::nonNull).map(String::valueOf).collect(Collectors.toUnmodifiableList());
+    }
+
+    private Object readFilter(Object testInstance) {
+        if (responseURLFilterGetter == null || testInstance == null && !responseURLFilterStatic) {
+            return null;
+        }
+        return read(responseURLFilterGetter, testInstance);
+    }
+
+    private Object read(MethodHandle getter, Object testInstance) {
+        try {
+            return (Object) getter.invokeExact(testInstance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot read field of test class " + testClass.getName(), e);
+        }
+    }
+
+    private static boolean isFilterType(Class<?> type) {
+        return type == String.class || type == String[].class || Collection.class.isAssignableFrom(type);
+    }
+
+    private static Field findDriverField(Class<?> testClass) {
+        Field named = findField(testClass, DRIVER_FIELD);
+        if (named != null) {
+            return named;
+        }
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (ChromiumDriver.class.isAssignableFrom(field.getType())) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Field findField(Class<?> testClass, String name) {
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle setter(Field field) {
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field, e);
+        }
+    }
+
+    private static MethodHandle getter(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return getter.asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field, e);
+        }
+    }
+
+    private static final class CompiledFilter {
+
+        private final List<String> patterns;
+        private final UrlFilter filter;
+
+        private CompiledFilter(List<String> patterns, UrlFilter filter) {
+            this.patterns = patterns;
+            this.filter = filter;
+        }
+    }
+}
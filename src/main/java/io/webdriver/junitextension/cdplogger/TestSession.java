@@ -0,0 +1,458 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.cache.AssetCache;
+import io.webdriver.junitextension.cdplogger.filter.BlockList;
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import io.webdriver.junitextension.cdplogger.metrics.AssetCacheStats;
+import io.webdriver.junitextension.cdplogger.metrics.LoginSnapshotStats;
+import io.webdriver.junitextension.cdplogger.metrics.BlockedRequests;
+import io.webdriver.junitextension.cdplogger.metrics.LatencyRegistry;
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+import io.webdriver.junitextension.cdplogger.pipeline.EventPipeline;
+import io.webdriver.junitextension.cdplogger.pipeline.FailureCaptureBuffer;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v96.page.Page;
+import org.openqa.selenium.devtools.v96.page.model.ScriptIdentifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dev Tools session handled by {@link DevToolsExtension} together with its event pipeline.
+ *
+ * <p>A session is kept in an {@link ExtensionContext.Store} and every listener captures the session it was
+ * registered for. By default a session belongs to one test invocation and is stored under the invocation's unique
+ * ID, so concurrently running tests never share a Dev Tools connection, test name or filter. With
+ * {@link SessionScope#CLASS} one session is opened for the test class and reused by its tests: between tests only
+ * the active test name, which events are attributed to, is swapped. If the extension callbacks closing a session
+ * are not reached, JUnit closes it together with the store.
+ *
+ * <p>In {@link CaptureMode#ON_FAILURE} mode events go to a {@link FailureCaptureBuffer} from the moment the session
+ * opens, which is written to the output handler when the test fails and dropped otherwise. The next buffer is started
+ * as the previous one is resolved, so setup events and those between tests of a class session count towards the next
+ * test and none reaches the output while its test passes.
+ *
+ * <p>With an {@link EventRecorder} the raw events of the session are streamed to its recording, which is finished
+ * when the session closes.
+ */
+public class TestSession implements ExtensionContext.Store.CloseableResource {
+
+    private static final Duration TEST_BOUNDARY_DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String name;
+    private final DevTools devTools;
+    private final UrlFilter urlFilter;
+    private final DevToolsSettings settings;
+    private final EventHandler outputHandler;
+    private final EventPipeline pipeline;
+    private final NetworkActivity networkActivity = new NetworkActivity();
+    private final PageActivity pageActivity = new PageActivity();
+    private final RequestCorrelator requests;
+    private final LongAdder networkEvents = new LongAdder();
+    private volatile LatencyRegistry latencies = new LatencyRegistry();
+    private volatile BlockList blockList = BlockList.NONE;
+    private volatile BlockedRequests blockedRequests = new BlockedRequests();
+    private volatile AssetCache assetCache;
+    private volatile AssetCacheStats assetCacheStats = new AssetCacheStats();
+    private volatile LoginSnapshotStats loginSnapshotStats = new LoginSnapshotStats();
+    private volatile Set<String> origins = ConcurrentHashMap.newKeySet();
+    private final List<ScriptIdentifier> testScripts = new CopyOnWriteArrayList<>();
+    private volatile String testName;
+    private volatile FailureCaptureBuffer captureBuffer;
+    private boolean testActive;
+    private boolean finished;
+    private int testsServed;
+    private SessionSetup setup;
+    private EventRecorder recorder;
+
+    public TestSession(String name, DevTools devTools, UrlFilter urlFilter, DevToolsSettings settings,
+                       EventHandler outputHandler) {
+        this.name = name;
+        this.testName = name;
+        this.devTools = devTools;
+        this.urlFilter = urlFilter;
+        this.settings = settings;
+        this.outputHandler = outputHandler;
+        this.pipeline = new EventPipeline(name, settings.pipelineCapacity(), settings.waitStrategy(),
+                new EventHandler() {
+                    @Override
+                    public void onEvent(CdpEvent event) {
+                        handle(event);
+                    }
+
+                    @Override
+                    public void endOfBatch() {
+                        outputHandler.endOfBatch();
+                    }
+                });
+        this.requests = new RequestCorrelator(settings.networkMaxPendingRequests());
+        this.captureBuffer = newCaptureBuffer();
+    }
+
+    /**
+     * @return name of the test events are currently attributed to, or the session name between tests
+     */
+    public String testName() {
+        return testName;
+    }
+
+    public DevTools devTools() {
+        return devTools;
+    }
+
+    public DevToolsSettings settings() {
+        return settings;
+    }
+
+    /**
+     * @return filter of the URLs of requests, responses and log entries published by the session
+     */
+    public UrlFilter urlFilter() {
+        return urlFilter;
+    }
+
+    public EventPipeline pipeline() {
+        return pipeline;
+    }
+
+    /**
+     * @return requests in flight in the browser, available to tests as a {@link NetworkActivity} parameter
+     */
+    public NetworkActivity networkActivity() {
+        return networkActivity;
+    }
+
+    /**
+     * @return DOM mutations and application signals pushed by the page, see {@link PageActivity}
+     */
+    public PageActivity pageActivity() {
+        return pageActivity;
+    }
+
+    /**
+     * @return network events correlated into one record per request
+     */
+    public RequestCorrelator requests() {
+        return requests;
+    }
+
+    /**
+     * @return number of network events received from the browser, to compare the {@link NetworkMode}s
+     */
+    public long networkEventCount() {
+        return networkEvents.sum();
+    }
+
+    void networkEventReceived() {
+        networkEvents.increment();
+    }
+
+    /**
+     * @return latencies of the requests completed since the active test began
+     */
+    public LatencyRegistry latencies() {
+        return latencies;
+    }
+
+    /**
+     * Hands over the latencies recorded so far and starts recording into an empty registry.
+     */
+    public LatencyRegistry takeLatencies() {
+        LatencyRegistry taken = latencies;
+        latencies = new LatencyRegistry();
+        return taken;
+    }
+
+    /**
+     * @return URL patterns the browser currently blocks
+     */
+    public BlockList blockList() {
+        return blockList;
+    }
+
+    void blockList(BlockList blockList) {
+        this.blockList = blockList;
+    }
+
+    /**
+     * @return requests blocked since the active test began
+     */
+    public BlockedRequests blockedRequests() {
+        return blockedRequests;
+    }
+
+    /**
+     * Hands over the requests blocked so far and starts counting anew.
+     */
+    public BlockedRequests takeBlockedRequests() {
+        BlockedRequests taken = blockedRequests;
+        blockedRequests = new BlockedRequests();
+        return taken;
+    }
+
+    /**
+     * @return cache serving static assets of this session, if {@code cdplogger.assetCache.dir} is configured
+     */
+    public Optional<AssetCache> assetCache() {
+        return Optional.ofNullable(assetCache);
+    }
+
+    void assetCache(AssetCache assetCache) {
+        this.assetCache = assetCache;
+    }
+
+    /**
+     * @return asset cache lookups since the active test began
+     */
+    public AssetCacheStats assetCacheStats() {
+        return assetCacheStats;
+    }
+
+    /**
+     * Hands over the asset cache lookups so far and starts counting anew.
+     */
+    public AssetCacheStats takeAssetCacheStats() {
+        AssetCacheStats taken = assetCacheStats;
+        assetCacheStats = new AssetCacheStats();
+        return taken;
+    }
+
+    /**
+     * @return login steps run or restored since the active test began, see {@link LoginSession}
+     */
+    public LoginSnapshotStats loginSnapshotStats() {
+        return loginSnapshotStats;
+    }
+
+    /**
+     * Removes the script added with {@code Page.addScriptToEvaluateOnNewDocument} when the active test ends, as a
+     * class scoped session outlives the test.
+     */
+    public void removeScriptAfterTest(ScriptIdentifier identifier) {
+        testScripts.add(identifier);
+    }
+
+    /**
+     * Hands over the login steps so far and starts counting anew.
+     */
+    public LoginSnapshotStats takeLoginSnapshotStats() {
+        LoginSnapshotStats taken = loginSnapshotStats;
+        loginSnapshotStats = new LoginSnapshotStats();
+        return taken;
+    }
+
+    /**
+     * Remembers the origin of a requested URL for the reset after the test, when the reset is enabled.
+     */
+    void requestSent(String url) {
+        if (settings.resetEnabled()) {
+            String origin = origin(url);
+            if (origin != null) {
+                origins.add(origin);
+            }
+        }
+    }
+
+    /**
+     * Hands over the origins requested so far and starts collecting anew.
+     *
+     * @return origins like {@code https://app.test:8443} of the HTTP requests since the active test began
+     */
+    public Set<String> takeOrigins() {
+        Set<String> taken = origins;
+        origins = ConcurrentHashMap.newKeySet();
+        return taken;
+    }
+
+    /**
+     * @return scheme, host and port of an HTTP URL, or {@code null} for other URLs, e.g. {@code data:}
+     */
+    static String origin(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            return null;
+        }
+        String scheme = url.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            return null;
+        }
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < url.length() && "/?#".indexOf(url.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        String authority = url.substring(authorityStart, authorityEnd);
+        authority = authority.substring(authority.lastIndexOf('@') + 1);
+        return authority.isEmpty() ? null : scheme + "://" + authority.toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized int testsServed() {
+        return testsServed;
+    }
+
+    /**
+     * @return timings of the commands that created the session and enabled its domains
+     */
+    public SessionSetup setup() {
+        return setup;
+    }
+
+    void recordSetup(SessionSetup setup) {
+        this.setup = setup;
+    }
+
+    /**
+     * @return recorder of the raw events of this session, if recording is configured
+     */
+    public Optional<EventRecorder> recorder() {
+        return Optional.ofNullable(recorder);
+    }
+
+    void recordEvents(EventRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Attributes subsequent events to the given test.
+     *
+     * @throws IllegalStateException when another test is still using this session
+     */
+    public synchronized void beginTest(String testName) {
+        if (testActive) {
+            throw new IllegalStateException(String.format("Dev Tools session '%s' is in use by test '%s' and "
+                            + "cannot be shared by concurrently running test '%s'. "
+                            + "\nRun the test class with @Execution(ExecutionMode.SAME_THREAD) or use test scoped "
+                            + "sessions.",
+                    name, this.testName, testName));
+        }
+        testActive = true;
+        testsServed++;
+        this.testName = testName;
+    }
+
+    /**
+     * Waits until events of the active test are handled, resolves its captured events by the test outcome and flushes
+     * the output, so the events of a test are written before the next one begins.
+     */
+    public synchronized void endTest(boolean testFailed) {
+        if (!testActive) {
+            return;
+        }
+        pipeline.awaitDrained(TEST_BOUNDARY_DRAIN_TIMEOUT);
+        resolveCapture(testFailed);
+        outputHandler.flush();
+        removeTestScripts();
+        pageActivity.reset();
+        testName = name;
+        testActive = false;
+    }
+
+    private void removeTestScripts() {
+        for (ScriptIdentifier identifier : testScripts) {
+            try {
+                devTools.send(Page.removeScriptToEvaluateOnNewDocument(identifier));
+            } catch (RuntimeException e) {
+                DevToolsExtension.logger.debug("[{}] : Removing script {} failed: {}", name, identifier, e.toString());
+            }
+        }
+        testScripts.clear();
+    }
+
+    private void handle(CdpEvent event) {
+        FailureCaptureBuffer buffer = captureBuffer;
+        if (buffer != null) {
+            buffer.onEvent(event);
+        } else {
+            outputHandler.onEvent(event);
+        }
+    }
+
+    private FailureCaptureBuffer newCaptureBuffer() {
+        return settings.captureMode() == CaptureMode.ON_FAILURE
+                ? new FailureCaptureBuffer(settings.captureMaxBytes())
+                : null;
+    }
+
+    private void resolveCapture(boolean testFailed) {
+        FailureCaptureBuffer buffer = captureBuffer;
+        if (buffer == null) {
+            return;
+        }
+        captureBuffer = newCaptureBuffer();
+        if (testFailed) {
+            DevToolsExtension.logger.info("[{}] : Test failed, writing {} captured Dev Tools events"
+                            + " ({} older events evicted)",
+                    testName, buffer.size(), buffer.evictedCount());
+            buffer.flushTo(outputHandler);
+        } else {
+            buffer.discard();
+        }
+    }
+
+    /**
+     * Finishes the recording, drains the pipeline, resolves captured events of the active test and flushes the
+     * output. Events arriving later are not written. Called on the test thread before the session is handed to a
+     * background teardown, so the events are written before the test's {@code @AfterEach} methods may quit the
+     * browser and no teardown deadline can cut them off.
+     */
+    public synchronized void finish(boolean testFailed) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        DevToolsExtension.logger.debug("[{}] : {} network events received in {} mode", name,
+                networkEvents.sum(), settings.networkMode());
+        if (requests.evictedCount() > 0 || requests.pendingCount() > 0) {
+            DevToolsExtension.logger.debug("[{}] : {} requests evicted and {} still pending without completion",
+                    name, requests.evictedCount(), requests.pendingCount());
+        }
+        writeRecording();
+        pipeline.close();
+        resolveCapture(testFailed);
+        outputHandler.flush();
+        testActive = false;
+    }
+
+    /**
+     * Stops listening, finishes the session unless {@link #finish(boolean)} already did and detaches from Dev Tools.
+     * Events are written before detaching, so a browser that is slow to detach does not hold them back.
+     */
+    public synchronized void close(boolean testFailed) throws Exception {
+        try {
+            devTools.clearListeners();
+        } finally {
+            try {
+                finish(testFailed);
+            } finally {
+                devTools.close();
+            }
+        }
+    }
+
+    private void writeRecording() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.finish();
+            DevToolsExtension.logger.debug("[{}] : {} Dev Tools events recorded to {} ({} dropped)",
+                    name, recorder.recordedCount(), recorder.file(), recorder.droppedCount());
+        } catch (IOException e) {
+            DevToolsExtension.logger.warn("[{}] : Writing Dev Tools recording {} failed", name, recorder.file(), e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        close(true);
+    }
+}
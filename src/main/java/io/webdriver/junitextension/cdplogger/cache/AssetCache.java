@@ -0,0 +1,288 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of static assets shared by all tests and JVM forks using the same directory.
+ *
+ * <p>Bodies are content addressed: they are stored once under {@code objects/} by the SHA-256 of their bytes, so a
+ * bundle served under several URLs (e.g. with a cache busting query) takes its space once. Every cached URL has an
+ * entry under {@code index/}, named by the SHA-256 of the URL, with the status, the replayed headers, the body hash
+ * and the time the response stops being fresh, see {@link CachePolicy}. Files are written to a temporary file and
+ * moved into place, so concurrent forks never read a partial file.
+ *
+ * <p>The cache is bounded by the size of its bodies. A hit touches the body file, and once the bodies outgrow the
+ * limit the least recently used ones are deleted until they take {@value #EVICTION_TARGET_PERCENT}% of it. Index
+ * entries of deleted bodies are removed when they are looked up.
+ */
+public final class AssetCache {
+
+    static final int EVICTION_TARGET_PERCENT = 90;
+
+    private static final String OBJECTS = "objects";
+    private static final String INDEX = "index";
+    private static final String HEADER_PREFIX = "header.";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong sizeEstimate;
+
+    private AssetCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory.resolve(OBJECTS));
+        Files.createDirectories(directory.resolve(INDEX));
+        this.sizeEstimate = new AtomicLong(objectsSize());
+    }
+
+    /**
+     * Opens the cache in the directory, creating it when needed.
+     *
+     * @param maxBytes limit of the size of the cached bodies
+     */
+    public static AssetCache open(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Asset cache size must be positive: " + maxBytes);
+        }
+        return new AssetCache(directory, maxBytes);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * @return the fresh cached response of the URL, empty when it is not cached, expired or evicted
+     */
+    public Optional<CachedAsset> lookup(String url) {
+        Path entryFile = entryFile(url);
+        Properties entry = new Properties();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            entry.load(in);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!url.equals(entry.getProperty("url"))
+                || Long.parseLong(entry.getProperty("expires", "0")) < System.currentTimeMillis()) {
+            deleteQuietly(entryFile);
+            return Optional.empty();
+        }
+        Path object = objectFile(entry.getProperty("hash"));
+        byte[] body;
+        try {
+            body = Files.readAllBytes(object);
+            Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            deleteQuietly(entryFile);
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        for (int i = 0; entry.containsKey(HEADER_PREFIX + i + ".name"); i++) {
+            headers.add(Map.entry(entry.getProperty(HEADER_PREFIX + i + ".name"),
+                    entry.getProperty(HEADER_PREFIX + i + ".value")));
+        }
+        return Optional.of(new CachedAsset(Integer.parseInt(entry.getProperty("status")), headers, body));
+    }
+
+    /**
+     * Stores the response when its headers allow a shared cache to serve it without revalidation.
+     *
+     * @return whether the response was stored
+     */
+    public boolean store(String url, int status, List<Map.Entry<String, String>> headers, byte[] body) {
+        long freshnessMillis = CachePolicy.freshnessMillis(status, headers);
+        if (freshnessMillis == CachePolicy.NOT_STORABLE) {
+            return false;
+        }
+        String hash = sha256(body);
+        Properties entry = new Properties();
+        entry.setProperty("url", url);
+        entry.setProperty("status", String.valueOf(status));
+        entry.setProperty("hash", hash);
+        entry.setProperty("size", String.valueOf(body.length));
+        entry.setProperty("expires", String.valueOf(System.currentTimeMillis() + freshnessMillis));
+        int index = 0;
+        for (Map.Entry<String, String> header : headers) {
+            if (CachePolicy.isReplayed(header.getKey())) {
+                entry.setProperty(HEADER_PREFIX + index + ".name", header.getKey());
+                entry.setProperty(HEADER_PREFIX + index + ".value", header.getValue());
+                index++;
+            }
+        }
+        try {
+            Path object = objectFile(hash);
+            if (Files.exists(object)) {
+                Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                Files.createDirectories(object.getParent());
+                writeAtomically(object, out -> out.write(body));
+                sizeEstimate.addAndGet(body.length);
+            }
+            writeAtomically(entryFile(url), out -> entry.store(out, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (sizeEstimate.get() > maxBytes) {
+            evict();
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the least recently used bodies until they take {@value #EVICTION_TARGET_PERCENT}% of the limit.
+     * Other forks may have added or deleted bodies, so their size is taken from the directory.
+     */
+    synchronized void evict() {
+        List<Path> objects = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory.resolve(OBJECTS))) {
+            files.filter(Files::isRegularFile).forEach(objects::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<ObjectFile> candidates = new ArrayList<>();
+        long size = 0;
+        for (Path object : objects) {
+            try {
+                ObjectFile file = new ObjectFile(object, Files.size(object), Files.getLastModifiedTime(object));
+                candidates.add(file);
+                size += file.size;
+            } catch (IOException e) {
+                // deleted by another fork meanwhile
+            }
+        }
+        candidates.sort(Comparator.comparing(file -> file.lastAccess));
+        long target = maxBytes / 100 * EVICTION_TARGET_PERCENT;
+        for (ObjectFile file : candidates) {
+            if (size <= target) {
+                break;
+            }
+            deleteQuietly(file.path);
+            size -= file.size;
+        }
+        sizeEstimate.set(size);
+    }
+
+    /**
+     * @return size of the cached bodies as last counted, including those written by this JVM since
+     */
+    public long size() {
+        return sizeEstimate.get();
+    }
+
+    private long objectsSize() throws IOException {
+        try (Stream<Path> files = Files.walk(directory.resolve(OBJECTS))) {
+            return files.filter(Files::isRegularFile).mapToLong(file ->
+            {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        }
+    }
+
+    /**
+     * @return number of cached URLs, including expired ones not looked up since
+     */
+    public int entryCount() {
+        int count = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory.resolve(INDEX))) {
+            for (Path ignored : entries) {
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private Path entryFile(String url) {
+        return directory.resolve(INDEX).resolve(sha256(url.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Path objectFile(String hash) {
+        return directory.resolve(OBJECTS).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    static void writeAtomically(Path target, Writer writer) throws IOException {
+        Path temporary = Files.createTempFile(target.getParent(), ".tmp-", "");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                writer.write(out);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // left for the next lookup or eviction
+        }
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit(b >> 4 & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Writer {
+
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static final class ObjectFile {
+
+        private final Path path;
+        private final long size;
+        private final FileTime lastAccess;
+
+        private ObjectFile(Path path, long size, FileTime lastAccess) {
+            this.path = path;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
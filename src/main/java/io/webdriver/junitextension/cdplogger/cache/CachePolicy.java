@@ -0,0 +1,128 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides from the response headers whether and for how long a shared cache may serve a response without
+ * revalidating it, following the HTTP caching rules a browser applies.
+ *
+ * <p>Only responses with explicit freshness ({@code Cache-Control: max-age} or {@code s-maxage}, or {@code Expires})
+ * are stored, without heuristic freshness. {@code no-store}, {@code no-cache} and {@code private} responses are not
+ * stored, as the cache is shared by all tests and never revalidates. Responses varying on anything but
+ * {@code Accept-Encoding} are not stored either, as the cache keys responses by URL only.
+ */
+final class CachePolicy {
+
+    static final long NOT_STORABLE = -1;
+
+    /**
+     * Headers which describe the transfer instead of the resource, or must not be replayed to another test.
+     */
+    private static final Set<String> DROPPED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "content-encoding", "content-length", "set-cookie", "age", "date");
+
+    private CachePolicy() {
+    }
+
+    /**
+     * @return milliseconds the response stays fresh from now, or {@link #NOT_STORABLE}
+     */
+    static long freshnessMillis(int status, List<Map.Entry<String, String>> headers) {
+        if (status != 200) {
+            return NOT_STORABLE;
+        }
+        String cacheControl = header(headers, "cache-control");
+        long age = parseSeconds(header(headers, "age"));
+        if (cacheControl != null) {
+            long maxAge = -1;
+            long sharedMaxAge = -1;
+            for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+                String name = directive.trim();
+                int equals = name.indexOf('=');
+                String value = equals >= 0 ? name.substring(equals + 1).trim().replace("\"", "") : null;
+                name = equals >= 0 ? name.substring(0, equals).trim() : name;
+                switch (name) {
+                    case "no-store":
+                    case "no-cache":
+                    case "private":
+                        return NOT_STORABLE;
+                    case "max-age":
+                        maxAge = parseSeconds(value);
+                        break;
+                    case "s-maxage":
+                        sharedMaxAge = parseSeconds(value);
+                        break;
+                    default:
+                }
+            }
+            long seconds = sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+            if (seconds >= 0) {
+                return varies(headers) ? NOT_STORABLE : positive((seconds - Math.max(age, 0)) * 1000);
+            }
+        }
+        String expires = header(headers, "expires");
+        if (expires == null || varies(headers)) {
+            return NOT_STORABLE;
+        }
+        try {
+            ZonedDateTime expiresAt = ZonedDateTime.parse(expires.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            String date = header(headers, "date");
+            long now = date != null
+                    ? ZonedDateTime.parse(date.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+                    : System.currentTimeMillis();
+            return positive(expiresAt.toInstant().toEpochMilli() - now);
+        } catch (DateTimeParseException e) {
+            return NOT_STORABLE;
+        }
+    }
+
+    private static long positive(long freshnessMillis) {
+        return freshnessMillis > 0 ? freshnessMillis : NOT_STORABLE;
+    }
+
+    private static boolean varies(List<Map.Entry<String, String>> headers) {
+        String vary = header(headers, "vary");
+        if (vary == null) {
+            return false;
+        }
+        for (String name : vary.split(",")) {
+            if (!name.trim().isEmpty() && !name.trim().equalsIgnoreCase("accept-encoding")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the header is kept when a response is stored and replayed
+     */
+    static boolean isReplayed(String name) {
+        return !DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static String header(List<Map.Entry<String, String>> headers, String name) {
+        for (Map.Entry<String, String> header : headers) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
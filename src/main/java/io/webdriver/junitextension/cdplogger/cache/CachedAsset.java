@@ -0,0 +1,35 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response served from the {@link AssetCache}.
+ */
+public final class CachedAsset {
+
+    private final int status;
+    private final List<Map.Entry<String, String>> headers;
+    private final byte[] body;
+
+    CachedAsset(int status, List<Map.Entry<String, String>> headers, byte[] body) {
+        this.status = status;
+        this.headers = List.copyOf(headers);
+        this.body = body;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    /**
+     * @return response headers without those describing the original transfer, e.g. {@code Content-Encoding}
+     */
+    public List<Map.Entry<String, String>> headers() {
+        return headers;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+}
@@ -0,0 +1,60 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cookies and local storage of the browser captured after a login step, kept by the {@link LoginSnapshotCache}.
+ *
+ * <p>Cookies are kept as their Dev Tools attributes ({@code name}, {@code value}, {@code domain}, {@code path},
+ * {@code expires}, {@code secure}, {@code httpOnly}, {@code sameSite}) converted to strings. Local storage is kept
+ * for the origin of the page the login step ended on.
+ */
+public final class LoginSnapshot {
+
+    private final List<Map<String, String>> cookies;
+    private final String origin;
+    private final Map<String, String> localStorage;
+    private final Duration loginTime;
+    private final long expiresMillis;
+
+    /**
+     * @param origin origin of the local storage items, {@code null} when there are none
+     * @param loginTime time the login step took, saved by every restore
+     * @param expiresMillis epoch time the snapshot must not be restored after
+     */
+    public LoginSnapshot(List<Map<String, String>> cookies, String origin, Map<String, String> localStorage,
+                         Duration loginTime, long expiresMillis) {
+        this.cookies = cookies.stream().map(Map::copyOf).collect(Collectors.toUnmodifiableList());
+        this.origin = origin;
+        this.localStorage = Map.copyOf(localStorage);
+        this.loginTime = loginTime;
+        this.expiresMillis = expiresMillis;
+    }
+
+    public List<Map<String, String>> cookies() {
+        return cookies;
+    }
+
+    public String origin() {
+        return origin;
+    }
+
+    public Map<String, String> localStorage() {
+        return localStorage;
+    }
+
+    public Duration loginTime() {
+        return loginTime;
+    }
+
+    public long expiresMillis() {
+        return expiresMillis;
+    }
+
+    boolean isExpired() {
+        return expiresMillis < System.currentTimeMillis();
+    }
+}
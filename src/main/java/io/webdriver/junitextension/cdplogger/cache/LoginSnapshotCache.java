@@ -0,0 +1,164 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import io.webdriver.junitextension.cdplogger.metrics.LoginSnapshotStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Login snapshots by the name of their login step, kept in memory and, when a directory is given, on disk, so
+ * tests of later runs and other JVM forks restore them too.
+ *
+ * <p>Each snapshot is a properties file named by the SHA-256 of the login step name, written to a temporary file
+ * and moved into place like the entries of the {@link AssetCache}. Snapshots are restored until the time to live
+ * elapses or the first of their persistent cookies expires, whichever comes first.
+ */
+public final class LoginSnapshotCache {
+
+    private static final String COOKIE_PREFIX = "cookie.";
+    private static final String STORAGE_PREFIX = "storage.";
+
+    private final Path directory;
+    private final Duration timeToLive;
+    private final Map<String, LoginSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final LoginSnapshotStats stats = new LoginSnapshotStats();
+
+    private LoginSnapshotCache(Path directory, Duration timeToLive) {
+        this.directory = directory;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param directory directory of the snapshots, created when needed, or {@code null} to keep them in memory only
+     */
+    public static LoginSnapshotCache open(Path directory, Duration timeToLive) throws IOException {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Login snapshot time to live must be positive: " + timeToLive);
+        }
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        return new LoginSnapshotCache(directory, timeToLive);
+    }
+
+    public Duration timeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * @return restores and time saved by all tests of the run
+     */
+    public LoginSnapshotStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return the snapshot of the login step, empty when it was not captured yet or expired
+     */
+    public Optional<LoginSnapshot> lookup(String name) {
+        LoginSnapshot snapshot = snapshots.get(name);
+        if (snapshot == null && directory != null) {
+            snapshot = read(name);
+            if (snapshot != null) {
+                snapshots.putIfAbsent(name, snapshot);
+            }
+        }
+        if (snapshot != null && snapshot.isExpired()) {
+            snapshots.remove(name, snapshot);
+            if (directory != null) {
+                AssetCache.deleteQuietly(snapshotFile(name));
+            }
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    public void store(String name, LoginSnapshot snapshot) {
+        snapshots.put(name, snapshot);
+        if (directory == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty("name", name);
+        properties.setProperty("loginMillis", String.valueOf(snapshot.loginTime().toMillis()));
+        properties.setProperty("expires", String.valueOf(snapshot.expiresMillis()));
+        for (int i = 0; i < snapshot.cookies().size(); i++) {
+            for (Map.Entry<String, String> attribute : snapshot.cookies().get(i).entrySet()) {
+                properties.setProperty(COOKIE_PREFIX + i + "." + attribute.getKey(), attribute.getValue());
+            }
+        }
+        if (snapshot.origin() != null) {
+            properties.setProperty(STORAGE_PREFIX + "origin", snapshot.origin());
+            int index = 0;
+            for (Map.Entry<String, String> item : snapshot.localStorage().entrySet()) {
+                properties.setProperty(STORAGE_PREFIX + index + ".key", item.getKey());
+                properties.setProperty(STORAGE_PREFIX + index + ".value", item.getValue());
+                index++;
+            }
+        }
+        try {
+            AssetCache.writeAtomically(snapshotFile(name), out -> properties.store(out, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forgets the snapshot, e.g. after the application rejected it.
+     */
+    public void invalidate(String name) {
+        snapshots.remove(name);
+        if (directory != null) {
+            AssetCache.deleteQuietly(snapshotFile(name));
+        }
+    }
+
+    private LoginSnapshot read(String name) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(snapshotFile(name))) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!name.equals(properties.getProperty("name"))) {
+            return null;
+        }
+        List<Map<String, String>> cookies = new ArrayList<>();
+        for (int i = 0; properties.containsKey(COOKIE_PREFIX + i + ".name"); i++) {
+            String prefix = COOKIE_PREFIX + i + ".";
+            Map<String, String> cookie = new HashMap<>();
+            properties.stringPropertyNames().stream()
+                    .filter(key -> key.startsWith(prefix))
+                    .forEach(key -> cookie.put(key.substring(prefix.length()), properties.getProperty(key)));
+            cookies.add(cookie);
+        }
+        Map<String, String> localStorage = new LinkedHashMap<>();
+        for (int i = 0; properties.containsKey(STORAGE_PREFIX + i + ".key"); i++) {
+            localStorage.put(properties.getProperty(STORAGE_PREFIX + i + ".key"),
+                    properties.getProperty(STORAGE_PREFIX + i + ".value"));
+        }
+        return new LoginSnapshot(cookies, properties.getProperty(STORAGE_PREFIX + "origin"), localStorage,
+                Duration.ofMillis(Long.parseLong(properties.getProperty("loginMillis", "0"))),
+                Long.parseLong(properties.getProperty("expires", "0")));
+    }
+
+    private Path snapshotFile(String name) {
+        return directory.resolve(AssetCache.sha256(name.getBytes(StandardCharsets.UTF_8)) + ".properties");
+    }
+}
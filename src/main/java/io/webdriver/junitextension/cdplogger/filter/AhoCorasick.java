@@ -0,0 +1,138 @@
+package io.webdriver.junitextension.cdplogger.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Aho-Corasick automaton finding all of a set of keywords in one pass over a text, in time linear in the length of
+ * the text however many keywords there are.
+ *
+ * <p>Transitions of a state are kept in sorted parallel arrays and looked up by binary search. Every state lists the
+ * keywords ending at it, including those reached through its failure links, so matching never follows an output
+ * chain. Scanning a URL spends most of its time in the root state, whose ASCII transitions are kept in a dense
+ * table.
+ */
+final class AhoCorasick {
+
+    private static final int[] NO_OUTPUTS = new int[0];
+    private static final int ASCII = 128;
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    private final int[][] outputs;
+    private final int[] rootTargets = new int[ASCII];
+    private final int keywordCount;
+
+    AhoCorasick(List<String> keywords) {
+        this.keywordCount = keywords.size();
+        List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        stateOutputs.add(new ArrayList<>());
+        for (int keyword = 0; keyword < keywords.size(); keyword++) {
+            int state = 0;
+            for (char c : keywords.get(keyword).toCharArray()) {
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(c, next);
+                    transitions.add(new TreeMap<>());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            stateOutputs.get(state).add(keyword);
+        }
+
+        int states = transitions.size();
+        labels = new char[states][];
+        targets = new int[states][];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> stateTransitions = transitions.get(state);
+            labels[state] = new char[stateTransitions.size()];
+            targets[state] = new int[stateTransitions.size()];
+            int index = 0;
+            for (var transition : stateTransitions.entrySet()) {
+                labels[state][index] = transition.getKey();
+                targets[state][index] = transition.getValue();
+                index++;
+            }
+        }
+
+        for (int index = 0; index < labels[0].length; index++) {
+            if (labels[0][index] < ASCII) {
+                rootTargets[labels[0][index]] = targets[0][index];
+            }
+        }
+
+        failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int index = 0; index < labels[state].length; index++) {
+                char c = labels[state][index];
+                int child = targets[state][index];
+                int fallback = failure[state];
+                while (fallback != 0 && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int fallbackTarget = next(fallback, c);
+                failure[child] = fallbackTarget >= 0 && fallbackTarget != child ? fallbackTarget : 0;
+                stateOutputs.get(child).addAll(stateOutputs.get(failure[child]));
+                queue.add(child);
+            }
+        }
+
+        outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            List<Integer> stateOutput = stateOutputs.get(state);
+            outputs[state] = stateOutput.isEmpty()
+                    ? NO_OUTPUTS
+                    : stateOutput.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        }
+    }
+
+    private int next(int state, char c) {
+        if (state == 0 && c < ASCII) {
+            int target = rootTargets[c];
+            return target > 0 ? target : -1;
+        }
+        int index = Arrays.binarySearch(labels[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    int keywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Scans the text and reports every occurrence of a keyword by its index in the list the automaton was built from.
+     *
+     * @param onMatch called for every keyword found, returns {@code false} to stop scanning
+     */
+    void find(CharSequence text, IntPredicate onMatch) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+            for (int keyword : outputs[state]) {
+                if (!onMatch.test(keyword)) {
+                    return;
+                }
+            }
+        }
+    }
+}
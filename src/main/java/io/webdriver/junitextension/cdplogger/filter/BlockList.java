@@ -0,0 +1,119 @@
+package io.webdriver.junitextension.cdplogger.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * URL patterns of blocked requests with the syntax of {@code Network.setBlockedURLs}, whatever the network mode:
+ * {@code '*'} matches any characters, all other characters are literal and a pattern may match anywhere in the URL.
+ * Where the browser pauses requests instead of blocking them itself, they are paused with the equivalent
+ * {@link #fetchPatterns() Fetch patterns} and matched on the Java side.
+ */
+public final class BlockList {
+
+    public static final BlockList NONE = new BlockList(List.of());
+
+    private final List<String> patterns;
+    private final List<String> fetchPatterns;
+    private final Pattern regex;
+
+    private BlockList(List<String> patterns) {
+        this.patterns = patterns;
+        List<String> fetchPatterns = new ArrayList<>();
+        List<String> alternatives = new ArrayList<>();
+        for (String pattern : patterns) {
+            fetchPatterns.add(fetchPattern(pattern));
+            alternatives.add(wildcardToRegex(pattern));
+        }
+        this.fetchPatterns = List.copyOf(fetchPatterns);
+        this.regex = patterns.isEmpty() ? null : Pattern.compile(String.join("|", alternatives));
+    }
+
+    /**
+     * Compiles the patterns in their order, blank and repeated ones are ignored.
+     */
+    public static BlockList of(Collection<String> patterns) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.isBlank()) {
+                distinct.add(pattern.trim());
+            }
+        }
+        return distinct.isEmpty() ? NONE : new BlockList(List.copyOf(distinct));
+    }
+
+    /**
+     * @return the patterns as passed to {@code Network.setBlockedURLs}
+     */
+    public List<String> patterns() {
+        return patterns;
+    }
+
+    /**
+     * @return the patterns as {@code urlPattern} of {@code Fetch.enable}, which match the whole URL and give
+     * {@code '?'} and {@code ''} a meaning
+     */
+    public List<String> fetchPatterns() {
+        return fetchPatterns;
+    }
+
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    public boolean matches(String url) {
+        return regex != null && regex.matcher(url).find();
+    }
+
+    static String fetchPattern(String pattern) {
+        StringBuilder fetchPattern = new StringBuilder();
+        if (!pattern.startsWith("*")) {
+            fetchPattern.append('*');
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '?' || c == '\\') {
+                fetchPattern.append('\\');
+            }
+            fetchPattern.append(c);
+        }
+        if (!pattern.endsWith("*")) {
+            fetchPattern.append('*');
+        }
+        return fetchPattern.toString();
+    }
+
+    static String wildcardToRegex(String pattern) {
+        StringBuilder regex = new StringBuilder("(?:");
+        int literalStart = 0;
+        for (int wildcard = pattern.indexOf('*'); wildcard >= 0; wildcard = pattern.indexOf('*', literalStart)) {
+            if (wildcard > literalStart) {
+                regex.append(Pattern.quote(pattern.substring(literalStart, wildcard)));
+            }
+            regex.append(".*");
+            literalStart = wildcard + 1;
+        }
+        if (literalStart < pattern.length()) {
+            regex.append(Pattern.quote(pattern.substring(literalStart)));
+        }
+        return regex.append(')').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BlockList && patterns.equals(((BlockList) o).patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        return patterns.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "BlockList" + patterns;
+    }
+}
@@ -0,0 +1,58 @@
+package io.webdriver.junitextension.cdplogger.filter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trie of host names keyed by their labels from the top-level domain down, so a host is matched against all
+ * patterns in one walk over its labels. A pattern matches the host itself and all of its subdomains:
+ * {@code app.test} matches {@code app.test} and {@code api.app.test} but not {@code myapp.test}.
+ */
+final class HostTrie {
+
+    private final Node root = new Node();
+    private int size;
+
+    void add(String host) {
+        Node node = root;
+        String[] labels = host.toLowerCase(Locale.ROOT).split("\\.");
+        for (int i = labels.length - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(labels[i], label -> new Node());
+        }
+        if (!node.terminal) {
+            node.terminal = true;
+            size++;
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param host host name in lower case, as found in a URL
+     */
+    boolean matches(String host) {
+        Node node = root;
+        int end = host.length();
+        while (end > 0) {
+            int start = host.lastIndexOf('.', end - 1) + 1;
+            node = node.children.get(host.substring(start, end));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+            end = start - 1;
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,330 @@
+package io.webdriver.junitextension.cdplogger.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * URL filter compiled from a set of include and exclude patterns. A URL passes when it matches any include pattern,
+ * or there are none, and no exclude pattern.
+ *
+ * <p>Pattern syntax, a leading {@code '!'} turns a pattern into an exclude pattern:
+ * <ul>
+ *     <li>{@code app.test/api} - the URL contains the text, as the single {@code responseURLFilter} always did;</li>
+ *     <li>{@code host:app.test} - the URL host is {@code app.test} or one of its subdomains;</li>
+ *     <li>{@code glob:https://*.app.test/api/**} - the whole URL matches the glob, where {@code '*'} matches within a
+ *     path segment, {@code '**'} matches anything and {@code '?'} matches one character;</li>
+ *     <li>{@code regex:/items/\d+} - the regular expression is found in the URL.</li>
+ * </ul>
+ *
+ * <p>All substrings are matched in one pass by an Aho-Corasick automaton and all hosts by one walk of a label trie,
+ * so the cost of a URL grows with its length and not with the number of patterns. The longest literal part of a
+ * glob is added to the automaton as well and the glob itself is only evaluated when that part was found. Regular
+ * expressions are evaluated one by one. Results are memoized in a bounded cache indexed by the URL hash, as pages
+ * request the same URLs over and over.
+ *
+ * <p>The include patterns can also be turned into the wildcard URL patterns of the Dev Tools Fetch domain, see
+ * {@link #browserPatterns()}, so the browser reports only the requests which may pass.
+ */
+public final class UrlFilter {
+
+    /**
+     * Filter passing every URL.
+     */
+    public static final UrlFilter ALL = new UrlFilter(List.of());
+
+    static final String HOST_PREFIX = "host:";
+    static final String GLOB_PREFIX = "glob:";
+    static final String REGEX_PREFIX = "regex:";
+    static final char EXCLUDE_PREFIX = '!';
+
+    private static final int MEMO_SIZE = 4096;
+    private static final int MIN_PREFILTER_LENGTH = 3;
+    private static final int NO_KEYWORD = -1;
+    private static final String ANY_URL = "*";
+
+    private final List<String> patterns;
+    private final List<String> browserPatterns;
+    private final boolean hasIncludes;
+    private final HostTrie includedHosts = new HostTrie();
+    private final HostTrie excludedHosts = new HostTrie();
+    private final AhoCorasick automaton;
+    /**
+     * Per keyword: whether it comes from an exclude pattern, and the expression it is a prefilter of.
+     */
+    private final boolean[] keywordExcludes;
+    private final int[] keywordExpression;
+    private final Expression[] expressions;
+    private final AtomicReferenceArray<Memo> memo = new AtomicReferenceArray<>(MEMO_SIZE);
+
+    private UrlFilter(List<String> patterns) {
+        this.patterns = patterns;
+        List<String> keywords = new ArrayList<>();
+        List<Boolean> excludes = new ArrayList<>();
+        List<Integer> keywordExpressions = new ArrayList<>();
+        List<Expression> compiled = new ArrayList<>();
+        Set<String> wildcards = new LinkedHashSet<>();
+        boolean includes = false;
+        for (String pattern : patterns) {
+            boolean exclude = pattern.charAt(0) == EXCLUDE_PREFIX;
+            String body = exclude ? pattern.substring(1) : pattern;
+            includes |= !exclude;
+            if (!exclude) {
+                wildcards.addAll(browserPatterns(body));
+            }
+            if (body.startsWith(HOST_PREFIX)) {
+                (exclude ? excludedHosts : includedHosts).add(body.substring(HOST_PREFIX.length()));
+            } else if (body.startsWith(GLOB_PREFIX)) {
+                String glob = body.substring(GLOB_PREFIX.length());
+                String literal = longestLiteral(glob);
+                Expression expression = new Expression(globToRegex(glob), true, exclude,
+                        literal.length() >= MIN_PREFILTER_LENGTH);
+                if (expression.prefiltered) {
+                    keywords.add(literal);
+                    excludes.add(exclude);
+                    keywordExpressions.add(compiled.size());
+                }
+                compiled.add(expression);
+            } else if (body.startsWith(REGEX_PREFIX)) {
+                compiled.add(new Expression(Pattern.compile(body.substring(REGEX_PREFIX.length())), false, exclude,
+                        false));
+            } else {
+                keywords.add(body);
+                excludes.add(exclude);
+                keywordExpressions.add(NO_KEYWORD);
+            }
+        }
+        this.hasIncludes = includes;
+        this.browserPatterns = !includes || wildcards.contains(ANY_URL) ? List.of(ANY_URL) : List.copyOf(wildcards);
+        this.automaton = new AhoCorasick(keywords);
+        this.keywordExcludes = new boolean[keywords.size()];
+        this.keywordExpression = new int[keywords.size()];
+        for (int keyword = 0; keyword < keywords.size(); keyword++) {
+            keywordExcludes[keyword] = excludes.get(keyword);
+            keywordExpression[keyword] = keywordExpressions.get(keyword);
+        }
+        this.expressions = compiled.toArray(new Expression[0]);
+    }
+
+    /**
+     * Compiles the patterns, blank ones and a bare {@code '!'} are ignored.
+     *
+     * @throws IllegalArgumentException when a regular expression is invalid
+     */
+    public static UrlFilter compile(Collection<String> patterns) {
+        List<String> normalized = new ArrayList<>();
+        for (String pattern : patterns) {
+            String trimmed = pattern == null ? "" : pattern.trim();
+            if (!trimmed.isEmpty() && !trimmed.equals(String.valueOf(EXCLUDE_PREFIX))) {
+                normalized.add(trimmed);
+            }
+        }
+        return normalized.isEmpty() ? ALL : new UrlFilter(List.copyOf(normalized));
+    }
+
+    public List<String> patterns() {
+        return patterns;
+    }
+
+    /**
+     * @return wildcard URL patterns of the Dev Tools Fetch domain, where {@code '*'} matches any characters and
+     * {@code '?'} one character, matching at least every URL that may pass the filter. Exclude patterns and
+     * regular expressions cannot be expressed and are left to {@link #test(String)}.
+     */
+    public List<String> browserPatterns() {
+        return browserPatterns;
+    }
+
+    public boolean acceptsAll() {
+        return patterns.isEmpty();
+    }
+
+    public boolean test(String url) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        int hash = url.hashCode();
+        int index = (hash ^ hash >>> 16) & (MEMO_SIZE - 1);
+        Memo memoized = memo.get(index);
+        if (memoized != null && memoized.url.equals(url)) {
+            return memoized.result;
+        }
+        boolean result = evaluate(url);
+        memo.lazySet(index, new Memo(url, result));
+        return result;
+    }
+
+    private boolean evaluate(String url) {
+        Match match = new Match(expressions.length);
+        if (!includedHosts.isEmpty() || !excludedHosts.isEmpty()) {
+            String host = host(url);
+            if (excludedHosts.matches(host)) {
+                return false;
+            }
+            match.included = includedHosts.matches(host);
+        }
+        automaton.find(url, keyword ->
+        {
+            int expression = keywordExpression[keyword];
+            if (expression != NO_KEYWORD) {
+                match.candidates[expression] = true;
+            } else if (keywordExcludes[keyword]) {
+                match.excluded = true;
+                return false;
+            } else {
+                match.included = true;
+            }
+            return true;
+        });
+        if (match.excluded || matchesExpressions(url, match, true)) {
+            return false;
+        }
+        return match.included || !hasIncludes || matchesExpressions(url, match, false);
+    }
+
+    private boolean matchesExpressions(String url, Match match, boolean exclude) {
+        for (int i = 0; i < expressions.length; i++) {
+            Expression expression = expressions[i];
+            if (expression.exclude == exclude && (!expression.prefiltered || match.candidates[i])
+                    && expression.matches(url)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return host of the URL in lower case, or an empty string when it has none
+     */
+    static String host(String url) {
+        int start = url.indexOf("://");
+        if (start < 0) {
+            return "";
+        }
+        start += 3;
+        int end = start;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                start = end + 1;
+            }
+            end++;
+        }
+        int port = url.lastIndexOf(':', end - 1);
+        if (port >= start && url.charAt(end - 1) != ']') {
+            end = port;
+        }
+        return url.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> browserPatterns(String include) {
+        if (include.startsWith(HOST_PREFIX)) {
+            String host = escapeWildcards(include.substring(HOST_PREFIX.length()).toLowerCase(Locale.ROOT));
+            return List.of("*://" + host + "/*", "*://" + host + ":*", "*://*." + host + "/*",
+                    "*://*." + host + ":*");
+        }
+        if (include.startsWith(GLOB_PREFIX)) {
+            return List.of(include.substring(GLOB_PREFIX.length()).replace("\\", "\\\\").replace("**", "*"));
+        }
+        if (include.startsWith(REGEX_PREFIX)) {
+            return List.of(ANY_URL);
+        }
+        return List.of("*" + escapeWildcards(include) + "*");
+    }
+
+    private static String escapeWildcards(String literal) {
+        return literal.replace("\\", "\\\\").replace("*", "\\*").replace("?", "\\?");
+    }
+
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                regex.append('.');
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    static String longestLiteral(String glob) {
+        String longest = "";
+        for (String part : glob.split("[*?]")) {
+            if (part.length() > longest.length()) {
+                longest = part;
+            }
+        }
+        return longest;
+    }
+
+    @Override
+    public String toString() {
+        return "UrlFilter" + patterns;
+    }
+
+    private static final class Expression {
+
+        private final Pattern pattern;
+        private final boolean wholeUrl;
+        private final boolean exclude;
+        private final boolean prefiltered;
+
+        private Expression(Pattern pattern, boolean wholeUrl, boolean exclude, boolean prefiltered) {
+            this.pattern = pattern;
+            this.wholeUrl = wholeUrl;
+            this.exclude = exclude;
+            this.prefiltered = prefiltered;
+        }
+
+        private boolean matches(String url) {
+            return wholeUrl ? pattern.matcher(url).matches() : pattern.matcher(url).find();
+        }
+    }
+
+    private static final class Match {
+
+        private final boolean[] candidates;
+        private boolean included;
+        private boolean excluded;
+
+        private Match(int expressions) {
+            this.candidates = new boolean[expressions];
+        }
+    }
+
+    private static final class Memo {
+
+        private final String url;
+        private final boolean result;
+
+        private Memo(String url, boolean result) {
+            this.url = url;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hits and misses of static assets looked up in the shared asset cache while a test ran.
+ */
+public final class AssetCacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param bytes size of the body served from the cache instead of the network
+     */
+    public void hit(long bytes) {
+        hits.increment();
+        bytesSaved.add(bytes);
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Counts a hit whose cached response could not be served as a miss, as the asset came from the network.
+     */
+    public void notServed(long bytes) {
+        hits.decrement();
+        bytesSaved.add(-bytes);
+        misses.increment();
+    }
+
+    public void stored() {
+        stores.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long stores() {
+        return stores.sum();
+    }
+
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public boolean isEmpty() {
+        return hits.sum() == 0 && misses.sum() == 0;
+    }
+
+    @Override
+    public String toString() {
+        long lookups = hits() + misses();
+        return String.format("asset cache %d hits, %d misses (%d%% hit rate), %d stored, %d KB saved", hits(),
+                misses(), lookups > 0 ? hits() * 100 / lookups : 0, stores(), bytesSaved() / 1024);
+    }
+}
@@ -0,0 +1,62 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Requests blocked by the browser while a test ran, counted per resource type.
+ *
+ * <p>A blocked request never transfers its response, so the bytes it saved are estimated from typical transfer
+ * sizes of its resource type, rounded from the medians of the HTTP Archive. The estimate is meant to show the order
+ * of magnitude a block list saves, not the size of a particular resource.
+ */
+public final class BlockedRequests {
+
+    static final long DEFAULT_ESTIMATED_BYTES = 4 * 1024;
+    private static final Map<String, Long> ESTIMATED_BYTES = Map.of(
+            "Document", 30 * 1024L,
+            "Stylesheet", 10 * 1024L,
+            "Script", 25 * 1024L,
+            "Image", 15 * 1024L,
+            "Media", 100 * 1024L,
+            "Font", 30 * 1024L,
+            "XHR", 2 * 1024L,
+            "Fetch", 2 * 1024L);
+
+    private final Map<String, Integer> counts = new TreeMap<>();
+    private long estimatedBytes;
+
+    public synchronized void record(String resourceType) {
+        String type = resourceType != null ? resourceType : "Other";
+        counts.merge(type, 1, Integer::sum);
+        estimatedBytes += estimatedBytes(type);
+    }
+
+    static long estimatedBytes(String resourceType) {
+        return ESTIMATED_BYTES.getOrDefault(resourceType, DEFAULT_ESTIMATED_BYTES);
+    }
+
+    public synchronized int count() {
+        return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public synchronized boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    public synchronized long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * @return blocked requests per resource type, e.g. {@code {Font=2, Script=3}}
+     */
+    public synchronized Map<String, Integer> countsByType() {
+        return new TreeMap<>(counts);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d requests blocked %s, about %d KB saved", count(), counts, estimatedBytes / 1024);
+    }
+}
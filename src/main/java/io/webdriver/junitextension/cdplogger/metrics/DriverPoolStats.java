@@ -0,0 +1,112 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leases and driver turnover of a driver pool.
+ *
+ * <p>A lease is a hit when a started driver was waiting in the pool, and a miss when the test had to wait for a
+ * driver to start. Startup time is the time drivers took to launch and warm up in the background, which hits kept
+ * off the test threads.
+ */
+public final class DriverPoolStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder startNanos = new LongAdder();
+    private final LongAdder startFailures = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder unhealthy = new LongAdder();
+
+    public void leased(boolean hit, long waitNanos) {
+        (hit ? hits : misses).increment();
+        this.waitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public void started(long nanos) {
+        started.increment();
+        startNanos.add(nanos);
+    }
+
+    public void startFailed() {
+        startFailures.increment();
+    }
+
+    /**
+     * Counts a driver retired after reaching its maximum number of uses.
+     */
+    public void recycled() {
+        recycled.increment();
+    }
+
+    /**
+     * Counts a driver retired after failing its health check.
+     */
+    public void unhealthy() {
+        unhealthy.increment();
+    }
+
+    public long leases() {
+        return hits.sum() + misses.sum();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long leases = leases();
+        return leases > 0 ? (double) hits.sum() / leases : 0;
+    }
+
+    public long totalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long maxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public long started() {
+        return started.sum();
+    }
+
+    public long averageStartNanos() {
+        long count = started.sum();
+        return count > 0 ? startNanos.sum() / count : 0;
+    }
+
+    public long startFailures() {
+        return startFailures.sum();
+    }
+
+    public long recycledCount() {
+        return recycled.sum();
+    }
+
+    public long unhealthyCount() {
+        return unhealthy.sum();
+    }
+
+    @Override
+    public String toString() {
+        long leases = leases();
+        return String.format("driver pool %d leases, %d%% hit rate, wait avg %d ms max %d ms, %d drivers started "
+                        + "(avg %d ms, %d failed), %d recycled, %d unhealthy",
+                leases, Math.round(hitRate() * 100),
+                leases > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos() / leases) : 0,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos()), started(),
+                TimeUnit.NANOSECONDS.toMillis(averageStartNanos()), startFailures(), recycledCount(),
+                unhealthyCount());
+    }
+}
@@ -0,0 +1,153 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mergeable latency sketch with logarithmic buckets, in the style of DDSketch.
+ *
+ * <p>A value {@code v} in microseconds goes to bucket {@code ceil(log(v) / log(GAMMA))}, so every bucket spans the
+ * same relative range and percentiles are reported within {@value #RELATIVE_ACCURACY} relative error, from one
+ * microsecond up to several hours. Buckets are fixed, so histograms recorded in different tests, classes or JVMs
+ * merge exactly by adding their counts.
+ *
+ * <p>Recording is lock-free: concurrent Dev Tools listeners increment atomic counters only.
+ */
+public final class LatencyHistogram {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    static final int BUCKETS = (int) Math.ceil(Math.log(1e11) / LOG_GAMMA) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    static int bucket(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, (int) Math.ceil(Math.log(micros) / LOG_GAMMA));
+    }
+
+    /**
+     * @return representative value of a bucket, within the relative accuracy of every value it holds
+     */
+    static long bucketValue(int bucket) {
+        return bucket == 0 ? 1 : Math.round(2 * Math.pow(GAMMA, bucket) / (GAMMA + 1));
+    }
+
+    /**
+     * Adds the counts of another histogram to this one.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long bucketCount = other.counts.get(bucket);
+            if (bucketCount > 0) {
+                counts.addAndGet(bucket, bucketCount);
+            }
+        }
+        count.add(other.count());
+        sum.add(other.sum.sum());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long min() {
+        return count() == 0 ? 0 : min.get();
+    }
+
+    public long max() {
+        return count() == 0 ? 0 : max.get();
+    }
+
+    public long mean() {
+        long total = count();
+        return total == 0 ? 0 : sum.sum() / total;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return latency in microseconds at the percentile, clamped to the recorded minimum and maximum
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.max(min(), Math.min(max(), bucketValue(bucket)));
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Encodes the histogram as {@code count sum min max bucket:count,...} listing non-empty buckets only.
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder(64)
+                .append(count()).append(' ').append(sum.sum()).append(' ')
+                .append(min()).append(' ').append(max()).append(' ');
+        boolean first = true;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long bucketCount = counts.get(bucket);
+            if (bucketCount > 0) {
+                if (!first) {
+                    encoded.append(',');
+                }
+                encoded.append(bucket).append(':').append(bucketCount);
+                first = false;
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value was not produced by {@link #encode()}
+     */
+    public static LatencyHistogram decode(String encoded) {
+        String[] fields = encoded.trim().split(" ");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Malformed latency histogram: " + encoded);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        long total = Long.parseLong(fields[0]);
+        histogram.count.add(total);
+        histogram.sum.add(Long.parseLong(fields[1]));
+        if (total > 0) {
+            histogram.min.set(Long.parseLong(fields[2]));
+            histogram.max.set(Long.parseLong(fields[3]));
+        }
+        if (fields.length > 4 && !fields[4].isEmpty()) {
+            for (String bucket : fields[4].split(",")) {
+                int separator = bucket.indexOf(':');
+                histogram.counts.addAndGet(Integer.parseInt(bucket.substring(0, separator)),
+                        Long.parseLong(bucket.substring(separator + 1)));
+            }
+        }
+        return histogram;
+    }
+}
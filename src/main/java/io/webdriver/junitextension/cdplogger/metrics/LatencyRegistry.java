@@ -0,0 +1,183 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * {@link LatencyHistogram}s of network requests keyed by endpoint.
+ *
+ * <p>An endpoint is the request method with the URL without query and fragment, where path segments looking like
+ * identifiers (numbers, UUIDs, long hex strings) are replaced by {@code {id}}, so {@code GET /users/42} and
+ * {@code GET /users/43} share a histogram. At most {@value #MAX_ENDPOINTS} endpoints are tracked, further ones are
+ * recorded under {@value #OTHER_ENDPOINTS}.
+ *
+ * <p>Registries are merged from tests into their class and from classes into the test run. A run writes its
+ * registry to a summary file with one line per endpoint, see {@link #writeTo(Path)}. Summary files of parallel
+ * forks are merged offline by {@link #main(String...)}:
+ * <pre>{@code java -cp ... io.webdriver.junitextension.cdplogger.metrics.LatencyRegistry build/cdplogger/*.tsv}</pre>
+ */
+public final class LatencyRegistry {
+
+    static final int MAX_ENDPOINTS = 256;
+    static final String OTHER_ENDPOINTS = "[other endpoints]";
+    private static final String HEADER = "# cdplogger latency v1: endpoint<TAB>count sum min max bucket:count,... "
+            + "(microseconds, relative accuracy " + LatencyHistogram.RELATIVE_ACCURACY + ")";
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}");
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public void record(String method, String url, long micros) {
+        histogram(endpoint(method, url)).record(micros);
+    }
+
+    private LatencyHistogram histogram(String endpoint) {
+        LatencyHistogram histogram = histograms.get(endpoint);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= MAX_ENDPOINTS) {
+            endpoint = OTHER_ENDPOINTS;
+        }
+        return histograms.computeIfAbsent(endpoint, key -> new LatencyHistogram());
+    }
+
+    static String endpoint(String method, String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        int pathStart = url.indexOf('/', url.indexOf("//") + 2);
+        StringBuilder endpoint = new StringBuilder(method.length() + end + 1).append(method).append(' ');
+        if (pathStart < 0 || pathStart >= end) {
+            return endpoint.append(url, 0, end).toString();
+        }
+        endpoint.append(url, 0, pathStart);
+        int segmentStart = pathStart + 1;
+        while (segmentStart <= end) {
+            int segmentEnd = url.indexOf('/', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            endpoint.append('/');
+            String segment = url.substring(segmentStart, segmentEnd);
+            endpoint.append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+            segmentStart = segmentEnd + 1;
+        }
+        return endpoint.toString();
+    }
+
+    /**
+     * Adds all histograms of another registry to this one.
+     */
+    public void merge(LatencyRegistry other) {
+        other.histograms.forEach((endpoint, histogram) -> histogram(endpoint).merge(histogram));
+    }
+
+    public boolean isEmpty() {
+        return histograms.isEmpty();
+    }
+
+    /**
+     * @return histograms sorted by endpoint
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * @return one line per endpoint with request count and p50, p95, p99 and max latency in milliseconds
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        histograms().forEach((endpoint, histogram) -> summary.append(System.lineSeparator())
+                .append('\t').append(endpoint)
+                .append(" : count ").append(histogram.count())
+                .append(", p50 ").append(millis(histogram.valueAtPercentile(50)))
+                .append(", p95 ").append(millis(histogram.valueAtPercentile(95)))
+                .append(", p99 ").append(millis(histogram.valueAtPercentile(99)))
+                .append(", max ").append(millis(histogram.max()))
+                .append(" ms"));
+        return summary.toString();
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, LatencyHistogram> entry : histograms().entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(entry.getValue().encode());
+                writer.newLine();
+            }
+        }
+    }
+
+    public static LatencyRegistry readFrom(Path file) throws IOException {
+        LatencyRegistry registry = new LatencyRegistry();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.lastIndexOf('\t');
+                if (separator < 0) {
+                    throw new IOException("Malformed latency summary line in " + file + ": " + line);
+                }
+                registry.histogram(line.substring(0, separator))
+                        .merge(LatencyHistogram.decode(line.substring(separator + 1)));
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Merges summary files, e.g. of parallel test forks, and prints the merged summary.
+     * With {@code -o <file>} the merged registry is also written to a summary file.
+     */
+    public static void main(String... args) throws IOException {
+        LatencyRegistry merged = new LatencyRegistry();
+        Path output = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("-o".equals(args[i]) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else {
+                merged.merge(readFrom(Paths.get(args[i])));
+            }
+        }
+        if (output != null) {
+            merged.writeTo(output);
+        }
+        print(merged, System.out);
+    }
+
+    private static void print(LatencyRegistry registry, PrintStream out) {
+        long requests = registry.histograms.values().stream().mapToLong(LatencyHistogram::count).sum();
+        out.println("Network latency of " + requests + " requests:" + registry.summary());
+    }
+}
@@ -0,0 +1,66 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login steps restored from a login snapshot instead of being run, of one test or of the whole run.
+ *
+ * <p>A hit restored the snapshot, and saved the time the login step took when it was captured less the time the
+ * restore took. A miss ran the login step and captured its snapshot.
+ */
+public final class LoginSnapshotStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder restoreNanos = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    /**
+     * @param loginNanos time the login step took when its snapshot was captured
+     */
+    public void hit(long restoreNanos, long loginNanos) {
+        hits.increment();
+        this.restoreNanos.add(restoreNanos);
+        savedNanos.add(Math.max(loginNanos - restoreNanos, 0));
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long restoreNanos() {
+        return restoreNanos.sum();
+    }
+
+    public long savedNanos() {
+        return savedNanos.sum();
+    }
+
+    /**
+     * @return share of login steps restored from a snapshot, 0 when there were none
+     */
+    public double hitRate() {
+        long logins = hits() + misses();
+        return logins > 0 ? (double) hits() / logins : 0;
+    }
+
+    public boolean isEmpty() {
+        return hits.sum() == 0 && misses.sum() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("login snapshot %d hits, %d misses (%d%% hit rate), restored in %d ms, %d ms saved",
+                hits(), misses(), Math.round(hitRate() * 100), TimeUnit.NANOSECONDS.toMillis(restoreNanos()),
+                TimeUnit.NANOSECONDS.toMillis(savedNanos()));
+    }
+}
@@ -0,0 +1,45 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+/**
+ * Lightweight, mutable event record stored in a slot of {@link EventRingBuffer}.
+ *
+ * <p>Instances are preallocated once per ring buffer and reused, so listeners on the Dev Tools dispatch thread only
+ * copy references into the slot fields. Formatting of the values happens later on the consumer thread.
+ */
+public final class CdpEvent {
+
+    /**
+     * Kind of Dev Tools event captured in a slot.
+     */
+    public enum Kind {
+        REQUEST,
+        RESPONSE,
+        LOG,
+        JS_EXCEPTION,
+        REQUEST_COMPLETED
+    }
+
+    public Kind kind;
+    public String testName;
+    public String method;
+    public String url;
+    public String body;
+    public int status;
+    public String text;
+    public Object stackTrace;
+    public Throwable exception;
+    public RequestRecord record;
+
+    void clear() {
+        kind = null;
+        testName = null;
+        method = null;
+        url = null;
+        body = null;
+        status = 0;
+        text = null;
+        stackTrace = null;
+        exception = null;
+        record = null;
+    }
+}
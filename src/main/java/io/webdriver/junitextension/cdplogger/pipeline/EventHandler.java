@@ -0,0 +1,24 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+/**
+ * Callback executed on the consumer thread of {@link EventPipeline} for each published event.
+ *
+ * <p>The passed event is a reused ring buffer slot and must not be retained after the call returns.
+ */
+@FunctionalInterface
+public interface EventHandler {
+
+    void onEvent(CdpEvent event);
+
+    /**
+     * Called after the events available at once were handled, e.g. to write them as one batch.
+     */
+    default void endOfBatch() {
+    }
+
+    /**
+     * Called at test boundaries once the events of the test were handled, so none of them stays buffered.
+     */
+    default void flush() {
+    }
+}
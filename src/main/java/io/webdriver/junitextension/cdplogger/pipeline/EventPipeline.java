@@ -0,0 +1,206 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves Dev Tools event handling off the Selenium dispatch thread.
+ *
+ * <p>Listeners publish captured values into a preallocated {@link EventRingBuffer} and return immediately.
+ * A dedicated consumer thread takes the events in order and passes them to an {@link EventHandler}, which does the
+ * formatting and the sink I/O. When the consumer cannot keep up the buffer fills and further events are dropped
+ * instead of delaying Dev Tools event delivery; drops are reported by {@link #droppedCount()}.
+ */
+public final class EventPipeline implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPipeline.class);
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final String name;
+    private final EventRingBuffer ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private final EventHandler handler;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean consumerParked;
+
+    public EventPipeline(String name, int capacity, WaitStrategy waitStrategy, EventHandler handler) {
+        this.name = name;
+        this.ringBuffer = new EventRingBuffer(capacity);
+        this.waitStrategy = waitStrategy;
+        this.handler = handler;
+        this.consumer = new Thread(this::consume, "cdp-logger-" + name);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public void publishRequest(String testName, String method, String url, String body) {
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            return;
+        }
+        CdpEvent event = ringBuffer.get(sequence);
+        event.kind = CdpEvent.Kind.REQUEST;
+        event.testName = testName;
+        event.method = method;
+        event.url = url;
+        event.body = body;
+        publish(sequence);
+    }
+
+    public void publishResponse(String testName, String url, int status) {
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            return;
+        }
+        CdpEvent event = ringBuffer.get(sequence);
+        event.kind = CdpEvent.Kind.RESPONSE;
+        event.testName = testName;
+        event.url = url;
+        event.status = status;
+        publish(sequence);
+    }
+
+    public void publishLog(String testName, String text, Object stackTrace) {
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            return;
+        }
+        CdpEvent event = ringBuffer.get(sequence);
+        event.kind = CdpEvent.Kind.LOG;
+        event.testName = testName;
+        event.text = text;
+        event.stackTrace = stackTrace;
+        publish(sequence);
+    }
+
+    public void publishJavaScriptException(String testName, Throwable exception) {
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            return;
+        }
+        CdpEvent event = ringBuffer.get(sequence);
+        event.kind = CdpEvent.Kind.JS_EXCEPTION;
+        event.testName = testName;
+        event.exception = exception;
+        publish(sequence);
+    }
+
+    public void publishRequestCompleted(String testName, RequestRecord record) {
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            return;
+        }
+        CdpEvent event = ringBuffer.get(sequence);
+        event.kind = CdpEvent.Kind.REQUEST_COMPLETED;
+        event.testName = testName;
+        event.url = record.url;
+        event.record = record;
+        publish(sequence);
+    }
+
+    private void publish(long sequence) {
+        ringBuffer.publish(sequence);
+        if (waitStrategy.signalsConsumer() && consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        int idleCounter = 0;
+        while (running) {
+            if (drainSafely() > 0) {
+                idleCounter = 0;
+            } else if (waitStrategy.signalsConsumer()) {
+                consumerParked = true;
+                if (!ringBuffer.hasAvailable() && running) {
+                    idleCounter = waitStrategy.idle(idleCounter);
+                }
+                consumerParked = false;
+            } else {
+                idleCounter = waitStrategy.idle(idleCounter);
+            }
+        }
+        drainSafely();
+    }
+
+    private int drainSafely() {
+        try {
+            int drained = ringBuffer.drain(handler);
+            if (drained > 0) {
+                handler.endOfBatch();
+            }
+            return drained;
+        } catch (RuntimeException e) {
+            logger.error("Dev Tools event handler of pipeline '{}' failed", name, e);
+            return 1;
+        }
+    }
+
+    /**
+     * @return number of published events waiting for the consumer
+     */
+    public long queueDepth() {
+        return ringBuffer.depth();
+    }
+
+    public long peakQueueDepth() {
+        return ringBuffer.peakDepth();
+    }
+
+    public long publishedCount() {
+        return ringBuffer.publishedCount();
+    }
+
+    public long droppedCount() {
+        return ringBuffer.droppedCount();
+    }
+
+    /**
+     * Waits until the consumer has handled every event published so far.
+     *
+     * @return {@code true} when the queue was drained within the timeout
+     */
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (ringBuffer.depth() > 0) {
+            if (System.nanoTime() - deadline >= 0 || !consumer.isAlive()) {
+                return false;
+            }
+            LockSupport.parkNanos(this, DRAIN_POLL_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting work, lets the consumer drain all published events and waits for it to finish.
+     *
+     * @return {@code true} when the consumer finished within the timeout
+     */
+    public boolean close(Duration timeout) throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(Math.max(1, timeout.toMillis()));
+        if (droppedCount() > 0) {
+            logger.warn("Dev Tools event pipeline '{}' dropped {} of {} events (capacity {}, peak queue depth {})",
+                    name, droppedCount(), publishedCount() + droppedCount(), ringBuffer.capacity(), peakQueueDepth());
+        }
+        return !consumer.isAlive();
+    }
+
+    /**
+     * Closes with a timeout of 10 s. An interrupt stops waiting for the consumer and is kept on the thread.
+     */
+    @Override
+    public void close() {
+        try {
+            close(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
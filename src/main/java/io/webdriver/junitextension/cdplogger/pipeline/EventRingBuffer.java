@@ -0,0 +1,120 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded ring buffer of preallocated {@link CdpEvent} slots.
+ *
+ * <p>Producers claim a sequence with {@link #tryClaim()}, fill the slot returned by {@link #get(long)} and make it
+ * visible with {@link #publish(long)}. A single consumer takes published slots in sequence order with
+ * {@link #drain(EventHandler)}. The buffer never blocks a producer: when all slots are in use the event is dropped
+ * and counted.
+ *
+ * <p>Selenium dispatches Dev Tools events on a pooled executor, so more than one thread may publish at a time.
+ * Claiming is therefore done with a compare-and-set and every slot tracks the sequence it was published with.
+ */
+public final class EventRingBuffer {
+
+    private final CdpEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long peakDepth;
+
+    public EventRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a positive power of two: " + capacity);
+        }
+        this.slots = new CdpEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new CdpEvent();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next free slot.
+     *
+     * @return claimed sequence or {@code -1} when the buffer is full and the event was dropped
+     */
+    public long tryClaim() {
+        long current;
+        long next;
+        do {
+            current = claimed.get();
+            next = current + 1;
+            if (next - consumed.get() > slots.length) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+        } while (!claimed.compareAndSet(current, next));
+        return next;
+    }
+
+    public CdpEvent get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Passes every published slot to the handler in sequence order and releases it for reuse.
+     *
+     * @return number of handled events
+     */
+    public int drain(EventHandler handler) {
+        long next = consumed.get() + 1;
+        long depth = claimed.get() - next + 1;
+        if (depth > peakDepth) {
+            peakDepth = depth;
+        }
+        int count = 0;
+        while (published.get((int) next & mask) == next) {
+            CdpEvent event = slots[(int) next & mask];
+            try {
+                handler.onEvent(event);
+            } finally {
+                event.clear();
+                consumed.lazySet(next);
+            }
+            next++;
+            count++;
+        }
+        return count;
+    }
+
+    public boolean hasAvailable() {
+        long next = consumed.get() + 1;
+        return published.get((int) next & mask) == next;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return number of claimed events not yet handled by the consumer
+     */
+    public long depth() {
+        return claimed.get() - consumed.get();
+    }
+
+    public long peakDepth() {
+        return peakDepth;
+    }
+
+    public long publishedCount() {
+        return claimed.get() + 1;
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+}
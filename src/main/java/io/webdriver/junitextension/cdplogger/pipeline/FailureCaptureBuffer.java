@@ -0,0 +1,137 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+import java.util.ArrayDeque;
+
+/**
+ * Per-test in-memory buffer of captured events, kept until the outcome of the test is known.
+ *
+ * <p>The buffer is used as the {@link EventHandler} of a pipeline in {@code on-failure} capture mode. Each event is
+ * copied into a compact immutable record holding the captured references only; nothing is formatted. The estimated
+ * size of the retained records is limited by a byte budget and the oldest records are evicted when it is exceeded,
+ * so a failing test keeps its most recent activity.
+ *
+ * <p>{@link #flushTo(EventHandler)} replays the records into another handler and {@link #discard()} drops them by
+ * releasing the whole buffer at once.
+ */
+public final class FailureCaptureBuffer implements EventHandler {
+
+    private static final int RECORD_OVERHEAD_BYTES = 64;
+    private static final int OBJECT_REFERENCE_BYTES = 256;
+    private static final int REQUEST_RECORD_BYTES = 200;
+
+    private final long maxBytes;
+    private ArrayDeque<CapturedEvent> events = new ArrayDeque<>();
+    private long retainedBytes;
+    private long evictedCount;
+
+    public FailureCaptureBuffer(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Capture buffer budget must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public synchronized void onEvent(CdpEvent event) {
+        if (events == null) {
+            return;
+        }
+        CapturedEvent captured = new CapturedEvent(event);
+        events.addLast(captured);
+        retainedBytes += captured.estimatedBytes;
+        while (retainedBytes > maxBytes && !events.isEmpty()) {
+            retainedBytes -= events.removeFirst().estimatedBytes;
+            evictedCount++;
+        }
+    }
+
+    /**
+     * Replays retained events in capture order as one batch of the target and empties the buffer.
+     *
+     * @return number of replayed events
+     */
+    public synchronized int flushTo(EventHandler target) {
+        if (events == null) {
+            return 0;
+        }
+        ArrayDeque<CapturedEvent> flushed = events;
+        events = null;
+        CdpEvent event = new CdpEvent();
+        for (CapturedEvent captured : flushed) {
+            captured.copyTo(event);
+            target.onEvent(event);
+            event.clear();
+        }
+        target.endOfBatch();
+        return flushed.size();
+    }
+
+    /**
+     * Drops all retained events without visiting them.
+     */
+    public synchronized void discard() {
+        events = null;
+    }
+
+    public synchronized int size() {
+        return events == null ? 0 : events.size();
+    }
+
+    public synchronized long retainedBytes() {
+        return events == null ? 0 : retainedBytes;
+    }
+
+    public synchronized long evictedCount() {
+        return evictedCount;
+    }
+
+    private static final class CapturedEvent {
+
+        private final CdpEvent.Kind kind;
+        private final String testName;
+        private final String method;
+        private final String url;
+        private final String body;
+        private final int status;
+        private final String text;
+        private final Object stackTrace;
+        private final Throwable exception;
+        private final RequestRecord record;
+        private final int estimatedBytes;
+
+        private CapturedEvent(CdpEvent event) {
+            this.kind = event.kind;
+            this.testName = event.testName;
+            this.method = event.method;
+            this.url = event.url;
+            this.body = event.body;
+            this.status = event.status;
+            this.text = event.text;
+            this.stackTrace = event.stackTrace;
+            this.exception = event.exception;
+            this.record = event.record;
+            this.estimatedBytes = RECORD_OVERHEAD_BYTES
+                    + chars(method) + chars(url) + chars(body) + chars(text)
+                    + (stackTrace != null ? OBJECT_REFERENCE_BYTES : 0)
+                    + (exception != null ? OBJECT_REFERENCE_BYTES : 0)
+                    + (record != null ? REQUEST_RECORD_BYTES + chars(record.url) : 0);
+        }
+
+        private static int chars(String value) {
+            return value == null ? 0 : 2 * value.length();
+        }
+
+        private void copyTo(CdpEvent event) {
+            event.kind = kind;
+            event.testName = testName;
+            event.method = method;
+            event.url = url;
+            event.body = body;
+            event.status = status;
+            event.text = text;
+            event.stackTrace = stackTrace;
+            event.exception = exception;
+            event.record = record;
+        }
+    }
+}
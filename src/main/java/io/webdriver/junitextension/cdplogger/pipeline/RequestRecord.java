@@ -0,0 +1,86 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+/**
+ * One network request correlated from its {@code Network.requestWillBeSent}, {@code Network.responseReceived} and
+ * {@code Network.loadingFinished} or {@code Network.loadingFailed} events.
+ *
+ * <p>The fields are written while the request is in flight and only read once it is completed and published as a
+ * {@link CdpEvent.Kind#REQUEST_COMPLETED} event. Timestamps are the monotonic CDP timestamps in seconds. The
+ * {@code ResourceTiming} offsets are in milliseconds relative to {@link #requestTime} and are {@code -1} for phases
+ * the request did not go through, e.g. DNS lookup on a reused connection.
+ */
+public final class RequestRecord {
+
+    public final String requestId;
+    public String method;
+    public String url;
+    public String resourceType;
+    public int status;
+    public double startTime;
+    public double endTime;
+    public long encodedDataLength;
+    public String errorText;
+
+    public double requestTime = -1;
+    public double dnsStart = -1;
+    public double dnsEnd = -1;
+    public double connectStart = -1;
+    public double connectEnd = -1;
+    public double sslStart = -1;
+    public double sslEnd = -1;
+    public double sendStart = -1;
+    public double sendEnd = -1;
+    public double receiveHeadersEnd = -1;
+
+    public RequestRecord(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public boolean failed() {
+        return errorText != null;
+    }
+
+    public boolean hasTiming() {
+        return requestTime >= 0;
+    }
+
+    public double durationMillis() {
+        return (endTime - startTime) * 1000;
+    }
+
+    public double dnsMillis() {
+        return phase(dnsStart, dnsEnd);
+    }
+
+    public double connectMillis() {
+        return phase(connectStart, connectEnd);
+    }
+
+    public double sslMillis() {
+        return phase(sslStart, sslEnd);
+    }
+
+    public double sendMillis() {
+        return phase(sendStart, sendEnd);
+    }
+
+    /**
+     * @return time to first byte: from the request being sent until the response headers were received
+     */
+    public double waitMillis() {
+        return phase(sendEnd, receiveHeadersEnd);
+    }
+
+    /**
+     * @return time from the response headers until the request completed
+     */
+    public double downloadMillis() {
+        return hasTiming() && receiveHeadersEnd >= 0
+                ? Math.max(0, (endTime - requestTime) * 1000 - receiveHeadersEnd)
+                : 0;
+    }
+
+    private static double phase(double start, double end) {
+        return start >= 0 && end >= start ? end - start : 0;
+    }
+}
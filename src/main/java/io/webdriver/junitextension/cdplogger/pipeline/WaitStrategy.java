@@ -0,0 +1,80 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Defines how the {@link EventPipeline} consumer thread waits while the ring buffer is empty.
+ *
+ * <p>{@link #BUSY_SPIN} and {@link #YIELDING} give the lowest latency at the cost of a busy CPU core,
+ * {@link #SLEEPING} backs off progressively and {@link #BLOCKING} parks the consumer until a producer signals it.
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter + 1;
+        }
+    },
+
+    YIELDING {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+    },
+
+    SLEEPING {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, SLEEP_NANOS);
+            }
+            return counter + 1;
+        }
+    },
+
+    BLOCKING {
+        @Override
+        int idle(int counter) {
+            LockSupport.parkNanos(this, MAX_BLOCK_NANOS);
+            return counter + 1;
+        }
+
+        @Override
+        boolean signalsConsumer() {
+            return true;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long MAX_BLOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Waits once while no events are available.
+     *
+     * @param counter number of consecutive idle rounds so far
+     * @return updated idle counter
+     */
+    abstract int idle(int counter);
+
+    /**
+     * @return {@code true} when producers have to wake up the parked consumer
+     */
+    boolean signalsConsumer() {
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package io.webdriver.junitextension.cdplogger.pool;
+
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+/**
+ * Starts, checks and quits the drivers of a {@link DriverPool}.
+ *
+ * <p>Implementations configured with {@code cdplogger.pool.driverFactory} need a public no-argument constructor.
+ */
+@FunctionalInterface
+public interface DriverFactory {
+
+    /**
+     * Launches a local Chrome with default options.
+     */
+    DriverFactory CHROME = ChromeDriver::new;
+
+    /**
+     * Starts a new driver with its browser. Called on a background thread of the pool.
+     */
+    ChromiumDriver create() throws Exception;
+
+    /**
+     * Checks a pooled driver before it is handed to a test.
+     *
+     * @return whether the browser still answers WebDriver commands
+     */
+    default boolean isHealthy(ChromiumDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Quits a driver the pool retires.
+     */
+    default void destroy(ChromiumDriver driver) {
+        driver.quit();
+    }
+}
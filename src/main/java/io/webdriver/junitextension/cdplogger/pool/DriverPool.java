@@ -0,0 +1,223 @@
+package io.webdriver.junitextension.cdplogger.pool;
+
+import io.webdriver.junitextension.cdplogger.metrics.DriverPoolStats;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Pool of drivers started in the background, so tests lease a running browser instead of launching one.
+ *
+ * <p>The pool holds up to {@code size} drivers, idle, starting or leased. Drivers are started on background threads
+ * when the pool opens and whenever a driver is retired, while tests run. A started driver is warmed up, e.g. its
+ * Dev Tools session attached, before it is offered to tests. A released driver is warmed up again on a background
+ * thread before it goes back to the idle drivers, as the test may have detached what the warm-up prepared.
+ *
+ * <p>A driver is checked with {@link DriverFactory#isHealthy(ChromiumDriver)} before every lease and retired when
+ * the check fails. It is also retired when released after {@code maxUses} leases or when the test reports it as not
+ * reusable, and a replacement is started right away. Retired drivers are quit in the background.
+ *
+ * <p>One pool is kept in the root {@link ExtensionContext.Store}, which JUnit closes at the end of the test run,
+ * quitting the idle drivers. Drivers still leased then are quit when released.
+ */
+public final class DriverPool implements ExtensionContext.Store.CloseableResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+    private static final long CLOSE_GRACE_SECONDS = 30;
+
+    private final DriverFactory factory;
+    private final int size;
+    private final int maxUses;
+    private final Consumer<ChromiumDriver> warmUp;
+    private final ExecutorService executor;
+    private final BlockingQueue<PooledDriver> idle = new LinkedBlockingQueue<>();
+    private final DriverPoolStats stats = new DriverPoolStats();
+    private int drivers;
+    private volatile boolean closed;
+
+    /**
+     * Opens the pool and starts its drivers in the background.
+     *
+     * @param warmUp prepares a started or released driver before it is offered to tests
+     */
+    public DriverPool(DriverFactory factory, int size, int maxUses, Consumer<ChromiumDriver> warmUp) {
+        if (size <= 0 || maxUses <= 0) {
+            throw new IllegalArgumentException(String.format("Driver pool size and max uses must be positive: %d, %d",
+                    size, maxUses));
+        }
+        this.factory = factory;
+        this.size = size;
+        this.maxUses = maxUses;
+        this.warmUp = warmUp;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cdp-logger-driver-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    /**
+     * Leases a healthy driver, waiting for one to start when none is idle.
+     *
+     * @throws TimeoutException when no driver became available within the timeout
+     */
+    public PooledDriver acquire(Duration timeout) throws InterruptedException, TimeoutException {
+        if (closed) {
+            throw new IllegalStateException("Driver pool is closed");
+        }
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        boolean hit = true;
+        while (true) {
+            PooledDriver pooled = idle.poll();
+            if (pooled == null) {
+                hit = false;
+                refill();
+                pooled = idle.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (pooled == null) {
+                    throw new TimeoutException(String.format("No pooled driver became available within %d ms, "
+                            + "%d failed to start", timeout.toMillis(), stats.startFailures()));
+                }
+            }
+            if (factory.isHealthy(pooled.driver())) {
+                pooled.leased();
+                stats.leased(hit, System.nanoTime() - start);
+                return pooled;
+            }
+            stats.unhealthy();
+            retire(pooled);
+        }
+    }
+
+    /**
+     * Returns a leased driver to the pool once it is warmed up again, or retires it after its last use.
+     *
+     * @param reusable whether the test left the browser in a state the next test can use
+     */
+    public void release(PooledDriver pooled, boolean reusable) {
+        if (closed || !reusable || pooled.uses() >= maxUses) {
+            if (pooled.uses() >= maxUses) {
+                stats.recycled();
+            }
+            retire(pooled);
+            return;
+        }
+        try {
+            executor.execute(() -> rewarm(pooled));
+        } catch (RejectedExecutionException e) {
+            retire(pooled);
+        }
+    }
+
+    private void rewarm(PooledDriver pooled) {
+        try {
+            warmUp.accept(pooled.driver());
+        } catch (Exception e) {
+            stats.unhealthy();
+            logger.warn("Warming up a released driver failed", e);
+            retire(pooled);
+            return;
+        }
+        if (closed) {
+            retire(pooled);
+        } else {
+            idle.add(pooled);
+        }
+    }
+
+    public DriverPoolStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return number of started drivers waiting to be leased
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    private void retire(PooledDriver pooled) {
+        synchronized (this) {
+            drivers--;
+        }
+        try {
+            executor.execute(() -> destroy(pooled.driver()));
+        } catch (RejectedExecutionException e) {
+            destroy(pooled.driver());
+        }
+        refill();
+    }
+
+    /**
+     * Starts drivers in the background until the pool holds its size.
+     */
+    private synchronized void refill() {
+        while (!closed && drivers < size) {
+            drivers++;
+            executor.execute(this::start);
+        }
+    }
+
+    private void start() {
+        long start = System.nanoTime();
+        ChromiumDriver driver;
+        try {
+            driver = factory.create();
+            warmUp.accept(driver);
+        } catch (Exception e) {
+            synchronized (this) {
+                drivers--;
+            }
+            stats.startFailed();
+            logger.warn("Starting a pooled driver failed", e);
+            return;
+        }
+        stats.started(System.nanoTime() - start);
+        if (closed) {
+            destroy(driver);
+        } else {
+            idle.add(new PooledDriver(driver));
+        }
+    }
+
+    private void destroy(ChromiumDriver driver) {
+        try {
+            factory.destroy(driver);
+        } catch (RuntimeException e) {
+            logger.debug("Quitting a pooled driver failed", e);
+        }
+    }
+
+    /**
+     * Quits the idle drivers and waits for drivers still starting.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        PooledDriver pooled;
+        while ((pooled = idle.poll()) != null) {
+            PooledDriver retired = pooled;
+            executor.execute(() -> destroy(retired.driver()));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(CLOSE_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            logger.warn("Pooled drivers still starting or quitting after {} s", CLOSE_GRACE_SECONDS);
+        }
+        while ((pooled = idle.poll()) != null) {
+            destroy(pooled.driver());
+        }
+        logger.info("{}", stats);
+    }
+}
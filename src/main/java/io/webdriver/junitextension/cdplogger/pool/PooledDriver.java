@@ -0,0 +1,31 @@
+package io.webdriver.junitextension.cdplogger.pool;
+
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+/**
+ * Driver leased from a {@link DriverPool}, to be released back to it after the test.
+ */
+public final class PooledDriver {
+
+    private final ChromiumDriver driver;
+    private int uses;
+
+    PooledDriver(ChromiumDriver driver) {
+        this.driver = driver;
+    }
+
+    public ChromiumDriver driver() {
+        return driver;
+    }
+
+    /**
+     * @return number of tests the driver was leased to, including the current one
+     */
+    public synchronized int uses() {
+        return uses;
+    }
+
+    synchronized void leased() {
+        uses++;
+    }
+}
@@ -0,0 +1,65 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handler of the events of one session, copying them into records and writing them to the {@link EventSinks} in
+ * batches.
+ *
+ * <p>Events no sink writes, e.g. below the level of the logger, are dropped before they are copied. A batch is
+ * written when the consumer drained the events available at once, when it reaches the batch size
+ * and when a test ends. Under load a single write carries many events, while an idle session still writes each event
+ * right after it was handled.
+ */
+public final class BatchingEventHandler implements EventHandler {
+
+    private final EventSinks sinks;
+    private final int batchSize;
+    private final List<EventRecord> batch;
+
+    public BatchingEventHandler(EventSinks sinks, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(Math.min(batchSize, 64));
+    }
+
+    @Override
+    public synchronized void onEvent(CdpEvent event) {
+        if (!sinks.isEnabled(event)) {
+            return;
+        }
+        batch.add(EventRecord.of(event, System.currentTimeMillis()));
+        if (batch.size() >= batchSize) {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public synchronized void endOfBatch() {
+        writeBatch();
+    }
+
+    @Override
+    public synchronized void flush() {
+        writeBatch();
+        sinks.flush();
+    }
+
+    private void writeBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            sinks.write(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+}
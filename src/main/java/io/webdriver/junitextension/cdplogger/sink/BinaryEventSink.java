@@ -0,0 +1,209 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sink {@value #NAME}: appends the events in a compact binary form to {@code events-<pid>.cdpev} in the sink
+ * directory, for runs producing more events than text can keep up with. Read them back with {@link #read(Path)}.
+ *
+ * <p>Every time the sink is opened it writes a header, the magic bytes {@code CDPE} and a version byte. Each event
+ * follows as its kind ordinal, time, strings as an {@code int} UTF-8 length ({@code -1} for null) and bytes, the
+ * status, and a flag followed by the fields of its completed request. Numbers are big-endian as written by
+ * {@link DataOutputStream}. JavaScript exceptions keep their message only.
+ */
+public final class BinaryEventSink implements EventSink {
+
+    public static final String NAME = "binary";
+    static final String FILE_SUFFIX = ".cdpev";
+    static final byte[] MAGIC = {'C', 'D', 'P', 'E'};
+    static final byte VERSION = 1;
+
+    private static final CdpEvent.Kind[] KINDS = CdpEvent.Kind.values();
+
+    private Path file;
+    private DataOutputStream out;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        file = directory.resolve("events-" + ProcessHandle.current().pid() + FILE_SUFFIX);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), 64 * 1024));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    /**
+     * @return file the events are written to, null before the sink was opened
+     */
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void write(List<EventRecord> batch) throws IOException {
+        for (EventRecord event : batch) {
+            out.writeByte(event.kind.ordinal());
+            out.writeLong(event.timeMillis);
+            writeString(event.testName);
+            writeString(event.method);
+            writeString(event.url);
+            writeString(event.body);
+            out.writeInt(event.status);
+            writeString(event.text);
+            writeString(event.stackTrace);
+            out.writeBoolean(event.record != null);
+            if (event.record != null) {
+                writeRequest(event.record);
+            }
+        }
+    }
+
+    private void writeRequest(RequestRecord record) throws IOException {
+        writeString(record.requestId);
+        writeString(record.method);
+        writeString(record.url);
+        writeString(record.resourceType);
+        out.writeInt(record.status);
+        out.writeDouble(record.startTime);
+        out.writeDouble(record.endTime);
+        out.writeLong(record.encodedDataLength);
+        writeString(record.errorText);
+        out.writeDouble(record.requestTime);
+        out.writeDouble(record.dnsStart);
+        out.writeDouble(record.dnsEnd);
+        out.writeDouble(record.connectStart);
+        out.writeDouble(record.connectEnd);
+        out.writeDouble(record.sslStart);
+        out.writeDouble(record.sslEnd);
+        out.writeDouble(record.sendStart);
+        out.writeDouble(record.sendEnd);
+        out.writeDouble(record.receiveHeadersEnd);
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the events of a file written by this sink, of all the times it was opened.
+     *
+     * @throws IOException if the file is not such a file or ends within an event
+     */
+    public static List<EventRecord> read(Path file) throws IOException {
+        List<EventRecord> events = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            boolean headerRead = false;
+            for (int first = in.read(); first != -1; first = in.read()) {
+                if (first == MAGIC[0]) {
+                    readHeader(in, file);
+                    headerRead = true;
+                } else if (!headerRead || first >= KINDS.length) {
+                    throw new IOException("Not an event file: " + file);
+                } else {
+                    events.add(readEvent(in, KINDS[first]));
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Event file ends within an event: " + file, e);
+        }
+        return events;
+    }
+
+    private static void readHeader(DataInputStream in, Path file) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        magic[0] = MAGIC[0];
+        in.readFully(magic, 1, MAGIC.length - 1);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an event file: " + file);
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of event file " + file);
+        }
+    }
+
+    private static EventRecord readEvent(DataInputStream in, CdpEvent.Kind kind) throws IOException {
+        long timeMillis = in.readLong();
+        String testName = readString(in);
+        String method = readString(in);
+        String url = readString(in);
+        String body = readString(in);
+        int status = in.readInt();
+        String text = readString(in);
+        String stackTrace = readString(in);
+        RequestRecord record = in.readBoolean() ? readRequest(in) : null;
+        return new EventRecord(kind, timeMillis, testName, method, url, body, status, text, stackTrace, null, record);
+    }
+
+    private static RequestRecord readRequest(DataInputStream in) throws IOException {
+        RequestRecord record = new RequestRecord(readString(in));
+        record.method = readString(in);
+        record.url = readString(in);
+        record.resourceType = readString(in);
+        record.status = in.readInt();
+        record.startTime = in.readDouble();
+        record.endTime = in.readDouble();
+        record.encodedDataLength = in.readLong();
+        record.errorText = readString(in);
+        record.requestTime = in.readDouble();
+        record.dnsStart = in.readDouble();
+        record.dnsEnd = in.readDouble();
+        record.connectStart = in.readDouble();
+        record.connectEnd = in.readDouble();
+        record.sslStart = in.readDouble();
+        record.sslEnd = in.readDouble();
+        record.sendStart = in.readDouble();
+        record.sendEnd = in.readDouble();
+        record.receiveHeadersEnd = in.readDouble();
+        return record;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+
+/**
+ * Immutable copy of a {@link CdpEvent} written to the {@link EventSink}s.
+ *
+ * <p>Ring buffer slots are reused once the consumer handled them, so events are copied into records before they are
+ * batched. Values stay structured, each sink decides how to format them.
+ */
+public final class EventRecord {
+
+    public final CdpEvent.Kind kind;
+    /**
+     * Time the consumer of the pipeline took the event, in milliseconds since the epoch.
+     */
+    public final long timeMillis;
+    public final String testName;
+    public final String method;
+    public final String url;
+    public final String body;
+    public final int status;
+    /**
+     * Text of a log entry, or message of a JavaScript exception.
+     */
+    public final String text;
+    public final String stackTrace;
+    /**
+     * JavaScript exception as thrown by Selenium, only present in records of this process.
+     */
+    public final Throwable exception;
+    /**
+     * Completed request, not modified any more once it was published.
+     */
+    public final RequestRecord record;
+
+    EventRecord(CdpEvent.Kind kind, long timeMillis, String testName, String method, String url, String body,
+                int status, String text, String stackTrace, Throwable exception, RequestRecord record) {
+        this.kind = kind;
+        this.timeMillis = timeMillis;
+        this.testName = testName;
+        this.method = method;
+        this.url = url;
+        this.body = body;
+        this.status = status;
+        this.text = text;
+        this.stackTrace = stackTrace;
+        this.exception = exception;
+        this.record = record;
+    }
+
+    public static EventRecord of(CdpEvent event, long timeMillis) {
+        String text = event.kind == CdpEvent.Kind.JS_EXCEPTION && event.exception != null
+                ? event.exception.getMessage()
+                : event.text;
+        return new EventRecord(event.kind, timeMillis, event.testName, event.method, event.url, event.body,
+                event.status, text, event.stackTrace != null ? String.valueOf(event.stackTrace) : null,
+                event.exception, event.record);
+    }
+
+    /**
+     * @return whether the event is logged as an error: a failed response, a log entry or a JavaScript exception
+     */
+    public boolean isError() {
+        switch (kind) {
+            case RESPONSE:
+                return status >= 400;
+            case LOG:
+            case JS_EXCEPTION:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Destination of the Dev Tools events of all sessions, discovered with {@link java.util.ServiceLoader} and selected
+ * by its {@link #name()} with the {@code cdplogger.sinks} parameter.
+ *
+ * <p>A sink receives the events in batches of {@link EventRecord}s, in the order each session handled them. Batches
+ * of concurrent sessions interleave, {@link EventSinks} never calls a sink from two threads at once. Implementations
+ * are registered in {@code META-INF/services/io.webdriver.junitextension.cdplogger.sink.EventSink} and need a public
+ * no-argument constructor; one instance serves the whole test run.
+ */
+public interface EventSink extends AutoCloseable {
+
+    /**
+     * @return name the sink is selected by, e.g. {@code json-lines}
+     */
+    String name();
+
+    /**
+     * Prepares the sink before the first batch, e.g. opens its file.
+     *
+     * @param directory directory of the {@code cdplogger.sink.dir} parameter for sinks writing files
+     */
+    default void open(Path directory) throws IOException {
+    }
+
+    /**
+     * Tells whether the sink writes the event at all, e.g. by the level it would be logged at. Checked before the
+     * event is copied into a record, so events no sink writes cost nothing further. Sinks are called from the consumer
+     * threads of concurrent sessions here, the check must be thread-safe.
+     */
+    default boolean isEnabled(CdpEvent event) {
+        return true;
+    }
+
+    /**
+     * Writes a batch. The list must not be retained after the call returns, its records may be.
+     */
+    void write(List<EventRecord> batch) throws IOException;
+
+    /**
+     * Makes the written batches durable or visible. Called when a test ends, so the events of a test are out before
+     * the next one begins.
+     */
+    default void flush() throws IOException {
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,116 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link EventSink}s selected for a test run, shared by all of its sessions.
+ *
+ * <p>A sink failing to write, flush or close is logged and does not keep the other sinks from receiving the events.
+ */
+public final class EventSinks implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSinks.class);
+
+    private final List<EventSink> sinks;
+
+    EventSinks(List<EventSink> sinks) {
+        this.sinks = List.copyOf(sinks);
+    }
+
+    /**
+     * Discovers the sinks registered with {@link ServiceLoader} and opens the ones with the given names.
+     *
+     * @throws IllegalArgumentException if no sink is registered under one of the names
+     */
+    public static EventSinks load(List<String> names, Path directory) throws IOException {
+        Map<String, EventSink> available = new LinkedHashMap<>();
+        for (EventSink sink : ServiceLoader.load(EventSink.class)) {
+            available.putIfAbsent(sink.name(), sink);
+        }
+        List<EventSink> selected = new ArrayList<>();
+        for (String name : names) {
+            EventSink sink = available.get(name);
+            if (sink == null) {
+                throw new IllegalArgumentException("Unknown event sink '" + name + "', available sinks: "
+                        + available.keySet());
+            }
+            if (!selected.contains(sink)) {
+                selected.add(sink);
+            }
+        }
+        EventSinks sinks = new EventSinks(selected);
+        try {
+            for (EventSink sink : selected) {
+                sink.open(directory);
+            }
+        } catch (IOException | RuntimeException e) {
+            sinks.close();
+            throw e;
+        }
+        return sinks;
+    }
+
+    public List<String> names() {
+        return sinks.stream().map(EventSink::name).collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * @return whether any of the sinks writes the event
+     */
+    public boolean isEnabled(CdpEvent event) {
+        for (int i = 0; i < sinks.size(); i++) {
+            if (sinks.get(i).isEnabled(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void write(List<EventRecord> batch) {
+        for (EventSink sink : sinks) {
+            try {
+                synchronized (sink) {
+                    sink.write(batch);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Event sink '{}' failed to write {} events", sink.name(), batch.size(), e);
+            }
+        }
+    }
+
+    public void flush() {
+        for (EventSink sink : sinks) {
+            try {
+                synchronized (sink) {
+                    sink.flush();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Event sink '{}' failed to flush", sink.name(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (EventSink sink : sinks) {
+            try {
+                synchronized (sink) {
+                    sink.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Event sink '{}' failed to close", sink.name(), e);
+            }
+        }
+    }
+}
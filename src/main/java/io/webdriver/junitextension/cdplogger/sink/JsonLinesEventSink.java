@@ -0,0 +1,156 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink {@value #NAME}: appends one JSON object per event to {@code events-<pid>.jsonl} in the sink directory, e.g.
+ * {@code {"time":1634300000000,"test":"login","kind":"RESPONSE","url":"https://...","status":200}}.
+ *
+ * <p>Completed requests carry their duration, size and timing phases in milliseconds. Each fork writes its own file.
+ * The JSON is written directly instead of through maps and {@link org.openqa.selenium.json.JsonOutput}, so an event
+ * costs a few appends to a reused buffer, copied to the writer without an intermediate string.
+ */
+public final class JsonLinesEventSink implements EventSink {
+
+    public static final String NAME = "json-lines";
+    static final String FILE_SUFFIX = ".jsonl";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder line = new StringBuilder(512);
+    private char[] chars = new char[512];
+    private Path file;
+    private Writer writer;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        file = directory.resolve("events-" + ProcessHandle.current().pid() + FILE_SUFFIX);
+        writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    /**
+     * @return file the events are written to, null before the sink was opened
+     */
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void write(List<EventRecord> batch) throws IOException {
+        for (EventRecord event : batch) {
+            line.setLength(0);
+            append(line, event);
+            line.append('\n');
+            if (chars.length < line.length()) {
+                chars = new char[Math.max(line.length(), 2 * chars.length)];
+            }
+            line.getChars(0, line.length(), chars, 0);
+            writer.write(chars, 0, line.length());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    static void append(StringBuilder json, EventRecord event) {
+        json.append("{\"time\":").append(event.timeMillis);
+        field(json, "test", event.testName);
+        field(json, "kind", event.kind.name());
+        field(json, "method", event.method);
+        field(json, "url", event.url);
+        field(json, "body", event.body);
+        if (event.status != 0) {
+            json.append(",\"status\":").append(event.status);
+        }
+        field(json, "text", event.text);
+        field(json, "stackTrace", event.stackTrace);
+        if (event.record != null) {
+            appendRequest(json, event.record);
+        }
+        json.append('}');
+    }
+
+    private static void appendRequest(StringBuilder json, RequestRecord record) {
+        json.append(",\"request\":{\"id\":");
+        string(json, record.requestId);
+        field(json, "method", record.method);
+        field(json, "url", record.url);
+        field(json, "type", record.resourceType);
+        json.append(",\"status\":").append(record.status);
+        field(json, "error", record.errorText);
+        Slf4jEventSink.appendMillis(json.append(",\"durationMs\":"), record.durationMillis())
+                .append(",\"bytes\":").append(record.encodedDataLength);
+        if (record.hasTiming()) {
+            Slf4jEventSink.appendMillis(json.append(",\"timingMs\":{\"dns\":"), record.dnsMillis());
+            Slf4jEventSink.appendMillis(json.append(",\"connect\":"), record.connectMillis());
+            Slf4jEventSink.appendMillis(json.append(",\"ssl\":"), record.sslMillis());
+            Slf4jEventSink.appendMillis(json.append(",\"send\":"), record.sendMillis());
+            Slf4jEventSink.appendMillis(json.append(",\"wait\":"), record.waitMillis());
+            Slf4jEventSink.appendMillis(json.append(",\"download\":"), record.downloadMillis()).append('}');
+        }
+        json.append('}');
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value != null) {
+            json.append(",\"").append(name).append("\":");
+            string(json, value);
+        }
+    }
+
+    private static void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,207 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.DevToolsExtension;
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Sink {@value #NAME}, the default: formats the events and writes them to the SLF4J logger of
+ * {@link DevToolsExtension}, errors highlighted in green.
+ *
+ * <p>The level of an event is checked before anything is copied or formatted, so events of disabled levels cost no
+ * allocation. Enabled events are formatted into a reused buffer from constant segments, with statuses appended as
+ * primitives, and passed to the logger as one message instead of a pattern with boxed arguments.
+ */
+public final class Slf4jEventSink implements EventSink {
+
+    public static final String NAME = "slf4j";
+
+    private static final Logger logger = LoggerFactory.getLogger(DevToolsExtension.class);
+    private static final String ANSI_GREEN = "\u001B[32m";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String REQUEST = "] Request with URL : ";
+    private static final String WITH_BODY = " : With body : ";
+    private static final String RESPONSE = " : Response with URL : ";
+    private static final String WITH_STATUS = " : With status code : ";
+    private static final String LOG_ENTRY = " : LOG.ERROR] Entry added with text: ";
+    private static final String LOG_STACK_TRACE = " : LOG.ERROR]\tWith stack trace : ";
+    private static final String JS_EXCEPTION = "] : Java script exception occurred : ";
+    private static final String COMPLETED = "] Completed request with URL : ";
+    private static final String FAILED = " : Failed : ";
+    private static final String FETCH = "Fetch";
+    private static final String XHR = "XHR";
+
+    private final StringBuilder message = new StringBuilder(256);
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled(CdpEvent event) {
+        switch (event.kind) {
+            case REQUEST:
+                return logger.isInfoEnabled();
+            case RESPONSE:
+                return event.status >= 400 ? logger.isErrorEnabled() : logger.isInfoEnabled();
+            case LOG:
+            case JS_EXCEPTION:
+                return logger.isErrorEnabled();
+            case REQUEST_COMPLETED:
+                return isEnabled(event.record);
+            default:
+                return true;
+        }
+    }
+
+    private static boolean isEnabled(RequestRecord record) {
+        return FETCH.equals(record.resourceType) || XHR.equals(record.resourceType)
+                ? logger.isInfoEnabled()
+                : logger.isDebugEnabled();
+    }
+
+    @Override
+    public void write(List<EventRecord> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            EventRecord event = batch.get(i);
+            switch (event.kind) {
+                case REQUEST:
+                    logRequest(event);
+                    break;
+                case RESPONSE:
+                    logResponse(event);
+                    break;
+                case LOG:
+                    logEntry(event);
+                    break;
+                case JS_EXCEPTION:
+                    logJavaScriptException(event);
+                    break;
+                case REQUEST_COMPLETED:
+                    logRequestCompleted(event);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event kind: " + event.kind);
+            }
+        }
+    }
+
+    private void logRequest(EventRecord event) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder message = start(event.testName).append(" : [").append(event.method).append(REQUEST)
+                .append(event.url);
+        if (event.body != null) {
+            message.append(WITH_BODY).append(event.body);
+        }
+        logger.info(message.toString());
+    }
+
+    private void logResponse(EventRecord event) {
+        if (event.status >= 400) {
+            if (logger.isErrorEnabled()) {
+                logger.error(startError(event.testName).append(']').append(RESPONSE).append(event.url)
+                        .append(WITH_STATUS).append(event.status).append(ANSI_RESET).toString());
+            }
+        } else if (logger.isInfoEnabled()) {
+            logger.info(start(event.testName).append(RESPONSE).append(event.url).append(WITH_STATUS)
+                    .append(event.status).toString());
+        }
+    }
+
+    private void logEntry(EventRecord event) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        logger.error(startError(event.testName).append(LOG_ENTRY).append(event.text).append(ANSI_RESET).toString());
+        if (event.stackTrace != null) {
+            logger.error(startError(event.testName).append(LOG_STACK_TRACE).append(event.stackTrace)
+                    .append(ANSI_RESET).toString());
+        }
+    }
+
+    private void logJavaScriptException(EventRecord event) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        logger.error(startError(event.testName).append(JS_EXCEPTION).append(event.text).append(ANSI_RESET)
+                .toString());
+        if (event.exception != null) {
+            event.exception.printStackTrace();
+        }
+    }
+
+    private void logRequestCompleted(EventRecord event) {
+        RequestRecord record = event.record;
+        if (!isEnabled(record)) {
+            return;
+        }
+        String summary = appendSummary(start(event.testName).append(" : "), record).toString();
+        if (FETCH.equals(record.resourceType) || XHR.equals(record.resourceType)) {
+            logger.info(summary);
+        } else {
+            logger.debug(summary);
+        }
+    }
+
+    /**
+     * @return the reused message buffer holding {@code [testName]}
+     */
+    private StringBuilder start(String testName) {
+        message.setLength(0);
+        return message.append('[').append(testName).append(']');
+    }
+
+    /**
+     * @return the reused message buffer holding the highlighting and {@code [testName}
+     */
+    private StringBuilder startError(String testName) {
+        message.setLength(0);
+        return message.append(ANSI_GREEN).append('[').append(testName);
+    }
+
+    /**
+     * @return one line describing a completed request: status or error, duration, size and timing phases
+     */
+    public static String summary(RequestRecord record) {
+        return appendSummary(new StringBuilder(record.url.length() + 160), record).toString();
+    }
+
+    static StringBuilder appendSummary(StringBuilder summary, RequestRecord record) {
+        summary.append('[').append(record.method).append(COMPLETED).append(record.url);
+        if (record.failed()) {
+            summary.append(FAILED).append(record.errorText);
+        } else {
+            summary.append(WITH_STATUS).append(record.status);
+        }
+        appendMillis(summary.append(" : "), record.durationMillis()).append(" ms, ")
+                .append(record.encodedDataLength).append(" bytes");
+        if (record.hasTiming()) {
+            appendMillis(summary.append(" (dns "), record.dnsMillis());
+            appendMillis(summary.append(", connect "), record.connectMillis());
+            appendMillis(summary.append(", ssl "), record.sslMillis());
+            appendMillis(summary.append(", send "), record.sendMillis());
+            appendMillis(summary.append(", wait "), record.waitMillis());
+            appendMillis(summary.append(", download "), record.downloadMillis()).append(" ms)");
+        }
+        return summary;
+    }
+
+    /**
+     * Appends milliseconds rounded to a tenth, e.g. {@code 12.3}, from integer digits instead of a formatted double.
+     */
+    static StringBuilder appendMillis(StringBuilder builder, double millis) {
+        long tenths = Math.round(millis * 10);
+        if (tenths < 0) {
+            builder.append('-');
+            tenths = -tenths;
+        }
+        return builder.append(tenths / 10).append('.').append((char) ('0' + tenths % 10));
+    }
+}
@@ -2,6 +2,8 @@ package io.selenium.logger.example;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
 import io.webdriver.junitextension.cdplogger.DevToolsExtension;
+import io.webdriver.junitextension.cdplogger.NetworkActivity;
+import io.webdriver.junitextension.cdplogger.PageActivity;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,8 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 
@@ -41,17 +45,19 @@ class ChromeDevToolsTest {
     }
 
     @Test
-    void test1() throws InterruptedException {
+    void test1(NetworkActivity network, PageActivity page) throws Exception {
 
         driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(15));
         driver.get("https://duckduckgo.com");
         WebElement searchEdit = driver.findElement(By.name("q"));
         searchEdit.sendKeys("Selenium 4");
         searchEdit.submit();
-        driver.findElement(By.partialLinkText("Selenium 4")).click();
+        page.awaitDomQuiet(Duration.ofMillis(300), Duration.ofSeconds(15)).get();
+        new WebDriverWait(driver, Duration.ofSeconds(15))
+                .until(ExpectedConditions.elementToBeClickable(By.partialLinkText("Selenium 4")))
+                .click();
 
-        Thread.sleep(6000);
+        network.awaitNetworkIdle(Duration.ofMillis(500), Duration.ofSeconds(10)).get();
 
     }
 
@@ -0,0 +1,195 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.cache.AssetCache;
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.metrics.AssetCacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetCachingTest {
+
+    private static final String SCRIPT_URL = "https://app.test/static/app.js";
+    private static final String SCRIPT = "document.title = 'cached';";
+
+    private static final List<Object> fetchPatterns = new CopyOnWriteArrayList<>();
+    private static final List<Map<String, Object>> fulfilled = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void assetStoredByOneTestIsServedToTheNext() {
+        List<String> commands = run(CachingTests.class, 2);
+
+        assertTrue(commands.contains("Network.enable"));
+        assertTrue(fetchPatterns.contains(Map.of("urlPattern", "*", "resourceType", "Script",
+                "requestStage", "Response")));
+        assertEquals(1, fulfilled.size());
+        assertEquals(200L, ((Number) fulfilled.get(0).get("responseCode")).longValue());
+        assertEquals(SCRIPT, new String(Base64.getDecoder().decode((String) fulfilled.get(0).get("body")),
+                StandardCharsets.UTF_8));
+        assertTrue(((List<?>) fulfilled.get(0).get("responseHeaders"))
+                .contains(Map.of("name", "Content-Type", "value", "text/javascript")));
+
+        assertEquals(2, ReportingExtension.reports.size());
+        AssetCacheStats first = ReportingExtension.reports.get(0);
+        assertEquals(List.of(0L, 1L, 1L), List.of(first.hits(), first.misses(), first.stores()));
+        AssetCacheStats second = ReportingExtension.reports.get(1);
+        assertEquals(List.of(1L, 0L, 0L), List.of(second.hits(), second.misses(), second.stores()));
+        assertEquals(SCRIPT.length(), second.bytesSaved());
+    }
+
+    @Test
+    void corruptCacheEntryIsAMissAndTheRequestContinues() throws Exception {
+        AssetCache.open(cacheDir, 1024 * 1024).store(SCRIPT_URL, 200,
+                List.of(Map.entry("Cache-Control", "max-age=600")), SCRIPT.getBytes(StandardCharsets.UTF_8));
+        try (Stream<Path> entries = Files.list(cacheDir.resolve("index"))) {
+            for (Path entry : entries.collect(Collectors.toList())) {
+                Files.writeString(entry, Files.readString(entry).replace("status=200", "status=corrupt"));
+            }
+        }
+
+        List<String> commands = run(CorruptCacheTests.class, 1);
+
+        assertTrue(fulfilled.isEmpty());
+        assertEquals(1, commands.stream().filter("Fetch.continueRequest"::equals).count());
+        AssetCacheStats stats = ReportingExtension.reports.get(0);
+        assertEquals(List.of(0L, 1L), List.of(stats.hits(), stats.misses()));
+    }
+
+    private List<String> run(Class<?> testClass, int tests) {
+        FakeBrowserExtension.handledEvents.clear();
+        ReportingExtension.reports.clear();
+        fetchPatterns.clear();
+        fulfilled.clear();
+        return FakeBrowserExtension.run(testClass, Map.of(DevToolsSettings.ASSET_CACHE_DIR, cacheDir.toString()), tests,
+                server ->
+                {
+                    server.respondTo("Fetch.enable", params ->
+                    {
+                        fetchPatterns.addAll((List<?>) params.get("patterns"));
+                        return Map.of();
+                    });
+                    server.respondTo("Fetch.getResponseBody", params -> Map.of(
+                            "body", Base64.getEncoder().encodeToString(SCRIPT.getBytes(StandardCharsets.UTF_8)),
+                            "base64Encoded", true));
+                    server.respondTo("Fetch.fulfillRequest", params ->
+                    {
+                        fulfilled.add(params);
+                        return Map.of();
+                    });
+                });
+    }
+
+    /**
+     * Keeps the asset cache statistics reported after each test.
+     */
+    static class ReportingExtension extends FakeBrowserExtension {
+
+        static final List<AssetCacheStats> reports = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void reportAssetCache(ExtensionContext context, AssetCacheStats stats) {
+            reports.add(stats);
+            super.reportAssetCache(context, stats);
+        }
+    }
+
+    /**
+     * Loads the same script twice. The first test downloads it, the second gets it from the cache, so the browser
+     * pauses it only before it is sent.
+     */
+    @ExtendWith(ReportingExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    static class CachingTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        @Order(1)
+        void firstLoad() throws Exception {
+            FakeBrowserExtension.server.play(EventStream.of(List.of(
+                    EventStream.Event.requestPaused("1", "Script", "GET", SCRIPT_URL, null),
+                    EventStream.Event.requestPaused("1", "Script", "GET", SCRIPT_URL, 200, Map.of(
+                            "Content-Type", "text/javascript",
+                            "Cache-Control", "max-age=600")))), 100).get(5, TimeUnit.SECONDS);
+            awaitCommands("Fetch.continueRequest", 2);
+        }
+
+        @Test
+        @Order(2)
+        void secondLoad() throws Exception {
+            FakeBrowserExtension.server.play(EventStream.of(List.of(
+                    EventStream.Event.requestPaused("2", "Script", "GET", SCRIPT_URL, null))), 100)
+                    .get(5, TimeUnit.SECONDS);
+            awaitCommands("Fetch.fulfillRequest", 1);
+        }
+
+        private static void awaitCommands(String method, long count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.server.receivedCommands().stream().filter(method::equals).count() < count
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    /**
+     * Loads the script with a corrupt entry for it in the cache.
+     */
+    @ExtendWith(ReportingExtension.class)
+    static class CorruptCacheTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        void load() throws Exception {
+            FakeBrowserExtension.server.play(EventStream.of(List.of(
+                    EventStream.Event.requestPaused("1", "Script", "GET", SCRIPT_URL, null))), 100)
+                    .get(5, TimeUnit.SECONDS);
+            CachingTests.awaitCommands("Fetch.continueRequest", 1);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.metrics.BlockedRequests;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockedUrlsTest {
+
+    private static final List<Object> blockedUrls = new CopyOnWriteArrayList<>();
+    private static final List<Object> fetchPatterns = new CopyOnWriteArrayList<>();
+
+    @Test
+    void blockListOfParameterClassAndMethodIsSentAndBlockedRequestsAreReported() {
+        run(NetworkMode.FULL, List.of(
+                EventStream.Event.requestWillBeSent("1", "Script", "GET", "https://ads.example/tag.js"),
+                EventStream.Event.loadingFailed("1", "Script", "net::ERR_BLOCKED_BY_CLIENT", "inspector"),
+                EventStream.Event.requestWillBeSent("2", "Font", "GET", "https://fonts.test/roboto.woff2"),
+                EventStream.Event.loadingFailed("2", "Font", "net::ERR_BLOCKED_BY_CLIENT", "inspector"),
+                EventStream.Event.requestWillBeSent("3", "Image", "GET", "https://app.test/broken.png"),
+                EventStream.Event.loadingFailed("3", "Image", "net::ERR_FAILED", null),
+                EventStream.Event.requestWillBeSent("4", "XHR", "GET", "https://app.test/api"),
+                EventStream.Event.responseReceived("4", "XHR", "https://app.test/api", 200),
+                EventStream.Event.loadingFinished("4", 100)));
+
+        assertEquals(List.of(List.of("*.woff2", "*://ads.example/*", "*analytics*")), blockedUrls);
+        assertEquals(1, ReportingExtension.reports.size());
+        BlockedRequests blocked = ReportingExtension.reports.get(0);
+        assertEquals(Map.of("Font", 1, "Script", 1), blocked.countsByType());
+        assertEquals(55 * 1024, blocked.estimatedBytes());
+    }
+
+    @Test
+    void fetchModeFailsBlockedRequests() {
+        List<String> commands = run(NetworkMode.FETCH, List.of(
+                EventStream.Event.requestPaused("1", "Script", "GET", "https://ads.example/tag.js", null),
+                EventStream.Event.requestPaused("2", "XHR", "GET", "https://app.test/api", null),
+                EventStream.Event.requestPaused("2", "XHR", "GET", "https://app.test/api", 200)));
+
+        assertTrue(fetchPatterns.contains(Map.of("urlPattern", "*://ads.example/*", "requestStage", "Request")));
+        assertEquals(1, commands.stream().filter("Fetch.failRequest"::equals).count());
+        assertEquals(2, commands.stream().filter("Fetch.continueRequest"::equals).count());
+        assertEquals(Map.of("Script", 1), ReportingExtension.reports.get(0).countsByType());
+    }
+
+    @Test
+    void patternBlocksTheSameRequestsInBothModes() {
+        run(NetworkMode.FULL, "/search?q=", List.of(
+                EventStream.Event.requestWillBeSent("1", "XHR", "GET", "https://app.test/search?q=ads&page=2"),
+                EventStream.Event.loadingFailed("1", "XHR", "net::ERR_BLOCKED_BY_CLIENT", "inspector"),
+                EventStream.Event.requestWillBeSent("2", "XHR", "GET", "https://app.test/searchXq=ads"),
+                EventStream.Event.responseReceived("2", "XHR", "https://app.test/searchXq=ads", 200),
+                EventStream.Event.loadingFinished("2", 100)));
+
+        assertEquals(List.of(List.of("/search?q=", "*://ads.example/*", "*analytics*")), blockedUrls);
+        assertEquals(Map.of("XHR", 1), ReportingExtension.reports.get(0).countsByType());
+
+        List<String> commands = run(NetworkMode.FETCH, "/search?q=", List.of(
+                EventStream.Event.requestPaused("1", "XHR", "GET", "https://app.test/search?q=ads&page=2", null),
+                EventStream.Event.requestPaused("2", "XHR", "GET", "https://app.test/searchXq=ads", null),
+                EventStream.Event.requestPaused("2", "XHR", "GET", "https://app.test/searchXq=ads", 200)));
+
+        assertTrue(fetchPatterns.contains(Map.of("urlPattern", "*/search\\?q=*", "requestStage", "Request")));
+        assertEquals(1, commands.stream().filter("Fetch.failRequest"::equals).count());
+        assertEquals(Map.of("XHR", 1), ReportingExtension.reports.get(0).countsByType());
+    }
+
+    private static List<String> run(NetworkMode mode, List<EventStream.Event> events) {
+        return run(mode, "*.woff2, ", events);
+    }
+
+    private static List<String> run(NetworkMode mode, String blockedUrlsParameter, List<EventStream.Event> events) {
+        FakeBrowserExtension.handledEvents.clear();
+        ReportingExtension.reports.clear();
+        blockedUrls.clear();
+        fetchPatterns.clear();
+        BlockingTests.stream = EventStream.of(events);
+        try {
+            return FakeBrowserExtension.run(BlockingTests.class, Map.of(DevToolsSettings.NETWORK_MODE, mode.name(),
+                    DevToolsSettings.NETWORK_BLOCKED_URLS, blockedUrlsParameter), 1, server ->
+            {
+                server.respondTo("Network.setBlockedURLs", params ->
+                {
+                    blockedUrls.add(params.get("urls"));
+                    return Map.of();
+                });
+                server.respondTo("Fetch.enable", params ->
+                {
+                    fetchPatterns.addAll((List<?>) params.get("patterns"));
+                    return Map.of();
+                });
+            });
+        } finally {
+            BlockingTests.stream = null;
+        }
+    }
+
+    /**
+     * Keeps the blocked requests reported after each test.
+     */
+    static class ReportingExtension extends FakeBrowserExtension {
+
+        static final List<BlockedRequests> reports = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void reportBlockedRequests(ExtensionContext context, BlockedRequests blockedRequests) {
+            reports.add(blockedRequests);
+            super.reportBlockedRequests(context, blockedRequests);
+        }
+    }
+
+    @ExtendWith(ReportingExtension.class)
+    @BlockedUrls("*://ads.example/*")
+    static class BlockingTests {
+
+        static EventStream stream;
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        /**
+         * The events are paced, so those of a request keep their order, and the last one is an application
+         * response to wait for.
+         */
+        @Test
+        @BlockedUrls("*analytics*")
+        void pageLoad() throws Exception {
+            FakeBrowserExtension.server.play(stream, 100).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.handledEvents.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BrowserContextIsolationTest {
+
+    private static final List<Map<String, Object>> createdTargets = new CopyOnWriteArrayList<>();
+
+    @Test
+    void eachTestRunsInItsOwnBrowserContextOfOneBrowser() {
+        List<String> commands = run();
+
+        assertEquals(2, count(commands, "Target.createBrowserContext"));
+        assertEquals(2, count(commands, "Target.disposeBrowserContext"));
+        assertEquals(List.of("fake-context-1", "fake-context-2"), List.of(
+                createdTargets.get(0).get("browserContextId"), createdTargets.get(1).get("browserContextId")));
+        assertEquals(List.of("first:fake-target-1", "second:fake-target-2"), IsolatedTests.windowsDuringTests);
+        assertEquals(List.of("fake-page", "fake-page"), IsolatedTests.windowsAfterTests);
+        assertEquals(List.of("first|https://app.test/first", "second|https://app.test/second"),
+                FakeBrowserExtension.handledEvents);
+        assertEquals(2, ReportingExtension.contextSetups.size());
+        assertTrue(ReportingExtension.contextSetups.stream()
+                .allMatch(setup -> setup.compareTo(Duration.ofMinutes(1)) < 0 && !setup.isNegative()));
+        assertEquals(List.of(Optional.empty(), Optional.empty()), ReportingExtension.driverStarts);
+    }
+
+    @Test
+    void browserContextIsolationRejectsClassScopedSessions() {
+        Map<String, String> parameters = Map.of(DevToolsSettings.SESSION_SCOPE, "class",
+                DevToolsSettings.SESSION_ISOLATION, "browser-context");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> DevToolsSettings.from(parameters));
+
+        assertTrue(error.getMessage().contains(DevToolsSettings.SESSION_SCOPE));
+    }
+
+    private static long count(List<String> commands, String method) {
+        return commands.stream().filter(method::equals).count();
+    }
+
+    private static List<String> run() {
+        FakeBrowserExtension.handledEvents.clear();
+        ReportingExtension.contextSetups.clear();
+        ReportingExtension.driverStarts.clear();
+        IsolatedTests.windowsDuringTests.clear();
+        IsolatedTests.windowsAfterTests.clear();
+        createdTargets.clear();
+        return FakeBrowserExtension.run(IsolatedTests.class,
+                Map.of(DevToolsSettings.SESSION_ISOLATION, "browser-context"), 2,
+                server -> server.respondTo("Target.createTarget", params ->
+                {
+                    createdTargets.add(params);
+                    return Map.of("targetId", "fake-target-" + createdTargets.size());
+                }));
+    }
+
+    /**
+     * Keeps the context setup times and driver starts reported after each test.
+     */
+    static class ReportingExtension extends FakeBrowserExtension {
+
+        static final List<Duration> contextSetups = new CopyOnWriteArrayList<>();
+        static final List<Optional<Duration>> driverStarts = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void reportBrowserContext(ExtensionContext context, Duration contextSetup,
+                                            Optional<Duration> driverStart) {
+            contextSetups.add(contextSetup);
+            driverStarts.add(driverStart);
+            super.reportBrowserContext(context, contextSetup, driverStart);
+        }
+    }
+
+    /**
+     * Shares one driver, created before all tests, as with a long-lived browser.
+     */
+    @ExtendWith(ReportingExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    static class IsolatedTests {
+
+        static final List<String> windowsDuringTests = new CopyOnWriteArrayList<>();
+        static final List<String> windowsAfterTests = new CopyOnWriteArrayList<>();
+        static ChromiumDriver driver;
+
+        @BeforeAll
+        static void launchBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterAll
+        static void quitBrowser() {
+            driver.quit();
+        }
+
+        @AfterEach
+        void recordWindow() {
+            windowsAfterTests.add(driver.getWindowHandle());
+        }
+
+        @Test
+        @Order(1)
+        void first() throws Exception {
+            load("first");
+        }
+
+        @Test
+        @Order(2)
+        void second() throws Exception {
+            load("second");
+        }
+
+        private static void load(String name) throws Exception {
+            windowsDuringTests.add(name + ":" + driver.getWindowHandle());
+            String url = "https://app.test/" + name;
+            FakeBrowserExtension.server.play(EventStream.of(List.of(
+                    EventStream.Event.requestWillBeSent(name, "XHR", "GET", url),
+                    EventStream.Event.responseReceived(name, "XHR", url, 200),
+                    EventStream.Event.loadingFinished(name, 100))), 100).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.handledEvents.stream().noneMatch(event -> event.startsWith(name + "|"))
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.ResponseReceived;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+class ClassScopedSessionTest {
+
+    @Test
+    void sessionIsOpenedOnceAndTestsOnlySwitchTheTestName() {
+        execute(SharedDriverTests.class);
+
+        StubDevTools stub = SharedDriverTests.devTools;
+        assertEquals(1, stub.sessionsCreated());
+        assertEquals(1, stub.closeCount());
+        assertEquals(1, stub.sentCommands().stream().filter("Network.enable"::equals).count());
+        assertEquals(Set.of("first|https://app.test/first", "second|https://app.test/second",
+                        "third|https://app.test/third"),
+                Set.copyOf(StubbedDevToolsExtension.handledEvents.get(stub.id())));
+    }
+
+    @Test
+    void sessionIsReopenedWhenDriverChanges() {
+        execute(DriverPerTestTests.class);
+
+        assertEquals(2, DriverPerTestTests.stubs.size());
+        for (StubDevTools stub : DriverPerTestTests.stubs) {
+            assertEquals(1, stub.sessionsCreated());
+            assertEquals(1, stub.closeCount());
+        }
+    }
+
+    @Test
+    void eventsBetweenTestsAreCapturedForTheNextTest() {
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(CapturedTests.class))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .configurationParameter(DevToolsSettings.SESSION_SCOPE, "class")
+                .configurationParameter(DevToolsSettings.CAPTURE_MODE, "on-failure")
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.failed(1).succeeded(1));
+
+        assertEquals(Set.of("https://app.test/first-after", "https://app.test/second"),
+                StubbedDevToolsExtension.handledEvents.get(CapturedTests.devTools.id()).stream()
+                        .map(event -> event.substring(event.indexOf('|') + 1))
+                        .collect(Collectors.toSet()));
+    }
+
+    private static void execute(Class<?> testClass) {
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(testClass))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .configurationParameter(DevToolsSettings.SESSION_SCOPE, "class")
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.failed(0).succeeded(testClass.getDeclaredMethods().length));
+    }
+
+    private static void emitResponse(StubDevTools devTools, TestInfo testInfo) {
+        emitResponse(devTools, testInfo.getTestMethod().orElseThrow().getName());
+    }
+
+    private static void emitResponse(StubDevTools devTools, String name) {
+        devTools.emit(Network.responseReceived(), ResponseReceived.class,
+                StubDevTools.responseReceivedJson(name, "XHR", "https://app.test/" + name, 200));
+    }
+
+    @ExtendWith(StubbedDevToolsExtension.class)
+    static class SharedDriverTests {
+
+        static final StubDevTools devTools = new StubDevTools("class-scoped");
+
+        @Test
+        void first(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+        }
+
+        @Test
+        void second(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+        }
+
+        @Test
+        void third(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+        }
+    }
+
+    @ExtendWith(StubbedDevToolsExtension.class)
+    static class DriverPerTestTests {
+
+        static final List<StubDevTools> stubs = new CopyOnWriteArrayList<>();
+
+        final StubDevTools devTools = new StubDevTools("per-test-" + stubs.size());
+
+        DriverPerTestTests() {
+            stubs.add(devTools);
+        }
+
+        @Test
+        void first(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+        }
+
+        @Test
+        void second(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+        }
+    }
+
+    /**
+     * Responses emitted in {@code @AfterEach} arrive after the test ended and are captured for the next test: only
+     * the events of the failing test and those before it are written.
+     */
+    @ExtendWith(StubbedDevToolsExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    static class CapturedTests {
+
+        static final StubDevTools devTools = new StubDevTools("captured");
+
+        @AfterEach
+        void emitAfterTest(TestInfo testInfo) {
+            emitResponse(devTools, testInfo.getTestMethod().orElseThrow().getName() + "-after");
+        }
+
+        @Test
+        @Order(1)
+        void first(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+        }
+
+        @Test
+        @Order(2)
+        void second(TestInfo testInfo) {
+            emitResponse(devTools, testInfo);
+            fail("captured events are written");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.ResponseReceived;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs many synthetic test invocations concurrently against stubbed Dev Tools and checks that every event is
+ * attributed to the invocation which produced it and that each invocation closes only its own session.
+ */
+class DevToolsExtensionParallelTest {
+
+    private static final int INVOCATIONS = 200;
+    private static final int EVENTS_PER_INVOCATION = 500;
+
+    private static final List<StubDevTools> stubs = new CopyOnWriteArrayList<>();
+
+    @Test
+    void concurrentInvocationsNeverShareState() {
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(SyntheticTest.class))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+                .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", "16")
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.started(INVOCATIONS).succeeded(INVOCATIONS));
+
+        assertEquals(INVOCATIONS, stubs.size());
+        for (StubDevTools stub : stubs) {
+            assertEquals(1, stub.sessionsCreated());
+            assertEquals(1, stub.closeCount(), "session of " + stub.id() + " closed by another test");
+            assertFalse(stub.hasListeners());
+            assertTrue(stub.sentCommands().containsAll(List.of("Network.enable", "Log.enable", "Runtime.enable")));
+
+            List<String> events = StubbedDevToolsExtension.handledEvents.get(stub.id());
+            assertEquals(EVENTS_PER_INVOCATION, events.size());
+            for (String event : events) {
+                assertTrue(event.startsWith("invocation|https://app.test/" + stub.id() + "/"),
+                        () -> "event " + event + " leaked into " + stub.id());
+            }
+        }
+    }
+
+    @ExtendWith(StubbedDevToolsExtension.class)
+    static class SyntheticTest {
+
+        private static final AtomicInteger counter = new AtomicInteger();
+
+        final StubDevTools devTools = new StubDevTools("invocation-" + counter.incrementAndGet());
+
+        @RepeatedTest(INVOCATIONS)
+        void invocation() {
+            String id = devTools.id();
+            for (int i = 0; i < EVENTS_PER_INVOCATION; i++) {
+                devTools.emit(Network.responseReceived(), ResponseReceived.class,
+                        StubDevTools.responseReceivedJson(id + "." + i, "XHR",
+                                "https://app.test/" + id + "/" + i, 200));
+                if (i % 50 == 0) {
+                    Thread.yield();
+                }
+            }
+            stubs.add(devTools);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.pool.DriverFactory;
+import io.webdriver.junitextension.cdplogger.pool.DriverPool;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DriverPoolExtensionTest {
+
+    @Test
+    void pooledDriversAreInjectedAndRecycled() {
+        PooledTests.drivers.clear();
+        PoolExtension.pool = null;
+        PoolExtension.warmUps.set(0);
+        List<String> commands = FakeBrowserExtension.run(PooledTests.class, Map.of(DevToolsSettings.POOL_SIZE, "1",
+                DevToolsSettings.POOL_MAX_USES, "2",
+                DevToolsSettings.POOL_DRIVER_FACTORY, FakeDriverFactory.class.getName()), 3, server -> { });
+
+        List<ChromiumDriver> drivers = PooledTests.drivers;
+        assertSame(drivers.get(0), drivers.get(1));
+        assertNotSame(drivers.get(1), drivers.get(2));
+        assertEquals(3, PoolExtension.pool.stats().leases());
+        assertEquals(1, PoolExtension.pool.stats().recycledCount());
+        assertEquals(2, PoolExtension.pool.stats().started());
+        assertEquals(PoolExtension.warmUps.get(), commands.stream().filter("Log.enable"::equals).count());
+        assertEquals(PoolExtension.warmUps.get(), commands.stream().filter("Network.enable"::equals).count());
+    }
+
+    /**
+     * Starts drivers on the fake server, configured by class name as a real factory would be.
+     */
+    public static class FakeDriverFactory implements DriverFactory {
+
+        @Override
+        public ChromiumDriver create() {
+            return FakeBrowserExtension.server.newDriver();
+        }
+    }
+
+    /**
+     * Keeps the pool of the run for assertions after it closed and counts the warm-ups of its drivers.
+     */
+    static class PoolExtension extends FakeBrowserExtension {
+
+        static volatile DriverPool pool;
+        static final AtomicLong warmUps = new AtomicLong();
+
+        @Override
+        protected void warmUp(ChromiumDriver driver, DevToolsSettings settings) {
+            super.warmUp(driver, settings);
+            warmUps.incrementAndGet();
+        }
+
+        @Override
+        protected DriverPool driverPool(ExtensionContext context, DevToolsSettings settings) {
+            pool = super.driverPool(context, settings);
+            return pool;
+        }
+    }
+
+    /**
+     * Creates no driver itself. Each test records the driver it was given.
+     */
+    @ExtendWith(PoolExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    static class PooledTests {
+
+        static final List<ChromiumDriver> drivers = new CopyOnWriteArrayList<>();
+
+        ChromiumDriver driver;
+
+        @Test
+        @Order(1)
+        void first() {
+            record();
+        }
+
+        @Test
+        @Order(2)
+        void second() {
+            record();
+        }
+
+        @Test
+        @Order(3)
+        void third() {
+            record();
+        }
+
+        private void record() {
+            assertNotNull(driver);
+            drivers.add(driver);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import io.webdriver.junitextension.cdplogger.fixtures.ReplaySpeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.json.Json;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventRecorderTest {
+
+    private static final int REQUESTS = 50;
+
+    @TempDir
+    Path recordDir;
+
+    @Test
+    void recordingKeepsEventsInArrivalOrderWithTheirTimes() throws Exception {
+        EventRecorder recorder = new EventRecorder(EventRecorder.file(recordDir, "Some Test.run(1)"));
+        recorder.record("Network.requestWillBeSent", Map.of("requestId", "1"));
+        Thread.sleep(20);
+        recorder.record("Network.loadingFinished", Map.of("requestId", "1", "encodedDataLength", 10));
+        recorder.finish();
+
+        assertEquals(recordDir.resolve("Some_Test.run_1_.cdp.jsonl.gz"), recorder.file());
+        EventStream stream = EventStream.fromJsonLines(recorder.file());
+        assertEquals(List.of("Network.requestWillBeSent", "Network.loadingFinished"),
+                stream.events().stream().map(EventStream.Event::method).collect(Collectors.toList()));
+        assertEquals(0, stream.events().get(0).offsetMicros());
+        assertTrue(stream.durationMicros() >= TimeUnit.MILLISECONDS.toMicros(20));
+        assertEquals(Map.of("requestId", "1"),
+                new Json().toType(stream.events().get(0).paramsJson(), Json.MAP_TYPE));
+    }
+
+    @Test
+    void eventsBeyondThePendingBytesAreDropped() throws Exception {
+        EventRecorder recorder = new EventRecorder(EventRecorder.file(recordDir, "bounded"), 0);
+        recorder.record("Network.requestWillBeSent", Map.of("requestId", "1"));
+        recorder.finish();
+        recorder.record("Network.loadingFinished", Map.of("requestId", "1"));
+
+        assertEquals(0, recorder.recordedCount());
+        assertEquals(2, recorder.droppedCount());
+        assertEquals(List.of(), EventStream.fromJsonLines(recorder.file()).events());
+    }
+
+    @Test
+    void recordedSessionReplaysIntoExtensionWithoutTheOriginalSite() throws Exception {
+        List<EventStream.Event> scripted = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String url = "https://app.test/items/" + i;
+            scripted.add(EventStream.Event.requestWillBeSent(String.valueOf(i), "XHR", "GET", url));
+            scripted.add(EventStream.Event.responseReceived(String.valueOf(i), "XHR", url, 200));
+            scripted.add(EventStream.Event.loadingFinished(String.valueOf(i), 100));
+        }
+        scripted.add(EventStream.Event.logEntry("error", "boom"));
+        Set<String> live = run(server -> server.play(EventStream.of(scripted), 500), true);
+
+        Path recording = recordDir.resolve("RecordedTests.scenario" + EventRecorder.FILE_SUFFIX);
+        assertTrue(Files.exists(recording));
+        EventStream recorded = EventStream.fromJsonLines(recording);
+        assertEquals(scripted.size(), recorded.size());
+        assertTrue(recorded.durationMicros() > TimeUnit.MILLISECONDS.toMicros(200));
+
+        long start = System.nanoTime();
+        Set<String> accelerated = run(server -> server.replay(recorded, ReplaySpeed.accelerated(4)), false);
+        long acceleratedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        Set<String> asap = run(server -> server.replay(recorded, ReplaySpeed.AS_FAST_AS_POSSIBLE), false);
+
+        assertEquals(REQUESTS, live.size());
+        assertEquals(live, accelerated);
+        assertEquals(live, asap);
+        assertTrue(acceleratedMicros >= recorded.durationMicros() / 4, "replay keeps the accelerated pacing");
+    }
+
+    @Test
+    void scriptedStreamCannotBeReplayedInRealTime() throws Exception {
+        try (FakeCdpServer server = FakeCdpServer.start()) {
+            EventStream scripted = EventStream.of(List.of(EventStream.Event.logEntry("error", "boom")));
+
+            assertThrows(IllegalArgumentException.class, () -> server.replay(scripted, ReplaySpeed.REAL_TIME));
+        }
+    }
+
+    private Set<String> run(Function<FakeCdpServer, CompletableFuture<Void>> scenario, boolean record) {
+        FakeBrowserExtension.handledEvents.clear();
+        RecordedTests.scenario = scenario;
+        try {
+            return FakeBrowserExtension.run(RecordedTests.class,
+                    record ? Map.of(DevToolsSettings.RECORD_DIR, recordDir.toString()) : Map.of(), 1, server -> { },
+                    server -> Set.copyOf(FakeBrowserExtension.handledEvents));
+        } finally {
+            RecordedTests.scenario = null;
+        }
+    }
+
+    /**
+     * Runs the scenario against the fake server, see {@link FakeCdpServerTest.FakeBrowserTests}.
+     */
+    @ExtendWith(FakeBrowserExtension.class)
+    static class RecordedTests {
+
+        static Function<FakeCdpServer, CompletableFuture<Void>> scenario;
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        void scenario() throws Exception {
+            scenario.apply(FakeBrowserExtension.server).get(10, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.handledEvents.size() < REQUESTS && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
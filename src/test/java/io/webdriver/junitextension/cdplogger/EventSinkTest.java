@@ -0,0 +1,210 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+import io.webdriver.junitextension.cdplogger.sink.BatchingEventHandler;
+import io.webdriver.junitextension.cdplogger.sink.BinaryEventSink;
+import io.webdriver.junitextension.cdplogger.sink.EventRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventSinkTest {
+
+    private static final int RESPONSES = 50;
+
+    @TempDir
+    static Path sinkDir;
+
+    @TempDir
+    static Path asyncSinkDir;
+
+    @Test
+    void eventsOfATestAreWrittenToAllSinksBeforeTheNextTest() throws Exception {
+        FakeBrowserExtension.handledEvents.clear();
+        FakeBrowserExtension.run(SinkTests.class, Map.of(DevToolsSettings.SINKS, "json-lines, binary",
+                DevToolsSettings.SINK_DIR, sinkDir.toString()), 2, server -> { });
+
+        assertEquals(2 * RESPONSES, jsonLines().size());
+        List<EventRecord> events = BinaryEventSink.read(file(".cdpev"));
+        assertEquals(List.of("first", "second"), events.stream().map(event -> event.testName).distinct()
+                .collect(Collectors.toList()));
+        assertEquals(2 * RESPONSES, events.size());
+        assertTrue(events.stream().anyMatch(event -> "https://app.test/second/49".equals(event.url)));
+    }
+
+    @Test
+    void eventsOfTheLastTestAreWrittenBeforeTheSinksAreClosed() throws Exception {
+        FakeBrowserExtension.handledEvents.clear();
+        FakeBrowserExtension.run(SlowFlushSinkTests.class, Map.of(DevToolsSettings.TEARDOWN_ASYNC, "true",
+                DevToolsSettings.SINKS, "json-lines", DevToolsSettings.SINK_DIR, asyncSinkDir.toString()), 1,
+                server -> { });
+
+        List<String> lines = Files.readAllLines(file(asyncSinkDir, ".jsonl"), StandardCharsets.UTF_8);
+        assertEquals(RESPONSES, lines.stream().filter(line -> line.contains("\"test\":\"last\"")).count());
+    }
+
+    private static long jsonResponses(String testName) throws Exception {
+        return jsonLines().stream().filter(line -> line.contains("\"test\":\"" + testName + "\"")).count();
+    }
+
+    private static List<String> jsonLines() throws Exception {
+        return Files.readAllLines(file(".jsonl"), StandardCharsets.UTF_8);
+    }
+
+    private static Path file(String suffix) throws Exception {
+        return file(sinkDir, suffix);
+    }
+
+    private static Path file(Path directory, String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(suffix)).findFirst().orElseThrow();
+        }
+    }
+
+    /**
+     * Writes the events to the sinks of the run like {@link DevToolsExtension} does, recording handled responses as
+     * {@code "testName|url"} before.
+     */
+    static class SinkExtension extends FakeBrowserExtension {
+
+        @Override
+        protected EventHandler createEventHandler(ExtensionContext context) {
+            DevToolsSettings settings = DevToolsSettings.from(context);
+            EventHandler sinks = new BatchingEventHandler(eventSinks(context, settings), settings.sinkBatchSize());
+            return new EventHandler() {
+                @Override
+                public void onEvent(CdpEvent event) {
+                    handledEvents.add(event.testName + "|" + event.url);
+                    sinks.onEvent(event);
+                }
+
+                @Override
+                public void endOfBatch() {
+                    sinks.endOfBatch();
+                }
+
+                @Override
+                public void flush() {
+                    sinks.flush();
+                }
+            };
+        }
+    }
+
+    /**
+     * Holds the events of a session until it is flushed and takes {@value #FLUSH_MILLIS} ms to flush them, so the
+     * background teardown of the last test is still writing when the run ends.
+     */
+    static class SlowFlushSinkExtension extends SinkExtension {
+
+        static final long FLUSH_MILLIS = 300;
+
+        @Override
+        protected EventHandler createEventHandler(ExtensionContext context) {
+            EventHandler sinks = super.createEventHandler(context);
+            return new EventHandler() {
+                @Override
+                public void onEvent(CdpEvent event) {
+                    sinks.onEvent(event);
+                }
+
+                @Override
+                public void flush() {
+                    try {
+                        Thread.sleep(FLUSH_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    sinks.flush();
+                }
+            };
+        }
+    }
+
+    /**
+     * The second test finds the events of the first one in the file, although the sinks were not closed yet.
+     */
+    @ExtendWith(SinkExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    static class SinkTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        @Order(1)
+        void first() throws Exception {
+            play("first");
+        }
+
+        @Test
+        @Order(2)
+        void second() throws Exception {
+            assertEquals(RESPONSES, jsonResponses("first"));
+            play("second");
+        }
+
+        /**
+         * Events played to the browser reach the listeners asynchronously, wait for them before the test ends.
+         */
+        private static void play(String testName) throws Exception {
+            FakeBrowserExtension.server.play(EventStream.generate(RESPONSES, i -> EventStream.Event.responseReceived(
+                    testName + i, "XHR", "https://app.test/" + testName + "/" + i, 200)), 0).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.handledEvents.stream().filter(event -> event.startsWith(testName + "|"))
+                    .count() < RESPONSES && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    /**
+     * Runs with asynchronous teardown, which only suits drivers outliving the test: the driver is left open and the
+     * fake server drops the connection when the run ends.
+     */
+    @ExtendWith(SlowFlushSinkExtension.class)
+    static class SlowFlushSinkTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @Test
+        void last() throws Exception {
+            SinkTests.play("last");
+        }
+    }
+}
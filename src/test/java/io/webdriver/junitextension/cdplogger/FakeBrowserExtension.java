@@ -0,0 +1,93 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Takes Dev Tools from the real {@code 'driver'} field and records handled responses as {@code "testName|url"}
+ * and completed requests as {@code "testName|url|status"}.
+ *
+ * <p>Synthetic test classes are run with {@link #run}, which starts a {@link FakeCdpServer} their drivers connect to
+ * through {@link #server}.
+ */
+class FakeBrowserExtension extends DevToolsExtension implements ExecutionCondition {
+
+    static final List<String> handledEvents = new CopyOnWriteArrayList<>();
+    static final List<String> completedRequests = new CopyOnWriteArrayList<>();
+
+    /**
+     * Server of the synthetic tests being run, e.g. for {@code FakeBrowserExtension.server.newDriver()}.
+     */
+    static volatile FakeCdpServer server;
+
+    /**
+     * Runs the synthetic tests of the class against a fake server, see
+     * {@link #run(Class, Map, int, Consumer, Function)}.
+     *
+     * @return commands the server received
+     */
+    static List<String> run(Class<?> testClass, Map<String, String> parameters, int tests,
+                            Consumer<FakeCdpServer> stubs) {
+        return run(testClass, parameters, tests, stubs, server -> List.copyOf(server.receivedCommands()));
+    }
+
+    /**
+     * Starts a fake server, lets {@code stubs} answer its commands and runs the synthetic tests of the class against
+     * it through EngineTestKit with the given configuration parameters, asserting that all of them succeed.
+     *
+     * @return result taken from the server after the run
+     */
+    static <T> T run(Class<?> testClass, Map<String, String> parameters, int tests, Consumer<FakeCdpServer> stubs,
+                     Function<FakeCdpServer, T> result) {
+        try (FakeCdpServer started = FakeCdpServer.start()) {
+            stubs.accept(started);
+            server = started;
+            EngineTestKit.engine("junit-jupiter")
+                    .selectors(selectClass(testClass))
+                    .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                    .configurationParameters(parameters)
+                    .execute()
+                    .testEvents()
+                    .assertStatistics(stats -> stats.failed(0).succeeded(tests));
+            return result.apply(started);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            server = null;
+        }
+    }
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        return context.getConfigurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED,
+                Boolean::parseBoolean).orElse(false)
+                ? ConditionEvaluationResult.enabled("launched by EngineTestKit")
+                : ConditionEvaluationResult.disabled("synthetic tests run only through EngineTestKit");
+    }
+
+    @Override
+    protected EventHandler createEventHandler(ExtensionContext context) {
+        return event -> {
+            if (event.kind == CdpEvent.Kind.RESPONSE) {
+                handledEvents.add(event.testName + "|" + event.url);
+            } else if (event.kind == CdpEvent.Kind.REQUEST_COMPLETED) {
+                completedRequests.add(event.testName + "|" + event.url + "|" + event.record.status);
+            }
+        };
+    }
+}
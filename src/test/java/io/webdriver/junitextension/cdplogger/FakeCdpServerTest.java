@@ -0,0 +1,122 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v96.network.Network;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FakeCdpServerTest {
+
+    private static final int REQUESTS = 200;
+
+    private static EventStream responses(String prefix) {
+        return EventStream.generate(REQUESTS, i -> EventStream.Event.responseReceived(prefix + i, "XHR",
+                "https://app.test/" + prefix + "/" + i, 200));
+    }
+
+    @Test
+    void devToolsReceiveEventsPlayedAtRate() throws Exception {
+        try (FakeCdpServer server = FakeCdpServer.start()) {
+            DevTools devTools = server.connect();
+            devTools.createSession();
+            devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+            CountDownLatch received = new CountDownLatch(REQUESTS);
+            devTools.addListener(Network.responseReceived(), response -> received.countDown());
+
+            long start = System.nanoTime();
+            server.play(responses("rate"), 1000).get(5, TimeUnit.SECONDS);
+
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(REQUESTS - 1),
+                    "events are paced at the requested rate");
+            assertTrue(server.receivedCommands().containsAll(
+                    List.of("Target.getTargets", "Target.attachToTarget", "Network.enable")));
+            devTools.close();
+        }
+    }
+
+    @Test
+    void commandsAreAnsweredAfterLatency() throws Exception {
+        try (FakeCdpServer server = FakeCdpServer.start().withCommandLatency(Duration.ofMillis(200))) {
+            DevTools devTools = server.connect();
+            long start = System.nanoTime();
+            devTools.createSession();
+
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+            devTools.close();
+        }
+    }
+
+    @Test
+    void extensionLogsEventsOfDriverConnectedToServer() {
+        FakeBrowserExtension.handledEvents.clear();
+        long start = System.nanoTime();
+        List<String> commands = FakeBrowserExtension.run(FakeBrowserTests.class, Map.of(), 2, server -> { });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2 * REQUESTS, FakeBrowserExtension.handledEvents.size());
+        assertTrue(FakeBrowserExtension.handledEvents.contains("first|https://app.test/first/0"));
+        assertTrue(FakeBrowserExtension.handledEvents.contains("second|https://app.test/second/199"));
+        assertEquals(2, commands.stream().filter("Network.enable"::equals).count());
+        assertTrue(elapsedMillis < DevToolsSettings.DEFAULT_TEARDOWN_TIMEOUT_MILLIS,
+                () -> "sessions waited for their teardown deadline, run took " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Runs with the default settings, which close sessions on the test thread before {@code @AfterEach} quits the
+     * driver and closes its Dev Tools connection.
+     */
+    @ExtendWith(FakeBrowserExtension.class)
+    static class FakeBrowserTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        void first() throws Exception {
+            FakeBrowserExtension.server.play(responses("first"), 0).get(5, TimeUnit.SECONDS);
+            awaitHandled("first");
+        }
+
+        @Test
+        void second() throws Exception {
+            FakeBrowserExtension.server.play(responses("second"), 0).get(5, TimeUnit.SECONDS);
+            awaitHandled("second");
+        }
+
+        /**
+         * Events played to the browser reach the listeners asynchronously, wait for them before the session closes.
+         */
+        private static void awaitHandled(String testName) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.handledEvents.stream().filter(event -> event.startsWith(testName + "|"))
+                    .count() < REQUESTS && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
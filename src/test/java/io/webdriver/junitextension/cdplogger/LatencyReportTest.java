@@ -0,0 +1,62 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.metrics.LatencyHistogram;
+import io.webdriver.junitextension.cdplogger.metrics.LatencyRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.LoadingFinished;
+import org.openqa.selenium.devtools.v96.network.model.RequestWillBeSent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+class LatencyReportTest {
+
+    @Test
+    void latenciesOfAllTestsAreWrittenAtTheEndOfTheRun(@TempDir Path reportDir) throws IOException {
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(LatencyTests.class))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .configurationParameter(DevToolsSettings.LATENCY_REPORT_DIR, reportDir.toString())
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.failed(0).succeeded(2));
+
+        Path report = reportDir.resolve("latency-" + ProcessHandle.current().pid() + ".tsv");
+        Map<String, LatencyHistogram> histograms = LatencyRegistry.readFrom(report).histograms();
+        assertEquals(2, histograms.get("GET https://app.test/users/{id}").count());
+        assertEquals(1, histograms.get("POST https://app.test/login").count());
+        assertEquals(250_000, histograms.get("POST https://app.test/login").max());
+    }
+
+    private static void request(StubDevTools devTools, String id, String method, String url, double end) {
+        devTools.emit(Network.requestWillBeSent(), RequestWillBeSent.class,
+                StubDevTools.requestWillBeSentJson(id, "XHR", method, url));
+        devTools.emit(Network.loadingFinished(), LoadingFinished.class,
+                StubDevTools.loadingFinishedJson(id, 128).replace("\"timestamp\":2.0", "\"timestamp\":" + end));
+    }
+
+    @ExtendWith(StubbedDevToolsExtension.class)
+    static class LatencyTests {
+
+        final StubDevTools devTools = new StubDevTools("latency-" + System.nanoTime());
+
+        @Test
+        void first() {
+            request(devTools, "1", "GET", "https://app.test/users/1", 1.1);
+            request(devTools, "2", "POST", "https://app.test/login", 1.25);
+        }
+
+        @Test
+        void second() {
+            request(devTools, "3", "GET", "https://app.test/users/2?expand=true", 1.05);
+        }
+    }
+}
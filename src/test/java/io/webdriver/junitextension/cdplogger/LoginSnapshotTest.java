@@ -0,0 +1,204 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import io.webdriver.junitextension.cdplogger.metrics.LoginSnapshotStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginSnapshotTest {
+
+    private static final Map<String, Object> SESSION_COOKIE = Map.ofEntries(Map.entry("name", "sid"),
+            Map.entry("value", "s3cr3t"), Map.entry("domain", "app.test"), Map.entry("path", "/"),
+            Map.entry("expires", -1), Map.entry("size", 9), Map.entry("httpOnly", true), Map.entry("secure", true),
+            Map.entry("session", true), Map.entry("sameSite", "Lax"), Map.entry("priority", "Medium"),
+            Map.entry("sameParty", false), Map.entry("sourceScheme", "Secure"), Map.entry("sourcePort", 443));
+
+    private static final AtomicInteger loginSteps = new AtomicInteger();
+    private static final List<Map<String, Object>> restoredCookies = new CopyOnWriteArrayList<>();
+    private static final List<String> restoreScripts = new CopyOnWriteArrayList<>();
+    private static final List<Object> removedScripts = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path snapshotDir;
+
+    @Test
+    void loginStepRunsOnceAndIsRestoredAfterwards() throws Exception {
+        run();
+
+        assertEquals(1, loginSteps.get());
+        assertEquals(List.of(Map.of("name", "sid", "value", "s3cr3t", "domain", "app.test", "path", "/",
+                "secure", true, "httpOnly", true, "sameSite", "Lax")), restoredCookies);
+        assertEquals(1, restoreScripts.size());
+        assertTrue(restoreScripts.get(0).contains("location.origin !== \"https:\\u002f\\u002fapp.test\""));
+        assertTrue(restoreScripts.get(0).replaceAll("\\s", "").contains("varitems={\"token\":\"abc\"};"));
+
+        assertEquals(2, ReportingExtension.reports.size());
+        LoginSnapshotStats first = ReportingExtension.reports.get(0);
+        assertEquals(List.of(0L, 1L), List.of(first.hits(), first.misses()));
+        LoginSnapshotStats second = ReportingExtension.reports.get(1);
+        assertEquals(List.of(1L, 0L), List.of(second.hits(), second.misses()));
+        assertTrue(second.savedNanos() > 0);
+        try (Stream<Path> files = Files.list(snapshotDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void snapshotOnDiskIsRestoredByTheNextRun() {
+        run();
+        run();
+
+        assertEquals(0, loginSteps.get());
+        assertEquals(2, ReportingExtension.reports.size());
+        assertTrue(ReportingExtension.reports.stream().allMatch(stats -> stats.hits() == 1));
+    }
+
+    @Test
+    void restoreScriptIsRemovedWhenTheTestOfAClassScopedSessionEnds() {
+        run(ClassScopedLoginTests.class, SessionScope.CLASS);
+
+        assertEquals(1, restoreScripts.size());
+        assertEquals(List.of("1"), removedScripts);
+    }
+
+    private void run() {
+        run(LoginTests.class, SessionScope.TEST);
+    }
+
+    private void run(Class<?> testClass, SessionScope sessionScope) {
+        loginSteps.set(0);
+        restoredCookies.clear();
+        restoreScripts.clear();
+        removedScripts.clear();
+        ReportingExtension.reports.clear();
+        FakeBrowserExtension.run(testClass, Map.of(DevToolsSettings.LOGIN_SNAPSHOT_DIR, snapshotDir.toString(),
+                DevToolsSettings.SESSION_SCOPE, sessionScope.name().toLowerCase()), 2, server ->
+        {
+            server.respondTo("Network.getAllCookies", params -> Map.of("cookies", List.of(SESSION_COOKIE)));
+            server.respondTo("Runtime.evaluate", params -> Map.of("result", Map.of("type", "object",
+                    "value", Map.of("origin", "https://app.test", "items", Map.of("token", "abc")))));
+            server.respondTo("Network.setCookies", params ->
+            {
+                restoredCookies.addAll(FakeCdpServer.objects(params, "cookies"));
+                return Map.of();
+            });
+            server.respondTo("Page.addScriptToEvaluateOnNewDocument", params ->
+            {
+                restoreScripts.add((String) params.get("source"));
+                return Map.of("identifier", "1");
+            });
+            server.respondTo("Page.removeScriptToEvaluateOnNewDocument", params ->
+            {
+                removedScripts.add(params.get("identifier"));
+                return Map.of();
+            });
+        });
+    }
+
+    /**
+     * Keeps the login snapshot statistics reported after each test.
+     */
+    static class ReportingExtension extends FakeBrowserExtension {
+
+        static final List<LoginSnapshotStats> reports = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void reportLoginSnapshot(ExtensionContext context, LoginSnapshotStats stats) {
+            reports.add(stats);
+            super.reportLoginSnapshot(context, stats);
+        }
+    }
+
+    /**
+     * Both tests log in as the same user. The login step stands for filling in a login form.
+     */
+    @ExtendWith(ReportingExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    @ReuseLogin("admin")
+    static class LoginTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        @Order(1)
+        void firstTest(LoginSession login) {
+            login.login(LoginTests::logIn);
+        }
+
+        @Test
+        @Order(2)
+        void secondTest(LoginSession login) {
+            assertTrue(login.login(LoginTests::logIn));
+            assertFalse(login.name().isEmpty());
+        }
+
+        private static void logIn() {
+            loginSteps.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The login tests sharing one driver and Dev Tools session. The driver is left open: an @AfterAll quit would run
+     * before the extension closes the class session, the fake server drops the connection when the run ends.
+     */
+    @ExtendWith(ReportingExtension.class)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    @ReuseLogin("admin")
+    static class ClassScopedLoginTests {
+
+        static ChromiumDriver driver;
+
+        @BeforeAll
+        static void launchBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @Test
+        @Order(1)
+        void firstTest(LoginSession login) {
+            login.login(LoginTests::logIn);
+        }
+
+        @Test
+        @Order(2)
+        void secondTest(LoginSession login) {
+            assertTrue(login.login(LoginTests::logIn));
+        }
+    }
+}
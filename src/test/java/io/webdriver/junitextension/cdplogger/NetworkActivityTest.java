@@ -0,0 +1,112 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.LoadingFailed;
+import org.openqa.selenium.devtools.v96.network.model.LoadingFinished;
+import org.openqa.selenium.devtools.v96.network.model.RequestWillBeSent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+class NetworkActivityTest {
+
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(100);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final NetworkActivity network = new NetworkActivity();
+
+    @Test
+    void idleNetworkCompletesAfterQuietPeriod() throws Exception {
+        long start = System.nanoTime();
+        network.awaitNetworkIdle(QUIET_PERIOD, TIMEOUT).get(1, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start < TIMEOUT.toNanos());
+    }
+
+    @Test
+    void waitsForRequestsInFlight() throws Exception {
+        network.requestStarted("1");
+        network.requestStarted("2");
+        CompletableFuture<Void> idle = network.awaitNetworkIdle(QUIET_PERIOD, TIMEOUT);
+
+        network.requestCompleted("1");
+        Thread.sleep(2 * QUIET_PERIOD.toMillis());
+        assertFalse(idle.isDone());
+        assertEquals(1, network.inFlightCount());
+
+        long completed = System.nanoTime();
+        network.requestCompleted("2");
+        idle.get(1, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - completed >= QUIET_PERIOD.toNanos());
+    }
+
+    @Test
+    void requestStartedDuringQuietPeriodPostponesCompletion() throws Exception {
+        network.requestStarted("1");
+        network.requestCompleted("1");
+        CompletableFuture<Void> idle = network.awaitNetworkIdle(QUIET_PERIOD, TIMEOUT);
+
+        network.requestStarted("redirect");
+        Thread.sleep(2 * QUIET_PERIOD.toMillis());
+        assertFalse(idle.isDone());
+
+        network.requestCompleted("redirect");
+        idle.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void busyNetworkTimesOut() {
+        network.requestStarted("long-polling");
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> network.awaitNetworkIdle(QUIET_PERIOD, Duration.ofMillis(200)).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void networkActivityIsInjectedIntoTests() {
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(NetworkIdleTests.class))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.failed(0).succeeded(1));
+    }
+
+    @ExtendWith(StubbedDevToolsExtension.class)
+    static class NetworkIdleTests {
+
+        final StubDevTools devTools = new StubDevTools("network-idle");
+
+        @Test
+        void test(NetworkActivity network) throws Exception {
+            devTools.emit(Network.requestWillBeSent(), RequestWillBeSent.class,
+                    StubDevTools.requestWillBeSentJson("1", "Document", "GET", "https://app.test/"));
+            devTools.emit(Network.requestWillBeSent(), RequestWillBeSent.class,
+                    StubDevTools.requestWillBeSentJson("2", "Fetch", "GET", "https://app.test/api"));
+            assertEquals(2, network.inFlightCount());
+
+            CompletableFuture<Void> idle = network.awaitNetworkIdle(QUIET_PERIOD, TIMEOUT);
+            devTools.emit(Network.loadingFinished(), LoadingFinished.class,
+                    StubDevTools.loadingFinishedJson("1", 1024));
+            devTools.emit(Network.loadingFailed(), LoadingFailed.class,
+                    StubDevTools.loadingFailedJson("2", "Fetch", "net::ERR_ABORTED"));
+
+            idle.get(1, TimeUnit.SECONDS);
+            assertEquals(0, network.inFlightCount());
+        }
+    }
+}
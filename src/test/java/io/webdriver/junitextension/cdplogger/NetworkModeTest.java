@@ -0,0 +1,186 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.filter.BlockList;
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.v96.fetch.model.RequestPattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NetworkModeTest {
+
+    private static final int REQUESTS = 60;
+    private static final String[] RESOURCE_TYPES = {"Document", "Script", "Image", "Image", "Font", "XHR", "Fetch",
+            "Image", "Script", "XHR"};
+
+    @Test
+    void requestPatternsCoverFilterForFetchAndXhrAtBothStages() {
+        List<RequestPattern> patterns = DevToolsExtension.requestPatterns(UrlFilter.compile(
+                List.of("host:app.test", "glob:https://cdn.test/**.json", "/api/", "!/health")), BlockList.NONE);
+
+        assertEquals(6 * 4, patterns.size());
+        assertTrue(patterns.stream().anyMatch(pattern -> pattern.getUrlPattern().orElseThrow()
+                .equals("https://cdn.test/*.json")));
+        assertTrue(patterns.stream().anyMatch(pattern -> pattern.getUrlPattern().orElseThrow().equals("*/api/*")));
+        assertEquals(List.of("*"), UrlFilter.compile(List.of("!/health")).browserPatterns());
+        assertEquals(List.of("*"), UrlFilter.compile(List.of("host:app.test", "regex:\\d+")).browserPatterns());
+    }
+
+    @Test
+    void fetchModeReceivesOnlyMatchingRequests() {
+        Result full = run(NetworkMode.FULL);
+        Result fetch = run(NetworkMode.FETCH);
+
+        assertEquals(3 * REQUESTS, full.sentEvents);
+        assertEquals(full.responses, fetch.responses);
+        assertFalse(fetch.responses.isEmpty());
+        assertEquals(2 * fetch.responses.size(), fetch.sentEvents);
+        assertTrue(fetch.sentEvents * 5 < full.sentEvents, "network events drop: " + full.sentEvents
+                + " -> " + fetch.sentEvents);
+        assertEquals(fetch.sentEvents, fetch.networkEvents);
+        assertFalse(fetch.commands.contains("Network.enable"));
+        assertEquals(fetch.sentEvents, fetch.commands.stream().filter("Fetch.continueRequest"::equals).count());
+    }
+
+    private static Result run(NetworkMode mode) {
+        FakeBrowserExtension.handledEvents.clear();
+        CountingExtension.networkEvents.set(0);
+        try {
+            return FakeBrowserExtension.run(PageLoadTests.class, Map.of(DevToolsSettings.NETWORK_MODE, mode.name()), 1,
+                    server -> server.respondTo("Fetch.enable", params ->
+                    {
+                        PageLoadTests.patterns = FakeCdpServer.objects(params, "patterns");
+                        return Map.of();
+                    }),
+                    server -> new Result(server.sentEvents(), CountingExtension.networkEvents.get(),
+                            Set.copyOf(FakeBrowserExtension.handledEvents), List.copyOf(server.receivedCommands())));
+        } finally {
+            PageLoadTests.patterns = null;
+        }
+    }
+
+    private static final class Result {
+
+        private final long sentEvents;
+        private final long networkEvents;
+        private final Set<String> responses;
+        private final List<String> commands;
+
+        private Result(long sentEvents, long networkEvents, Set<String> responses, List<String> commands) {
+            this.sentEvents = sentEvents;
+            this.networkEvents = networkEvents;
+            this.responses = responses;
+            this.commands = commands;
+        }
+    }
+
+    /**
+     * Counts the network events each session received before it closes.
+     */
+    static class CountingExtension extends FakeBrowserExtension {
+
+        static final AtomicLong networkEvents = new AtomicLong();
+
+        @Override
+        protected void closeSession(ExtensionContext context, TestSession session, boolean testFailed)
+                throws Exception {
+            networkEvents.addAndGet(session.networkEventCount());
+            super.closeSession(context, session, testFailed);
+        }
+    }
+
+    /**
+     * Loads a page of application and third party requests. With the Fetch domain enabled the server sends only
+     * the paused requests matching the enabled patterns, as the browser does.
+     */
+    @ExtendWith(CountingExtension.class)
+    static class PageLoadTests {
+
+        static final String[] responseURLFilter = {"host:app.test"};
+        static volatile List<Map<String, Object>> patterns;
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        @Test
+        void pageLoad() throws Exception {
+            List<EventStream.Event> events = new ArrayList<>();
+            int expectedResponses = 0;
+            for (int i = 0; i < REQUESTS; i++) {
+                String id = String.valueOf(i);
+                String type = RESOURCE_TYPES[i % RESOURCE_TYPES.length];
+                String url = (i % 3 == 0 ? "https://ads.example/" : "https://app.test/") + type.toLowerCase() + "/"
+                        + i;
+                boolean published = (type.equals("XHR") || type.equals("Fetch")) && i % 3 != 0;
+                expectedResponses += published ? 1 : 0;
+                if (patterns == null) {
+                    events.add(EventStream.Event.requestWillBeSent(id, type, "GET", url));
+                    events.add(EventStream.Event.responseReceived(id, type, url, 200));
+                    events.add(EventStream.Event.loadingFinished(id, 100));
+                } else if (paused(type, url)) {
+                    events.add(EventStream.Event.requestPaused(id, type, "GET", url, null));
+                    events.add(EventStream.Event.requestPaused(id, type, "GET", url, 200));
+                }
+            }
+            FakeBrowserExtension.server.play(EventStream.of(events), 200).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((FakeBrowserExtension.handledEvents.size() < expectedResponses || patterns != null
+                    && continuedRequests() < events.size()) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        private static long continuedRequests() {
+            return FakeBrowserExtension.server.receivedCommands().stream().filter("Fetch.continueRequest"::equals)
+                    .count();
+        }
+
+        private static boolean paused(String type, String url) {
+            return patterns.stream().anyMatch(pattern -> type.equals(pattern.get("resourceType"))
+                    && wildcard((String) pattern.get("urlPattern")).matcher(url).matches());
+        }
+
+        private static Pattern wildcard(String urlPattern) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < urlPattern.length(); i++) {
+                char c = urlPattern.charAt(i);
+                if (c == '\\' && i + 1 < urlPattern.length()) {
+                    regex.append(Pattern.quote(String.valueOf(urlPattern.charAt(++i))));
+                } else if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+}
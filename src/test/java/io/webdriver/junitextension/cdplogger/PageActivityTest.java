@@ -0,0 +1,157 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageActivityTest {
+
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(100);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static final List<Map<String, Object>> bindings = new CopyOnWriteArrayList<>();
+
+    private final PageActivity page = new PageActivity();
+
+    @Test
+    void quietDomCompletesAfterQuietPeriod() throws Exception {
+        long start = System.nanoTime();
+        page.awaitDomQuiet(QUIET_PERIOD, TIMEOUT).get(1, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start < TIMEOUT.toNanos());
+    }
+
+    @Test
+    void mutationDuringQuietPeriodPostponesCompletion() throws Exception {
+        CompletableFuture<Void> quiet = page.awaitDomQuiet(QUIET_PERIOD, TIMEOUT);
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(QUIET_PERIOD.toMillis() / 2);
+            page.pushed(PageActivity.MUTATION);
+        }
+        assertFalse(quiet.isDone());
+
+        long mutated = System.nanoTime();
+        quiet.get(1, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - mutated >= QUIET_PERIOD.toNanos() / 2);
+        assertEquals(4, page.mutationCount());
+    }
+
+    @Test
+    void quietPeriodStartsAtTheCallWhenTheDomSettledEarlier() throws Exception {
+        page.pushed(PageActivity.MUTATION);
+        Thread.sleep(2 * QUIET_PERIOD.toMillis());
+
+        long start = System.nanoTime();
+        page.awaitDomQuiet(QUIET_PERIOD, TIMEOUT).get(1, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start >= QUIET_PERIOD.toNanos());
+    }
+
+    @Test
+    void newDocumentRestartsTheQuietPeriod() throws Exception {
+        CompletableFuture<Void> quiet = page.awaitDomQuiet(QUIET_PERIOD, TIMEOUT);
+        Thread.sleep(QUIET_PERIOD.toMillis() / 2);
+        page.pushed(PageActivity.DOCUMENT);
+
+        long loaded = System.nanoTime();
+        quiet.get(1, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - loaded >= QUIET_PERIOD.toNanos());
+        assertEquals(0, page.mutationCount());
+    }
+
+    @Test
+    void signalCompletesItsWaitsOnly() throws Exception {
+        CompletableFuture<Void> ready = page.awaitSignal("app-ready", TIMEOUT);
+        CompletableFuture<Void> checkout = page.awaitSignal("checkout-ready", TIMEOUT);
+
+        page.pushed(PageActivity.SIGNAL_PREFIX + "app-ready");
+
+        ready.get(1, TimeUnit.SECONDS);
+        assertFalse(checkout.isDone());
+        assertTrue(page.awaitSignal("app-ready", TIMEOUT).isDone());
+        assertEquals(Set.of("app-ready"), page.signals());
+
+        page.reset();
+        assertFalse(page.awaitSignal("app-ready", TIMEOUT).isDone());
+    }
+
+    @Test
+    void missingSignalTimesOut() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> page.awaitSignal("never", Duration.ofMillis(200)).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void bindingAndScriptAreInstalledOnceAndPushesCompleteWaits() {
+        bindings.clear();
+        List<String> commands = FakeBrowserExtension.run(SignalTests.class, Map.of(), 1, server ->
+        {
+            server.respondTo("Runtime.addBinding", params ->
+            {
+                bindings.add(params);
+                return Map.of();
+            });
+            server.respondTo("Page.addScriptToEvaluateOnNewDocument", params -> Map.of("identifier", "1"));
+            server.respondTo("Runtime.evaluate", params -> Map.of("result", Map.of("type", "undefined")));
+        });
+
+        assertEquals(List.of(Map.of("name", PageActivity.BINDING)), bindings);
+        assertEquals(1, commands.stream().filter("Page.addScriptToEvaluateOnNewDocument"::equals).count());
+        assertTrue(commands.indexOf("Runtime.addBinding") < commands.indexOf("Page.addScriptToEvaluateOnNewDocument"));
+    }
+
+    @ExtendWith(FakeBrowserExtension.class)
+    static class SignalTests {
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        /**
+         * The page mutates its DOM and then signals that it is ready. Both parameters share the installed binding.
+         */
+        @Test
+        void pageSignalsReady(PageActivity page, PageActivity samePage) throws Exception {
+            assertSame(page, samePage);
+            CompletableFuture<Void> ready = page.awaitSignal("app-ready", TIMEOUT);
+            FakeBrowserExtension.server.play(EventStream.of(List.of(
+                    EventStream.Event.bindingCalled(PageActivity.BINDING, PageActivity.MUTATION),
+                    EventStream.Event.bindingCalled("otherBinding", PageActivity.SIGNAL_PREFIX + "app-ready"),
+                    EventStream.Event.bindingCalled(PageActivity.BINDING, PageActivity.MUTATION),
+                    EventStream.Event.bindingCalled(PageActivity.BINDING,
+                            PageActivity.SIGNAL_PREFIX + "app-ready"))), 100).get(5, TimeUnit.SECONDS);
+
+            ready.get(5, TimeUnit.SECONDS);
+            page.awaitDomQuiet(QUIET_PERIOD, TIMEOUT).get(5, TimeUnit.SECONDS);
+            assertEquals(2, page.mutationCount());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.EventStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RawNetworkEventTest {
+
+    private static final Json JSON = new Json();
+    private static final int REQUESTS = 30;
+
+    private static RawNetworkEvent scan(Function<JsonInput, RawNetworkEvent> scanner, String paramsJson) {
+        try (JsonInput input = JSON.newInput(new StringReader(paramsJson))) {
+            return scanner.apply(input);
+        }
+    }
+
+    @Test
+    void requestIsScannedWithoutHeadersAndInitiator() {
+        RawNetworkEvent event = scan(RawNetworkEvent::scanRequestWillBeSent, "{\"requestId\":\"7\","
+                + "\"loaderId\":\"loader\",\"documentURL\":\"https://app.test/\","
+                + "\"request\":{\"url\":\"https://app.test/api\",\"method\":\"POST\","
+                + "\"headers\":{\"Accept\":\"*/*\",\"X-Trace\":[1,2,{\"nested\":true}]},\"postData\":\"{\\\"a\\\":1}\","
+                + "\"initialPriority\":\"High\",\"referrerPolicy\":\"no-referrer\"},\"timestamp\":12.5,"
+                + "\"wallTime\":1.0,\"initiator\":{\"type\":\"script\",\"stack\":{\"callFrames\":[]}},"
+                + "\"redirectResponse\":{\"url\":\"https://app.test/old\",\"status\":302,\"headers\":{}},"
+                + "\"type\":\"Fetch\"}");
+
+        assertEquals("7", event.requestId);
+        assertEquals("Fetch", event.resourceType);
+        assertEquals("POST", event.method);
+        assertEquals("https://app.test/api", event.url);
+        assertEquals("{\"a\":1}", event.postData);
+        assertEquals(12.5, event.timestamp);
+        assertEquals(302, event.redirectStatus);
+    }
+
+    @Test
+    void responseIsScannedWithTiming() {
+        RawNetworkEvent event = scan(RawNetworkEvent::scanResponseReceived, "{\"requestId\":\"7\","
+                + "\"loaderId\":\"loader\",\"timestamp\":13.0,\"type\":\"XHR\",\"response\":{"
+                + "\"url\":\"https://app.test/api\",\"status\":201,\"statusText\":\"Created\","
+                + "\"headers\":{\"Content-Type\":\"application/json\"},\"mimeType\":\"application/json\","
+                + "\"timing\":{\"requestTime\":12.5,\"proxyStart\":-1,\"proxyEnd\":-1,\"dnsStart\":0,\"dnsEnd\":2,"
+                + "\"connectStart\":2,\"connectEnd\":7,\"sslStart\":3,\"sslEnd\":7,\"workerStart\":-1,"
+                + "\"workerReady\":-1,\"workerFetchStart\":-1,\"workerRespondWithSettled\":-1,\"sendStart\":7,"
+                + "\"sendEnd\":7.5,\"pushStart\":0,\"pushEnd\":0,\"receiveHeadersEnd\":58.5},"
+                + "\"securityDetails\":{\"protocol\":\"TLS 1.3\",\"sanList\":[\"app.test\"]}}}");
+
+        assertEquals("XHR", event.resourceType);
+        assertEquals(201, event.status);
+        assertTrue(event.hasTiming());
+        assertEquals(12.5, event.requestTime);
+        assertEquals(7.0, event.connectEnd);
+        assertEquals(58.5, event.receiveHeadersEnd);
+    }
+
+    @Test
+    void responseWithoutTimingKeepsDefaults() {
+        RawNetworkEvent event = scan(RawNetworkEvent::scanResponseReceived,
+                StubDevTools.responseReceivedJson("1", "Image", "https://app.test/logo.png", 200));
+
+        assertEquals("Image", event.resourceType);
+        assertFalse(event.hasTiming());
+        assertNull(event.method);
+    }
+
+    @Test
+    void rawTapPublishesTheSameEventsAsTypedListeners() throws Exception {
+        List<EventStream.Event> events = new ArrayList<>();
+        String[] types = {"XHR", "Image", "Fetch", "Script"};
+        for (int i = 0; i < REQUESTS; i++) {
+            String type = types[i % types.length];
+            String url = "https://app.test/" + type.toLowerCase() + "/" + i;
+            events.add(EventStream.Event.requestWillBeSent(String.valueOf(i), type, "GET", url));
+            events.add(EventStream.Event.responseReceived(String.valueOf(i), type, url, 200));
+            events.add(EventStream.Event.loadingFinished(String.valueOf(i), 100));
+        }
+        EventStream stream = EventStream.of(events);
+
+        // the first events mapped in a fresh JVM load the model classes and may be overtaken by later ones
+        run(stream, false);
+        List<Set<String>> typed = run(stream, false);
+        List<Set<String>> raw = run(stream, true);
+
+        assertEquals(REQUESTS / 2, typed.get(0).size());
+        assertEquals(REQUESTS, typed.get(1).size());
+        assertTrue(typed.get(1).contains("network|https://app.test/image/1|200"));
+        assertEquals(typed, raw);
+    }
+
+    /**
+     * @return handled responses and completed requests
+     */
+    private static List<Set<String>> run(EventStream stream, boolean rawTap) {
+        FakeBrowserExtension.handledEvents.clear();
+        FakeBrowserExtension.completedRequests.clear();
+        NetworkTests.stream = stream;
+        try {
+            return FakeBrowserExtension.run(NetworkTests.class,
+                    Map.of(DevToolsSettings.NETWORK_RAW_TAP, String.valueOf(rawTap)), 1, server -> { },
+                    server -> List.of(Set.copyOf(FakeBrowserExtension.handledEvents),
+                            Set.copyOf(FakeBrowserExtension.completedRequests)));
+        } finally {
+            NetworkTests.stream = null;
+        }
+    }
+
+    /**
+     * Plays the stream against the fake server, see {@link FakeCdpServerTest.FakeBrowserTests}.
+     */
+    @ExtendWith(FakeBrowserExtension.class)
+    static class NetworkTests {
+
+        static EventStream stream;
+
+        ChromiumDriver driver;
+
+        @BeforeEach
+        void openBrowser() {
+            driver = FakeBrowserExtension.server.newDriver();
+        }
+
+        @AfterEach
+        void closeBrowser() {
+            driver.quit();
+        }
+
+        /**
+         * Selenium dispatches every event on its own thread, events are paced so those of a request keep their order.
+         */
+        @Test
+        void network() throws Exception {
+            FakeBrowserExtension.server.play(stream, 100).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (FakeBrowserExtension.completedRequests.size() < REQUESTS && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import io.webdriver.junitextension.cdplogger.sink.Slf4jEventSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.LoadingFinished;
+import org.openqa.selenium.devtools.v96.network.model.RequestWillBeSent;
+import org.openqa.selenium.devtools.v96.network.model.ResourceTiming;
+import org.openqa.selenium.devtools.v96.network.model.ResponseReceived;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+class RequestCorrelatorTest {
+
+    private final RequestCorrelator requests = new RequestCorrelator(2);
+
+    @Test
+    void eventsAreCorrelatedIntoOneRecord() {
+        String requestId = new String("1000.1");
+        assertNull(requests.requestWillBeSent(requestId, "GET", "https://app.test/api", "Fetch", 10.0, -1));
+        requests.responseReceived(new String("1000.1"), "Fetch", 200,
+                new ResourceTiming(10.001, -1, -1, 1, 3, 3, 8, 4, 8, -1, -1, -1, -1, 8.5, 9, -1, -1, 60));
+        RequestRecord record = requests.loadingFinished(new String("1000.1"), 10.1, 2048);
+
+        assertSame(requestId, record.requestId);
+        assertEquals("GET", record.method);
+        assertEquals(200, record.status);
+        assertEquals(2048, record.encodedDataLength);
+        assertEquals(100, record.durationMillis(), 0.001);
+        assertEquals(2, record.dnsMillis(), 0.001);
+        assertEquals(5, record.connectMillis(), 0.001);
+        assertEquals(4, record.sslMillis(), 0.001);
+        assertEquals(0.5, record.sendMillis(), 0.001);
+        assertEquals(51, record.waitMillis(), 0.001);
+        assertEquals(39, record.downloadMillis(), 0.001);
+        assertEquals(0, requests.pendingCount());
+        assertEquals("[GET] Completed request with URL : https://app.test/api : With status code : 200 : "
+                        + "100.0 ms, 2048 bytes (dns 2.0, connect 5.0, ssl 4.0, send 0.5, wait 51.0, download 39.0 ms)",
+                Slf4jEventSink.summary(record));
+    }
+
+    @Test
+    void redirectCompletesPreviousRecord() {
+        requests.requestWillBeSent("1", "GET", "http://app.test/", "Document", 1.0, -1);
+        RequestRecord redirected = requests.requestWillBeSent("1", "GET", "https://app.test/", "Document", 1.2, 301);
+
+        assertEquals(301, redirected.status);
+        assertEquals(200, redirected.durationMillis(), 0.001);
+        RequestRecord failed = requests.loadingFailed("1", 1.5, "net::ERR_ABORTED");
+        assertEquals("https://app.test/", failed.url);
+        assertTrue(failed.failed());
+        assertEquals(2, requests.completedCount());
+    }
+
+    @Test
+    void oldestIncompleteRequestIsEvicted() {
+        requests.requestWillBeSent("1", "GET", "https://app.test/1", "Fetch", 1.0, -1);
+        requests.requestWillBeSent("2", "GET", "https://app.test/2", "Fetch", 1.0, -1);
+        requests.requestWillBeSent("3", "GET", "https://app.test/3", "Fetch", 1.0, -1);
+
+        assertEquals(2, requests.pendingCount());
+        assertEquals(1, requests.evictedCount());
+        assertNull(requests.loadingFinished("1", 2.0, 0));
+        assertEquals("https://app.test/3", requests.loadingFinished("3", 2.0, 0).url);
+    }
+
+    @Test
+    void eventsOfUnknownRequestsAreIgnored() {
+        requests.responseReceived("unknown", "XHR", 200, null);
+
+        assertNull(requests.loadingFinished("unknown", 1.0, 0));
+        assertEquals(0, requests.completedCount());
+    }
+
+    @Test
+    void completedRequestIsPublished() {
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(CorrelatedRequestTests.class))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.failed(0).succeeded(1));
+
+        assertEquals(List.of("test|https://app.test/api", "test|https://app.test/api"),
+                StubbedDevToolsExtension.handledEvents.get("correlated-request"));
+    }
+
+    @ExtendWith(StubbedDevToolsExtension.class)
+    static class CorrelatedRequestTests {
+
+        final StubDevTools devTools = new StubDevTools("correlated-request");
+
+        @Test
+        void test() {
+            devTools.emit(Network.requestWillBeSent(), RequestWillBeSent.class,
+                    StubDevTools.requestWillBeSentJson("7", "Document", "GET", "https://app.test/api"));
+            devTools.emit(Network.responseReceived(), ResponseReceived.class,
+                    StubDevTools.responseReceivedJson("7", "XHR", "https://app.test/api", 200));
+            devTools.emit(Network.loadingFinished(), LoadingFinished.class,
+                    StubDevTools.loadingFinishedJson("7", 512));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.webdriver.junitextension.cdplogger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.junit.platform.testkit.engine.Events;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.testkit.engine.EventConditions.finishedWithFailure;
+import static org.junit.platform.testkit.engine.TestExecutionResultConditions.instanceOf;
+
+/**
+ * Sets up sessions against stubbed Dev Tools answering every command after {@value #LATENCY_MILLIS} ms.
+ */
+class SessionSetupTest {
+
+    private static final long LATENCY_MILLIS = 300;
+    private static final List<String> DOMAINS = List.of("Network.enable", "Log.enable", "Runtime.enable");
+
+    @Test
+    void domainsAreEnabledConcurrently() {
+        execute(Duration.ofSeconds(10)).assertStatistics(stats -> stats.succeeded(1));
+
+        SessionSetup setup = SlowBrowserTests.session.setup();
+        Map<String, Long> latencies = setup.latencies();
+        assertTrue(latencies.keySet().containsAll(DOMAINS), latencies::toString);
+        for (String command : DOMAINS) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(latencies.get(command)) >= LATENCY_MILLIS, command);
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(setup.totalNanos());
+        assertTrue(totalMillis < 2 * LATENCY_MILLIS,
+                () -> "enabling " + DOMAINS.size() + " domains took " + totalMillis + " ms: " + setup);
+    }
+
+    @Test
+    void setupFailsWhenDomainsAreNotEnabledInTime() {
+        execute(Duration.ofMillis(LATENCY_MILLIS / 3))
+                .assertThatEvents()
+                .haveExactly(1, finishedWithFailure(instanceOf(DevToolsException.class)));
+    }
+
+    @Test
+    void commandsStillRunningAtTheTimeoutAreCancelled() throws InterruptedException {
+        execute(Duration.ofMillis(LATENCY_MILLIS / 3));
+        Thread.sleep(2 * LATENCY_MILLIS);
+
+        StubDevTools devTools = SlowBrowserTests.lastDevTools;
+        assertTrue(DOMAINS.stream().noneMatch(devTools.sentCommands()::contains),
+                devTools.sentCommands()::toString);
+    }
+
+    private static Events execute(Duration setupTimeout) {
+        return EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(SlowBrowserTests.class))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .configurationParameter(DevToolsSettings.SETUP_TIMEOUT_MILLIS,
+                        String.valueOf(setupTimeout.toMillis()))
+                .execute()
+                .testEvents();
+    }
+
+    @ExtendWith(SlowBrowserTests.SessionRecordingExtension.class)
+    static class SlowBrowserTests {
+
+        static volatile TestSession session;
+
+        static volatile StubDevTools lastDevTools;
+
+        final StubDevTools devTools = new StubDevTools("slow-browser")
+                .withCommandLatency(Duration.ofMillis(LATENCY_MILLIS));
+
+        SlowBrowserTests() {
+            lastDevTools = devTools;
+        }
+
+        @Test
+        void test() {
+        }
+
+        static class SessionRecordingExtension extends StubbedDevToolsExtension {
+
+            @Override
+            protected TestSession openSession(ExtensionContext context, ExtensionContext.Store store, String key,
+                                              String name, DevTools devTools, DevToolsSettings settings)
+                    throws Exception {
+                session = super.openSession(context, store, key, name, devTools, settings);
+                return session;
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.testkit.engine.EngineTestKit;
+import org.openqa.selenium.devtools.v96.network.Network;
+import org.openqa.selenium.devtools.v96.network.model.ResponseReceived;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs synthetic tests against stubbed Dev Tools which take {@value #DETACH_MILLIS} ms to detach.
+ */
+class SessionTeardownTest {
+
+    private static final long DETACH_MILLIS = 400;
+
+    @Test
+    void nextTestStartsWhileSessionIsDetaching() {
+        long start = System.nanoTime();
+        execute(SlowDetachTests.class, Duration.ofSeconds(10), 3);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        List<Long> gaps = SlowDetachTests.gapsBetweenTestsMillis();
+        assertEquals(2, gaps.size());
+        for (long gap : gaps) {
+            assertTrue(gap < DETACH_MILLIS, () -> "next test waited " + gap + " ms for teardown");
+        }
+        assertTrue(elapsedMillis < 3 * DETACH_MILLIS, () -> "run took " + elapsedMillis + " ms");
+
+        assertEquals(3, SlowDetachTests.stubs.size());
+        for (StubDevTools stub : SlowDetachTests.stubs) {
+            assertEquals(1, stub.closeCount(), "teardown was not awaited before the run finished");
+            assertEquals(1, StubbedDevToolsExtension.handledEvents.get(stub.id()).size());
+        }
+        SessionTeardown teardown = TeardownRecordingExtension.teardown;
+        assertEquals(3, teardown.completedCount());
+        assertEquals(0, teardown.timedOutCount());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(teardown.maxNanos()) >= DETACH_MILLIS);
+    }
+
+    @Test
+    void teardownExceedingDeadlineIsCountedAndEventsAreStillWritten() {
+        long start = System.nanoTime();
+        execute(SlowDetachTests.class, Duration.ofMillis(DETACH_MILLIS / 4), 3);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 3 * DETACH_MILLIS, () -> "run took " + elapsedMillis + " ms");
+        SessionTeardown teardown = TeardownRecordingExtension.teardown;
+        assertEquals(3, teardown.timedOutCount());
+        for (StubDevTools stub : SlowDetachTests.stubs) {
+            assertEquals(1, StubbedDevToolsExtension.handledEvents.get(stub.id()).size());
+        }
+    }
+
+    @Test
+    void sessionOnSharedDevToolsWaitsForPreviousTeardown() {
+        execute(SharedSlowDetachTests.class, Duration.ofSeconds(10), 2);
+
+        StubDevTools stub = SharedSlowDetachTests.devTools;
+        assertEquals(2, stub.sessionsCreated());
+        assertEquals(2, stub.closeCount());
+        assertFalse(stub.hasListeners());
+        assertEquals(List.of("first|https://app.test/first", "second|https://app.test/second"),
+                StubbedDevToolsExtension.handledEvents.get(stub.id()));
+    }
+
+    @Test
+    void sessionOnSharedDevToolsWaitsForTeardownPastItsDeadline() {
+        execute(SharedPastDeadlineTests.class, Duration.ofMillis(DETACH_MILLIS / 4), 2);
+
+        StubDevTools stub = SharedPastDeadlineTests.devTools;
+        assertEquals(2, stub.closeCount());
+        assertEquals(0, stub.sessionsCreatedWhileClosing());
+        assertEquals(List.of("first|https://app.test/first", "second|https://app.test/second"),
+                StubbedDevToolsExtension.handledEvents.get(stub.id()));
+    }
+
+    @Test
+    void eventsAreWrittenBeforeTheSessionIsHandedToTheTeardown() {
+        execute(SlowDisableTests.class, Duration.ofSeconds(10), 2);
+
+        assertEquals(List.of("first"), SlowDisableTests.flushedBeforeSecondTest);
+    }
+
+    private static void execute(Class<?> testClass, Duration teardownTimeout, int tests) {
+        SlowDetachTests.stubs.clear();
+        SlowDetachTests.testTimes.clear();
+        EngineTestKit.engine("junit-jupiter")
+                .selectors(selectClass(testClass))
+                .configurationParameter(StubbedDevToolsExtension.SYNTHETIC_TESTS_ENABLED, "true")
+                .configurationParameter(DevToolsSettings.TEARDOWN_ASYNC, "true")
+                .configurationParameter(DevToolsSettings.TEARDOWN_TIMEOUT_MILLIS,
+                        String.valueOf(teardownTimeout.toMillis()))
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.failed(0).succeeded(tests));
+    }
+
+    private static void emitResponse(StubDevTools devTools, String name) {
+        devTools.emit(Network.responseReceived(), ResponseReceived.class,
+                StubDevTools.responseReceivedJson(name, "XHR", "https://app.test/" + name, 200));
+    }
+
+    static class TeardownRecordingExtension extends StubbedDevToolsExtension {
+
+        static volatile SessionTeardown teardown;
+
+        @Override
+        protected SessionTeardown teardown(ExtensionContext context) {
+            teardown = super.teardown(context);
+            return teardown;
+        }
+    }
+
+    @ExtendWith(TeardownRecordingExtension.class)
+    static class SlowDetachTests {
+
+        private static final AtomicInteger counter = new AtomicInteger();
+        static final List<StubDevTools> stubs = new CopyOnWriteArrayList<>();
+        static final List<long[]> testTimes = new CopyOnWriteArrayList<>();
+
+        final StubDevTools devTools = new StubDevTools("slow-detach-" + counter.incrementAndGet())
+                .withDetachLatency(Duration.ofMillis(DETACH_MILLIS));
+
+        static List<Long> gapsBetweenTestsMillis() {
+            List<Long> gaps = new ArrayList<>();
+            for (int i = 1; i < testTimes.size(); i++) {
+                gaps.add(TimeUnit.NANOSECONDS.toMillis(testTimes.get(i)[0] - testTimes.get(i - 1)[1]));
+            }
+            return gaps;
+        }
+
+        private void run() {
+            long start = System.nanoTime();
+            emitResponse(devTools, devTools.id());
+            stubs.add(devTools);
+            testTimes.add(new long[]{start, System.nanoTime()});
+        }
+
+        @Test
+        void first() {
+            run();
+        }
+
+        @Test
+        void second() {
+            run();
+        }
+
+        @Test
+        void third() {
+            run();
+        }
+    }
+
+    @ExtendWith(TeardownRecordingExtension.class)
+    @TestMethodOrder(MethodOrderer.MethodName.class)
+    static class SharedSlowDetachTests {
+
+        static final StubDevTools devTools = new StubDevTools("shared-slow-detach")
+                .withDetachLatency(Duration.ofMillis(DETACH_MILLIS));
+
+        @Test
+        void first() {
+            emitResponse(devTools, "first");
+        }
+
+        @Test
+        void second() {
+            emitResponse(devTools, "second");
+        }
+    }
+
+    @ExtendWith(TeardownRecordingExtension.class)
+    @TestMethodOrder(MethodOrderer.MethodName.class)
+    static class SharedPastDeadlineTests {
+
+        static final StubDevTools devTools = new StubDevTools("shared-past-deadline")
+                .withDetachLatency(Duration.ofMillis(DETACH_MILLIS));
+
+        @Test
+        void first() {
+            emitResponse(devTools, "first");
+        }
+
+        @Test
+        void second() {
+            emitResponse(devTools, "second");
+        }
+    }
+
+    /**
+     * Records the tests whose session output was flushed.
+     */
+    static class FlushRecordingExtension extends TeardownRecordingExtension {
+
+        static final List<String> flushedTests = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected EventHandler createEventHandler(ExtensionContext context) {
+            EventHandler handler = super.createEventHandler(context);
+            String testName = context.getRequiredTestMethod().getName();
+            return new EventHandler() {
+                @Override
+                public void onEvent(CdpEvent event) {
+                    handler.onEvent(event);
+                }
+
+                @Override
+                public void flush() {
+                    flushedTests.add(testName);
+                    handler.flush();
+                }
+            };
+        }
+    }
+
+    /**
+     * The second test starts while the listeners of the first one are still being removed in the background.
+     */
+    @ExtendWith(FlushRecordingExtension.class)
+    @TestMethodOrder(MethodOrderer.MethodName.class)
+    static class SlowDisableTests {
+
+        static volatile List<String> flushedBeforeSecondTest;
+
+        final StubDevTools devTools = new StubDevTools("slow-disable")
+                .withDisableLatency(Duration.ofMillis(DETACH_MILLIS));
+
+        @Test
+        void first() {
+            FlushRecordingExtension.flushedTests.clear();
+            emitResponse(devTools, "first");
+        }
+
+        @Test
+        void second() {
+            flushedBeforeSecondTest = List.copyOf(FlushRecordingExtension.flushedTests);
+            emitResponse(devTools, "second");
+        }
+    }
+}
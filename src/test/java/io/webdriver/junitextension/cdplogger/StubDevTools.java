@@ -0,0 +1,179 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.fixtures.NoOpHttpClient;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.v96.V96Domains;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * {@link DevTools} without a browser: commands are acknowledged immediately, or after a configured latency, and
+ * events are emitted by the test from JSON, deserialized by the same v96 model classes Selenium uses.
+ */
+class StubDevTools extends DevTools {
+
+    private static final Json JSON = new Json();
+
+    private final String id;
+    private final Map<String, List<Consumer<?>>> listeners = new ConcurrentHashMap<>();
+    private final List<String> sentCommands = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sessionsCreated = new AtomicInteger();
+    private final AtomicInteger closeCount = new AtomicInteger();
+    private final AtomicInteger closing = new AtomicInteger();
+    private final AtomicInteger sessionsCreatedWhileClosing = new AtomicInteger();
+    private volatile Duration commandLatency = Duration.ZERO;
+    private volatile Duration detachLatency = Duration.ZERO;
+    private volatile Duration disableLatency = Duration.ZERO;
+
+    StubDevTools(String id) {
+        super(V96Domains::new, new Connection(new NoOpHttpClient(), "ws://stub/" + id));
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * Delays the acknowledgement of every command, emulating a slow browser.
+     */
+    StubDevTools withCommandLatency(Duration commandLatency) {
+        this.commandLatency = commandLatency;
+        return this;
+    }
+
+    /**
+     * Delays {@link #close()}, emulating a browser that is slow to detach.
+     */
+    StubDevTools withDetachLatency(Duration detachLatency) {
+        this.detachLatency = detachLatency;
+        return this;
+    }
+
+    @Override
+    public void createSession() {
+        sessionsCreated.incrementAndGet();
+        if (closing.get() > 0) {
+            sessionsCreatedWhileClosing.incrementAndGet();
+        }
+    }
+
+    /**
+     * Delays {@link #clearListeners()}, emulating a browser that is slow to acknowledge the disabled domains.
+     */
+    StubDevTools withDisableLatency(Duration disableLatency) {
+        this.disableLatency = disableLatency;
+        return this;
+    }
+
+    @Override
+    public <X> X send(Command<X> command) {
+        sleep(commandLatency);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new DevToolsException("Interrupted waiting for " + command.getMethod());
+        }
+        sentCommands.add(command.getMethod());
+        return null;
+    }
+
+    @Override
+    public <X> void addListener(Event<X> event, Consumer<X> handler) {
+        listeners.computeIfAbsent(event.getMethod(), method -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @Override
+    public void clearListeners() {
+        sleep(disableLatency);
+        listeners.clear();
+    }
+
+    @Override
+    public void close() {
+        closing.incrementAndGet();
+        sleep(detachLatency);
+        closeCount.incrementAndGet();
+        closing.decrementAndGet();
+    }
+
+    private static void sleep(Duration latency) {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <X> void emit(Event<X> event, Class<X> type, String paramsJson) {
+        X value = JSON.toType(paramsJson, type);
+        for (Consumer<?> listener : listeners.getOrDefault(event.getMethod(), List.of())) {
+            ((Consumer<X>) listener).accept(value);
+        }
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    List<String> sentCommands() {
+        return sentCommands;
+    }
+
+    int sessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    /**
+     * @return sessions created while a previous session was still detaching, which the detach would end
+     */
+    int sessionsCreatedWhileClosing() {
+        return sessionsCreatedWhileClosing.get();
+    }
+
+    int closeCount() {
+        return closeCount.get();
+    }
+
+    static String responseReceivedJson(String requestId, String type, String url, int status) {
+        return "{\"requestId\":\"" + requestId + "\",\"loaderId\":\"loader\",\"timestamp\":1.0,"
+                + "\"type\":\"" + type + "\",\"response\":{\"url\":\"" + url + "\",\"status\":" + status + ","
+                + "\"statusText\":\"\",\"headers\":{},\"mimeType\":\"application/json\",\"connectionReused\":false,"
+                + "\"connectionId\":0,\"encodedDataLength\":0,\"securityState\":\"secure\"}}";
+    }
+
+    static String requestWillBeSentJson(String requestId, String type, String method, String url) {
+        return "{\"requestId\":\"" + requestId + "\",\"loaderId\":\"loader\",\"documentURL\":\"" + url + "\","
+                + "\"request\":{\"url\":\"" + url + "\",\"method\":\"" + method + "\",\"headers\":{},"
+                + "\"initialPriority\":\"High\",\"referrerPolicy\":\"no-referrer\"},"
+                + "\"timestamp\":1.0,\"wallTime\":1.0,\"initiator\":{\"type\":\"script\"},"
+                + "\"type\":\"" + type + "\"}";
+    }
+
+    static String loadingFinishedJson(String requestId, long encodedDataLength) {
+        return "{\"requestId\":\"" + requestId + "\",\"timestamp\":2.0,\"encodedDataLength\":" + encodedDataLength + "}";
+    }
+
+    static String loadingFailedJson(String requestId, String type, String errorText) {
+        return "{\"requestId\":\"" + requestId + "\",\"timestamp\":2.0,\"type\":\"" + type + "\","
+                + "\"errorText\":\"" + errorText + "\"}";
+    }
+
+    static String logEntryJson(String level, String text) {
+        return "{\"source\":\"javascript\",\"level\":\"" + level + "\",\"text\":\"" + text + "\","
+                + "\"timestamp\":1.0}";
+    }
+}
@@ -0,0 +1,59 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.pipeline.EventHandler;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link DevToolsExtension} for synthetic test classes run through {@code EngineTestKit}. Dev Tools are taken from a
+ * {@link StubDevTools} field named {@code 'devTools'} and handled events are recorded per stub as
+ * {@code "testName|url"} instead of being logged.
+ */
+class StubbedDevToolsExtension extends DevToolsExtension implements ExecutionCondition {
+
+    static final String SYNTHETIC_TESTS_ENABLED = "cdplogger.test.synthetic";
+
+    static final Map<String, List<String>> handledEvents = new ConcurrentHashMap<>();
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        return context.getConfigurationParameter(SYNTHETIC_TESTS_ENABLED, Boolean::parseBoolean).orElse(false)
+                ? ConditionEvaluationResult.enabled("launched by EngineTestKit")
+                : ConditionEvaluationResult.disabled("synthetic tests run only through EngineTestKit");
+    }
+
+    @Override
+    protected DevTools resolveDevTools(ExtensionContext context) throws Exception {
+        return stub(context);
+    }
+
+    @Override
+    protected EventHandler createEventHandler(ExtensionContext context) {
+        try {
+            List<String> events = handledEvents.computeIfAbsent(stub(context).id(),
+                    key -> new CopyOnWriteArrayList<>());
+            return event -> events.add(event.testName + "|" + event.url);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static StubDevTools stub(ExtensionContext context) throws ReflectiveOperationException {
+        Field field = context.getRequiredTestClass().getDeclaredField("devTools");
+        field.setAccessible(true);
+        if (Modifier.isStatic(field.getModifiers())) {
+            return (StubDevTools) field.get(null);
+        }
+        Object testInstance = context.getTestInstance().orElse(null);
+        return testInstance == null ? null : (StubDevTools) field.get(testInstance);
+    }
+}
@@ -0,0 +1,131 @@
+package io.webdriver.junitextension.cdplogger;
+
+import io.webdriver.junitextension.cdplogger.filter.UrlFilter;
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestClassAccessorsTest {
+
+    @Test
+    void driverAndFilterAreFoundInSuperclass() throws Exception {
+        TestClassAccessors accessors = TestClassAccessors.forClass(SubclassTest.class);
+
+        assertTrue(accessors.hasDriver());
+        assertNull(accessors.driver(new SubclassTest()));
+        assertEquals("app.test", accessors.responseURLFilter(new SubclassTest()));
+    }
+
+    @Test
+    void anyChromiumDriverFieldIsUsedWithoutDriverField() {
+        assertTrue(TestClassAccessors.forClass(RenamedDriverTest.class).hasDriver());
+    }
+
+    @Test
+    void missingFilterFieldIsAbsentAccessor() {
+        assertNull(TestClassAccessors.forClass(RenamedDriverTest.class).responseURLFilter(new RenamedDriverTest()));
+    }
+
+    @Test
+    void filterPatternsAreCompiledOncePerClass() {
+        TestClassAccessors accessors = TestClassAccessors.forClass(PatternsTest.class);
+        UrlFilter filter = accessors.urlFilter(new PatternsTest());
+
+        assertEquals(List.of("host:app.test", "!/health"), accessors.urlFilterPatterns(new PatternsTest()));
+        assertNull(accessors.responseURLFilter(new PatternsTest()));
+        assertTrue(filter.test("https://api.app.test/items"));
+        assertFalse(filter.test("https://app.test/health"));
+        assertSame(filter, accessors.urlFilter(new PatternsTest()));
+        assertSame(UrlFilter.ALL, TestClassAccessors.forClass(RenamedDriverTest.class)
+                .urlFilter(new RenamedDriverTest()));
+    }
+
+    @Test
+    void missingDriverFieldFailsLikeBefore() {
+        TestClassAccessors accessors = TestClassAccessors.forClass(NoDriverTest.class);
+
+        assertFalse(accessors.hasDriver());
+        NoSuchFieldException e = assertThrows(NoSuchFieldException.class, () -> accessors.driver(new NoDriverTest()));
+        assertTrue(e.getMessage().contains(NoDriverTest.class.getName()));
+    }
+
+    @Test
+    void unsupportedDriverTypeIsRejected() {
+        TestClassAccessors accessors = TestClassAccessors.forClass(FirefoxTest.class);
+
+        assertThrows(IllegalArgumentException.class, () -> accessors.driver(new FirefoxTest()));
+    }
+
+    @Test
+    void driverIsInjectedIntoInstanceFieldOnly() throws Exception {
+        try (FakeCdpServer server = FakeCdpServer.start()) {
+            ChromiumDriver driver = server.newDriver();
+            SubclassTest test = new SubclassTest();
+            TestClassAccessors accessors = TestClassAccessors.forClass(SubclassTest.class);
+
+            accessors.injectDriver(test, driver);
+            assertSame(driver, accessors.driver(test));
+            accessors.injectDriver(test, null);
+            assertNull(accessors.driver(test));
+            assertThrows(IllegalArgumentException.class, () -> TestClassAccessors.forClass(RenamedDriverTest.class)
+                    .injectDriver(new RenamedDriverTest(), driver));
+            assertThrows(IllegalArgumentException.class, () -> TestClassAccessors.forClass(StaticDriverTest.class)
+                    .injectDriver(new StaticDriverTest(), driver));
+        }
+    }
+
+    @Test
+    void accessorsAreResolvedOncePerClass() {
+        TestClassAccessors first = TestClassAccessors.forClass(CountedTest.class);
+        long misses = TestClassAccessors.cacheMisses();
+        long hits = TestClassAccessors.cacheHits();
+
+        assertSame(first, TestClassAccessors.forClass(CountedTest.class));
+        assertEquals(misses, TestClassAccessors.cacheMisses());
+        assertTrue(TestClassAccessors.cacheHits() > hits);
+    }
+
+    static class BaseTest {
+        static final String responseURLFilter = "app.test";
+        protected WebDriver driver;
+    }
+
+    static class SubclassTest extends BaseTest {
+    }
+
+    static class PatternsTest {
+        static final String[] responseURLFilter = {"host:app.test", "!/health"};
+        private ChromiumDriver driver;
+    }
+
+    static class RenamedDriverTest {
+        private ChromeDriver chrome;
+    }
+
+    static class NoDriverTest {
+    }
+
+    static class FirefoxTest {
+        private FirefoxDriver driver;
+    }
+
+    static class StaticDriverTest {
+        static ChromiumDriver driver;
+    }
+
+    static class CountedTest {
+        private ChromiumDriver driver;
+    }
+}
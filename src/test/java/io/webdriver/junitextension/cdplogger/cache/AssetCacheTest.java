@@ -0,0 +1,148 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetCacheTest {
+
+    private static final List<Map.Entry<String, String>> CACHEABLE = List.of(
+            Map.entry("Content-Type", "text/javascript"),
+            Map.entry("Cache-Control", "public, max-age=3600"),
+            Map.entry("Content-Encoding", "gzip"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storedAssetIsServedWithReplayedHeaders() throws Exception {
+        AssetCache cache = AssetCache.open(directory, 1024 * 1024);
+        byte[] body = "console.log(1)".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(cache.lookup("https://app.test/app.js").isEmpty());
+        assertTrue(cache.store("https://app.test/app.js", 200, CACHEABLE, body));
+
+        CachedAsset asset = cache.lookup("https://app.test/app.js").orElseThrow();
+        assertEquals(200, asset.status());
+        assertArrayEquals(body, asset.body());
+        assertEquals(List.of(Map.entry("Content-Type", "text/javascript"),
+                Map.entry("Cache-Control", "public, max-age=3600")), asset.headers());
+    }
+
+    @Test
+    void sameBodyIsStoredOnce() throws Exception {
+        AssetCache cache = AssetCache.open(directory, 1024 * 1024);
+        byte[] body = new byte[1000];
+
+        cache.store("https://app.test/app.js?v=1", 200, CACHEABLE, body);
+        cache.store("https://app.test/app.js?v=2", 200, CACHEABLE, body);
+
+        assertEquals(2, cache.entryCount());
+        assertEquals(1000, cache.size());
+        try (Stream<Path> files = Files.walk(directory.resolve("objects"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void responsesWithoutExplicitFreshnessAreNotStored() throws Exception {
+        AssetCache cache = AssetCache.open(directory, 1024 * 1024);
+        byte[] body = new byte[10];
+
+        assertFalse(cache.store("https://app.test/a.js", 200, List.of(), body));
+        assertFalse(cache.store("https://app.test/b.js", 200, List.of(Map.entry("cache-control", "no-store")), body));
+        assertFalse(cache.store("https://app.test/c.js", 200,
+                List.of(Map.entry("Cache-Control", "private, max-age=60")), body));
+        assertFalse(cache.store("https://app.test/d.js", 200,
+                List.of(Map.entry("Cache-Control", "max-age=60"), Map.entry("Vary", "Cookie")), body));
+        assertFalse(cache.store("https://app.test/e.js", 404, CACHEABLE, body));
+        assertFalse(cache.store("https://app.test/f.js", 200,
+                List.of(Map.entry("Cache-Control", "max-age=60"), Map.entry("Age", "60")), body));
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test
+    void freshnessFollowsCacheHeaders() {
+        assertEquals(120_000, CachePolicy.freshnessMillis(200, List.of(
+                Map.entry("Cache-Control", "max-age=60, s-maxage=\"180\""), Map.entry("Age", "60"))));
+        assertEquals(3_600_000, CachePolicy.freshnessMillis(200, List.of(
+                Map.entry("Date", "Tue, 15 Nov 1994 08:12:31 GMT"),
+                Map.entry("Expires", "Tue, 15 Nov 1994 09:12:31 GMT"),
+                Map.entry("Vary", "Accept-Encoding"))));
+        assertEquals(CachePolicy.NOT_STORABLE, CachePolicy.freshnessMillis(200, List.of(
+                Map.entry("Expires", "0"))));
+    }
+
+    @Test
+    void expiredEntryIsMissedAndRemoved() throws Exception {
+        AssetCache cache = AssetCache.open(directory, 1024 * 1024);
+        cache.store("https://app.test/app.js", 200, List.of(Map.entry("Cache-Control", "max-age=1"),
+                Map.entry("Age", "0")), new byte[10]);
+        assertTrue(cache.lookup("https://app.test/app.js").isPresent());
+
+        Thread.sleep(1100);
+
+        assertTrue(cache.lookup("https://app.test/app.js").isEmpty());
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test
+    void leastRecentlyUsedBodiesAreEvicted() throws Exception {
+        AssetCache cache = AssetCache.open(directory, 3000);
+        for (int i = 0; i < 3; i++) {
+            cache.store("https://app.test/" + i + ".png", 200, CACHEABLE, body(i, 1000));
+            ageObjects(directory);
+        }
+        cache.lookup("https://app.test/0.png").orElseThrow();
+
+        cache.store("https://app.test/3.png", 200, CACHEABLE, body(3, 1000));
+
+        assertTrue(cache.lookup("https://app.test/0.png").isPresent());
+        assertTrue(cache.lookup("https://app.test/1.png").isEmpty());
+        assertTrue(cache.lookup("https://app.test/2.png").isEmpty());
+        assertTrue(cache.lookup("https://app.test/3.png").isPresent());
+        assertEquals(2000, cache.size());
+    }
+
+    @Test
+    void forksShareTheDirectory() throws Exception {
+        AssetCache first = AssetCache.open(directory, 1024 * 1024);
+        first.store("https://app.test/app.css", 200, CACHEABLE, body(1, 500));
+
+        AssetCache second = AssetCache.open(directory, 1024 * 1024);
+
+        assertEquals(500, second.size());
+        assertArrayEquals(body(1, 500), second.lookup("https://app.test/app.css").orElseThrow().body());
+    }
+
+    private static byte[] body(int seed, int size) {
+        byte[] body = new byte[size];
+        body[0] = (byte) seed;
+        return body;
+    }
+
+    /**
+     * Moves the access time of all bodies a minute back, so those touched later are more recently used whatever
+     * the file system time resolution.
+     */
+    private static void ageObjects(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory.resolve("objects"))) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis()
+                        - 60_000));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.webdriver.junitextension.cdplogger.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginSnapshotCacheTest {
+
+    private static final Map<String, String> COOKIE = Map.of("name", "sid", "value", "s3cr3t", "domain", "app.test",
+            "path", "/", "secure", "true", "httpOnly", "true", "sameSite", "Lax");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotIsReadBackByAnotherCacheOnTheSameDirectory() throws Exception {
+        LoginSnapshotCache cache = LoginSnapshotCache.open(directory, Duration.ofMinutes(30));
+        assertTrue(cache.lookup("admin").isEmpty());
+
+        cache.store("admin", snapshot(System.currentTimeMillis() + 60_000));
+
+        LoginSnapshot snapshot = LoginSnapshotCache.open(directory, Duration.ofMinutes(30)).lookup("admin")
+                .orElseThrow();
+        assertEquals(List.of(COOKIE), snapshot.cookies());
+        assertEquals("https://app.test", snapshot.origin());
+        assertEquals(Map.of("token", "abc", "theme", "dark"), snapshot.localStorage());
+        assertEquals(Duration.ofMillis(3500), snapshot.loginTime());
+        assertTrue(cache.lookup("viewer").isEmpty());
+    }
+
+    @Test
+    void memoryOnlyCacheWritesNothing() throws Exception {
+        LoginSnapshotCache cache = LoginSnapshotCache.open(null, Duration.ofMinutes(30));
+        cache.store("admin", snapshot(System.currentTimeMillis() + 60_000));
+
+        assertEquals(List.of(COOKIE), cache.lookup("admin").orElseThrow().cookies());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void expiredAndInvalidatedSnapshotsAreDropped() throws Exception {
+        LoginSnapshotCache cache = LoginSnapshotCache.open(directory, Duration.ofMinutes(30));
+        cache.store("admin", snapshot(System.currentTimeMillis() - 1));
+        cache.store("viewer", snapshot(System.currentTimeMillis() + 60_000));
+
+        assertTrue(cache.lookup("admin").isEmpty());
+        cache.invalidate("viewer");
+        assertTrue(cache.lookup("viewer").isEmpty());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void snapshotWithoutStorageHasNoOrigin() throws Exception {
+        LoginSnapshotCache cache = LoginSnapshotCache.open(directory, Duration.ofMinutes(30));
+        cache.store("admin", new LoginSnapshot(List.of(COOKIE), null, Map.of(), Duration.ofSeconds(3),
+                System.currentTimeMillis() + 60_000));
+
+        LoginSnapshot snapshot = LoginSnapshotCache.open(directory, Duration.ofMinutes(30)).lookup("admin")
+                .orElseThrow();
+        assertNull(snapshot.origin());
+        assertTrue(snapshot.localStorage().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> LoginSnapshotCache.open(directory, Duration.ZERO));
+    }
+
+    private static LoginSnapshot snapshot(long expiresMillis) {
+        return new LoginSnapshot(List.of(COOKIE), "https://app.test", Map.of("token", "abc", "theme", "dark"),
+                Duration.ofMillis(3500), expiresMillis);
+    }
+}
@@ -0,0 +1,50 @@
+package io.webdriver.junitextension.cdplogger.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockListTest {
+
+    @Test
+    void patternsMatchAnywhereInTheUrl() {
+        BlockList blockList = BlockList.of(List.of("*://*.doubleclick.net/*", "*.woff2", "analytics"));
+
+        assertTrue(blockList.matches("https://ad.doubleclick.net/pixel?id=1"));
+        assertTrue(blockList.matches("https://fonts.test/roboto.woff2"));
+        assertTrue(blockList.matches("https://fonts.test/roboto.woff2?v=2"));
+        assertTrue(blockList.matches("https://app.test/js/analytics.js"));
+        assertFalse(blockList.matches("https://app.test/doubleclick.net/"));
+        assertFalse(blockList.matches("https://fonts.test/roboto.woff"));
+    }
+
+    @Test
+    void onlyTheStarIsAWildcard() {
+        BlockList blockList = BlockList.of(List.of("/search?q=", "*\\tmp*"));
+
+        assertTrue(blockList.matches("https://app.test/search?q=ads"));
+        assertFalse(blockList.matches("https://app.test/searchXq=ads"));
+        assertTrue(blockList.matches("file:///C:\\tmp\\a.js"));
+    }
+
+    @Test
+    void fetchPatternsMatchTheSameUrls() {
+        BlockList blockList = BlockList.of(List.of("*://ads.example/*", "*.woff2", "/search?q=", "*\\tmp*"));
+
+        assertEquals(List.of("*://ads.example/*", "*.woff2*", "*/search\\?q=*", "*\\\\tmp*"),
+                blockList.fetchPatterns());
+    }
+
+    @Test
+    void blankAndRepeatedPatternsAreIgnored() {
+        assertSame(BlockList.NONE, BlockList.of(Arrays.asList(" ", null)));
+        assertEquals(List.of("*.png", "*.gif"), BlockList.of(List.of("*.png", " *.gif", "*.png")).patterns());
+        assertFalse(BlockList.NONE.matches("https://app.test/"));
+    }
+}
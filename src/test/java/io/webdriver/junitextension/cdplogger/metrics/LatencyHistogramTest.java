@@ -0,0 +1,77 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final int VALUES = 100_000;
+
+    private final long[] values = new Random(42).longs(VALUES, 1, 30_000_000).sorted().toArray();
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1, 50, 90, 99, 99.9, 100})
+    void percentilesAreWithinRelativeAccuracy(double percentile) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Arrays.stream(values).forEach(histogram::record);
+
+        long exact = values[(int) Math.ceil(percentile / 100 * VALUES) - 1];
+        long estimated = histogram.valueAtPercentile(percentile);
+        assertTrue(Math.abs(estimated - exact) <= exact * LatencyHistogram.RELATIVE_ACCURACY + 1,
+                () -> "p" + percentile + " estimated " + estimated + " exact " + exact);
+    }
+
+    @Test
+    void mergedHistogramEqualsHistogramOfAllValues() {
+        LatencyHistogram all = new LatencyHistogram();
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 0; i < VALUES; i++) {
+            all.record(values[i]);
+            (i % 3 == 0 ? first : second).record(values[i]);
+        }
+        first.merge(second);
+
+        assertEquals(all.encode(), first.encode());
+        assertEquals(all.valueAtPercentile(99), first.valueAtPercentile(99));
+    }
+
+    @Test
+    void encodedHistogramIsDecodedExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Arrays.stream(values, 0, 1000).forEach(histogram::record);
+
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+        assertEquals(histogram.encode(), decoded.encode());
+        assertEquals(histogram.min(), decoded.min());
+        assertEquals(histogram.max(), decoded.max());
+        assertEquals(histogram.mean(), decoded.mean());
+        assertEquals("0 0 0 0 ", new LatencyHistogram().encode());
+        assertEquals(0, LatencyHistogram.decode("0 0 0 0 ").count());
+    }
+
+    @Test
+    void concurrentRecordingLosesNoValues() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> Arrays.stream(values).forEach(histogram::record));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(8L * VALUES, histogram.count());
+        assertEquals(values[0], histogram.min());
+        assertEquals(values[VALUES - 1], histogram.max());
+    }
+}
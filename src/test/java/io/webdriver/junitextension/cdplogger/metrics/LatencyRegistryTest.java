@@ -0,0 +1,60 @@
+package io.webdriver.junitextension.cdplogger.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyRegistryTest {
+
+    @Test
+    void endpointsGroupRequestsByPathWithoutIds() {
+        assertEquals("GET https://app.test/users/{id}/orders",
+                LatencyRegistry.endpoint("GET", "https://app.test/users/42/orders?page=2"));
+        assertEquals("POST https://app.test/items/{id}",
+                LatencyRegistry.endpoint("POST", "https://app.test/items/3f2b8c1e-7a4d-4e21-9c55-0b6f8d2e1a90#top"));
+        assertEquals("GET https://app.test/", LatencyRegistry.endpoint("GET", "https://app.test/"));
+        assertEquals("GET https://app.test", LatencyRegistry.endpoint("GET", "https://app.test?q=1"));
+    }
+
+    @Test
+    void endpointsBeyondLimitShareOneHistogram() {
+        LatencyRegistry registry = new LatencyRegistry();
+        for (int i = 0; i < LatencyRegistry.MAX_ENDPOINTS + 10; i++) {
+            registry.record("GET", "https://app.test/page" + i, 1000);
+        }
+
+        assertEquals(LatencyRegistry.MAX_ENDPOINTS + 1, registry.histograms().size());
+        assertEquals(10, registry.histograms().get(LatencyRegistry.OTHER_ENDPOINTS).count());
+    }
+
+    @Test
+    void summaryFilesOfForksAreMergedOffline(@TempDir Path directory) throws IOException {
+        LatencyRegistry firstFork = new LatencyRegistry();
+        LatencyRegistry secondFork = new LatencyRegistry();
+        LatencyRegistry expected = new LatencyRegistry();
+        for (int i = 1; i <= 1000; i++) {
+            (i % 2 == 0 ? firstFork : secondFork).record("GET", "https://app.test/api/" + i, i * 100L);
+            expected.record("GET", "https://app.test/api/" + i, i * 100L);
+        }
+        firstFork.record("POST", "https://app.test/login", 250_000);
+        expected.record("POST", "https://app.test/login", 250_000);
+        firstFork.writeTo(directory.resolve("latency-1.tsv"));
+        secondFork.writeTo(directory.resolve("latency-2.tsv"));
+
+        Path merged = directory.resolve("merged.tsv");
+        LatencyRegistry.main(directory.resolve("latency-1.tsv").toString(),
+                directory.resolve("latency-2.tsv").toString(), "-o", merged.toString());
+
+        LatencyRegistry read = LatencyRegistry.readFrom(merged);
+        assertEquals(expected.histograms().keySet(), read.histograms().keySet());
+        expected.histograms().forEach((endpoint, histogram) ->
+                assertEquals(histogram.encode(), read.histograms().get(endpoint).encode()));
+        assertTrue(read.summary().contains(
+                "GET https://app.test/api/{id} : count 1000, p50 49.5, p95 95.8, p99 99.7, max 100.0 ms"));
+    }
+}
@@ -0,0 +1,103 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventPipelineTest {
+
+    @Test
+    void fullBufferDropsAndCountsEvents() {
+        EventRingBuffer ringBuffer = new EventRingBuffer(4);
+        for (int i = 0; i < 6; i++) {
+            long sequence = ringBuffer.tryClaim();
+            if (sequence >= 0) {
+                ringBuffer.get(sequence).url = "url" + i;
+                ringBuffer.publish(sequence);
+            }
+        }
+
+        assertEquals(4, ringBuffer.depth());
+        assertEquals(2, ringBuffer.droppedCount());
+
+        List<String> urls = new ArrayList<>();
+        assertEquals(4, ringBuffer.drain(event -> urls.add(event.url)));
+        assertEquals(List.of("url0", "url1", "url2", "url3"), urls);
+        assertEquals(0, ringBuffer.depth());
+        assertEquals(4, ringBuffer.peakDepth());
+    }
+
+    @Test
+    void consumerStopsAtUnpublishedSlot() {
+        EventRingBuffer ringBuffer = new EventRingBuffer(8);
+        long first = ringBuffer.tryClaim();
+        long second = ringBuffer.tryClaim();
+        ringBuffer.publish(second);
+
+        assertEquals(0, ringBuffer.drain(event -> { }));
+
+        ringBuffer.publish(first);
+        assertEquals(2, ringBuffer.drain(event -> { }));
+    }
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer(10));
+    }
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.class)
+    void consumerHandlesEventsFromConcurrentProducers(WaitStrategy waitStrategy) throws Exception {
+        int producers = 4;
+        int eventsPerProducer = 5_000;
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        EventPipeline pipeline = new EventPipeline("test", 1 << 16, waitStrategy,
+                event -> handled.add(event.testName + ":" + event.status));
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            String producer = "producer" + p;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    pipeline.publishResponse(producer, "url", i);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(pipeline.close(Duration.ofSeconds(10)));
+        assertEquals(0, pipeline.droppedCount());
+        assertEquals(producers * eventsPerProducer, handled.size());
+        for (int p = 0; p < producers; p++) {
+            String prefix = "producer" + p + ":";
+            int expected = 0;
+            for (String value : handled) {
+                if (value.startsWith(prefix)) {
+                    assertEquals(prefix + expected++, value);
+                }
+            }
+            assertEquals(eventsPerProducer, expected);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.webdriver.junitextension.cdplogger.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FailureCaptureBufferTest {
+
+    @Test
+    void flushReplaysEventsInCaptureOrder() {
+        FailureCaptureBuffer buffer = new FailureCaptureBuffer(1024 * 1024);
+        buffer.onEvent(response("https://app.test/1", 200));
+        buffer.onEvent(response("https://app.test/2", 500));
+
+        List<String> replayed = new ArrayList<>();
+        assertEquals(2, buffer.flushTo(event -> replayed.add(event.url + " " + event.status)));
+
+        assertEquals(List.of("https://app.test/1 200", "https://app.test/2 500"), replayed);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void oldestEventsAreEvictedOverBudget() {
+        FailureCaptureBuffer buffer = new FailureCaptureBuffer(1000);
+        for (int i = 0; i < 100; i++) {
+            buffer.onEvent(response("https://app.test/" + i, 200));
+        }
+
+        assertTrue(buffer.retainedBytes() <= 1000);
+        assertEquals(100, buffer.size() + buffer.evictedCount());
+
+        List<String> replayed = new ArrayList<>();
+        buffer.flushTo(event -> replayed.add(event.url));
+        assertEquals("https://app.test/99", replayed.get(replayed.size() - 1));
+    }
+
+    @Test
+    void discardDropsEverythingAndIgnoresLateEvents() {
+        FailureCaptureBuffer buffer = new FailureCaptureBuffer(1024);
+        buffer.onEvent(response("https://app.test/1", 200));
+
+        buffer.discard();
+        buffer.onEvent(response("https://app.test/2", 200));
+
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.flushTo(event -> { }));
+    }
+
+    private static CdpEvent response(String url, int status) {
+        CdpEvent event = new CdpEvent();
+        event.kind = CdpEvent.Kind.RESPONSE;
+        event.testName = "test";
+        event.url = url;
+        event.status = status;
+        return event;
+    }
+}
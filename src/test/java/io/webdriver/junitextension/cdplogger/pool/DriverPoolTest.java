@@ -0,0 +1,161 @@
+package io.webdriver.junitextension.cdplogger.pool;
+
+import io.webdriver.junitextension.cdplogger.fixtures.FakeCdpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DriverPoolTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private FakeCdpServer server;
+    private StubFactory factory;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = FakeCdpServer.start();
+        factory = new StubFactory(server);
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void driversAreStartedAndWarmedUpInTheBackground() throws Exception {
+        List<ChromiumDriver> warmedUp = new CopyOnWriteArrayList<>();
+        DriverPool pool = new DriverPool(factory, 2, 10, warmedUp::add);
+        awaitIdle(pool, 2);
+
+        PooledDriver pooled = pool.acquire(TIMEOUT);
+
+        assertTrue(warmedUp.contains(pooled.driver()));
+        assertEquals(2, factory.created.size());
+        assertEquals(1, pool.stats().hits());
+        assertEquals(1.0, pool.stats().hitRate());
+        pool.release(pooled, true);
+        pool.close();
+        assertEquals(Set.copyOf(factory.created), Set.copyOf(factory.destroyed));
+    }
+
+    @Test
+    void releasedDriverIsWarmedUpAgainBeforeTheNextLease() throws Exception {
+        List<ChromiumDriver> warmedUp = new CopyOnWriteArrayList<>();
+        DriverPool pool = new DriverPool(factory, 1, 10, warmedUp::add);
+
+        PooledDriver first = pool.acquire(TIMEOUT);
+        pool.release(first, true);
+        PooledDriver second = pool.acquire(TIMEOUT);
+
+        assertSame(first, second);
+        assertEquals(List.of(first.driver(), first.driver()), warmedUp);
+        pool.release(second, true);
+        pool.close();
+    }
+
+    @Test
+    void driverIsRecycledAfterMaxUses() throws Exception {
+        DriverPool pool = new DriverPool(factory, 1, 2, driver -> {
+        });
+
+        PooledDriver first = pool.acquire(TIMEOUT);
+        pool.release(first, true);
+        PooledDriver second = pool.acquire(TIMEOUT);
+        assertSame(first, second);
+        assertEquals(2, second.uses());
+        pool.release(second, true);
+        PooledDriver third = pool.acquire(TIMEOUT);
+
+        assertNotSame(first.driver(), third.driver());
+        assertEquals(1, pool.stats().recycledCount());
+        assertEquals(2, pool.stats().started());
+        assertTrue(pool.stats().misses() >= 1);
+        pool.release(third, true);
+        pool.close();
+    }
+
+    @Test
+    void unhealthyDriverIsReplaced() throws Exception {
+        DriverPool pool = new DriverPool(factory, 1, 10, driver -> {
+        });
+        PooledDriver first = pool.acquire(TIMEOUT);
+        pool.release(first, true);
+        factory.unhealthy.add(first.driver());
+
+        PooledDriver replacement = pool.acquire(TIMEOUT);
+
+        assertNotSame(first.driver(), replacement.driver());
+        assertEquals(1, pool.stats().unhealthyCount());
+        pool.release(replacement, false);
+        pool.close();
+        assertTrue(factory.destroyed.containsAll(List.of(first.driver(), replacement.driver())));
+        assertEquals(Set.copyOf(factory.created), Set.copyOf(factory.destroyed));
+    }
+
+    @Test
+    void acquireTimesOutWhenDriversFailToStart() throws Exception {
+        DriverPool pool = new DriverPool(() -> {
+            throw new IllegalStateException("no browser");
+        }, 1, 10, driver -> {
+        });
+
+        assertThrows(TimeoutException.class, () -> pool.acquire(Duration.ofMillis(200)));
+        assertTrue(pool.stats().startFailures() >= 1);
+        pool.close();
+    }
+
+    private static void awaitIdle(DriverPool pool, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (pool.idleCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, pool.idleCount());
+    }
+
+    /**
+     * Starts drivers on the fake server and records them instead of quitting them.
+     */
+    private static final class StubFactory implements DriverFactory {
+
+        private final FakeCdpServer server;
+        private final List<ChromiumDriver> created = new CopyOnWriteArrayList<>();
+        private final List<ChromiumDriver> destroyed = new CopyOnWriteArrayList<>();
+        private final List<ChromiumDriver> unhealthy = new CopyOnWriteArrayList<>();
+
+        private StubFactory(FakeCdpServer server) {
+            this.server = server;
+        }
+
+        @Override
+        public ChromiumDriver create() {
+            ChromiumDriver driver = server.newDriver();
+            created.add(driver);
+            return driver;
+        }
+
+        @Override
+        public boolean isHealthy(ChromiumDriver driver) {
+            return !unhealthy.contains(driver) && DriverFactory.super.isHealthy(driver);
+        }
+
+        @Override
+        public void destroy(ChromiumDriver driver) {
+            destroyed.add(driver);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.webdriver.junitextension.cdplogger.sink;
+
+import io.webdriver.junitextension.cdplogger.pipeline.CdpEvent;
+import io.webdriver.junitextension.cdplogger.pipeline.RequestRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventSinksTest {
+
+    @TempDir
+    Path directory;
+
+    private final MemorySink memory = new MemorySink();
+
+    @Test
+    void sinksAreDiscoveredByName() throws Exception {
+        try (EventSinks sinks = EventSinks.load(List.of("json-lines", "slf4j", "json-lines"), directory)) {
+            assertEquals(List.of("json-lines", "slf4j"), sinks.names());
+        }
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> EventSinks.load(List.of("kafka"), directory));
+        assertTrue(e.getMessage().contains("binary"), e.getMessage());
+    }
+
+    @Test
+    void eventsAreWrittenInBatchesAndFlushedAtTestBoundaries() throws Exception {
+        try (EventSinks sinks = new EventSinks(List.of(memory))) {
+            BatchingEventHandler handler = new BatchingEventHandler(sinks, 3);
+            for (int i = 0; i < 4; i++) {
+                handler.onEvent(response("https://app.test/" + i, 200));
+            }
+            assertEquals(List.of(3), batchSizes());
+
+            handler.endOfBatch();
+            handler.endOfBatch();
+            assertEquals(List.of(3, 1), batchSizes());
+            assertEquals(0, memory.flushes);
+
+            handler.onEvent(response("https://app.test/4", 500));
+            handler.flush();
+            assertEquals(List.of(3, 1, 1), batchSizes());
+            assertEquals(1, memory.flushes);
+            EventRecord last = memory.batches.get(2).get(0);
+            assertEquals("https://app.test/4", last.url);
+            assertTrue(last.isError());
+        }
+    }
+
+    @Test
+    void eventsNoSinkWritesAreNotCopied() {
+        memory.errorsOnly = true;
+        BatchingEventHandler handler = new BatchingEventHandler(new EventSinks(List.of(memory)), 8);
+        handler.onEvent(response("https://app.test/ok", 200));
+        handler.onEvent(response("https://app.test/failed", 503));
+        handler.endOfBatch();
+
+        assertEquals(List.of(1), batchSizes());
+        assertEquals("https://app.test/failed", memory.batches.get(0).get(0).url);
+    }
+
+    @Test
+    void millisAreRoundedToTenths() {
+        assertEquals("0.0 12.3 250.0 1234567.9 -0.5", Slf4jEventSink.appendMillis(new StringBuilder(), 0)
+                .append(' ').append(Slf4jEventSink.appendMillis(new StringBuilder(), 12.34))
+                .append(' ').append(Slf4jEventSink.appendMillis(new StringBuilder(), 249.96))
+                .append(' ').append(Slf4jEventSink.appendMillis(new StringBuilder(), 1234567.89))
+                .append(' ').append(Slf4jEventSink.appendMillis(new StringBuilder(), -0.5)).toString());
+    }
+
+    @Test
+    void jsonLinesAreEscapedAndFlushed() throws Exception {
+        JsonLinesEventSink sink = new JsonLinesEventSink();
+        sink.open(directory);
+        CdpEvent event = new CdpEvent();
+        event.kind = CdpEvent.Kind.LOG;
+        event.testName = "login";
+        event.text = "Unexpected \"token\"\n\tat app.js";
+        sink.write(List.of(EventRecord.of(event, 42), EventRecord.of(completed(), 43)));
+        sink.flush();
+
+        List<String> lines = Files.readAllLines(sink.file(), StandardCharsets.UTF_8);
+        sink.close();
+        assertEquals(2, lines.size());
+        assertEquals("{\"time\":42,\"test\":\"login\",\"kind\":\"LOG\","
+                + "\"text\":\"Unexpected \\\"token\\\"\\n\\tat app.js\"}", lines.get(0));
+        assertTrue(lines.get(1).contains("\"request\":{\"id\":\"7\",\"method\":\"GET\",\"url\":\"https://app.test/api\""
+                + ",\"type\":\"XHR\",\"status\":200,\"durationMs\":250.0,\"bytes\":1024}"), lines.get(1));
+    }
+
+    @Test
+    void binaryEventsAreReadBackAcrossOpens() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try (BinaryEventSink sink = new BinaryEventSink()) {
+                sink.open(directory);
+                sink.write(List.of(EventRecord.of(response("https://app.test/" + i, 404), i),
+                        EventRecord.of(completed(), 100 + i)));
+            }
+        }
+
+        List<EventRecord> events;
+        try (Stream<Path> files = Files.list(directory)) {
+            events = BinaryEventSink.read(files.findFirst().orElseThrow());
+        }
+        assertEquals(4, events.size());
+        EventRecord response = events.get(2);
+        assertEquals(CdpEvent.Kind.RESPONSE, response.kind);
+        assertEquals(1, response.timeMillis);
+        assertEquals("https://app.test/1", response.url);
+        assertEquals(404, response.status);
+        assertNull(response.body);
+        RequestRecord record = events.get(3).record;
+        assertEquals("7", record.requestId);
+        assertEquals(1024, record.encodedDataLength);
+        assertEquals(250.0, record.durationMillis(), 1e-9);
+        assertEquals(Slf4jEventSink.summary(completed().record), Slf4jEventSink.summary(record));
+    }
+
+    private List<Integer> batchSizes() {
+        return memory.batches.stream().map(List::size).collect(Collectors.toList());
+    }
+
+    private static CdpEvent response(String url, int status) {
+        CdpEvent event = new CdpEvent();
+        event.kind = CdpEvent.Kind.RESPONSE;
+        event.testName = "test";
+        event.url = url;
+        event.status = status;
+        return event;
+    }
+
+    private static CdpEvent completed() {
+        RequestRecord record = new RequestRecord("7");
+        record.method = "GET";
+        record.url = "https://app.test/api";
+        record.resourceType = "XHR";
+        record.status = 200;
+        record.startTime = 10;
+        record.endTime = 10.25;
+        record.encodedDataLength = 1024;
+        CdpEvent event = new CdpEvent();
+        event.kind = CdpEvent.Kind.REQUEST_COMPLETED;
+        event.testName = "test";
+        event.record = record;
+        return event;
+    }
+
+    /**
+     * Keeps the written batches and counts flushes, optionally of failed responses only.
+     */
+    private static final class MemorySink implements EventSink {
+
+        private final List<List<EventRecord>> batches = new ArrayList<>();
+        private int flushes;
+        private boolean errorsOnly;
+
+        @Override
+        public String name() {
+            return "memory";
+        }
+
+        @Override
+        public boolean isEnabled(CdpEvent event) {
+            return !errorsOnly || event.status >= 400;
+        }
+
+        @Override
+        public void write(List<EventRecord> batch) {
+            batches.add(List.copyOf(batch));
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
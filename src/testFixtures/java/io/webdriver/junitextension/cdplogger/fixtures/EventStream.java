@@ -0,0 +1,217 @@
+package io.webdriver.junitextension.cdplogger.fixtures;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sequence of Dev Tools events pushed by {@link FakeCdpServer}, scripted in code or read from a recording.
+ *
+ * <p>A recording has one event per line as {@code {"method":"Network.responseReceived","params":{...}}}, the same
+ * shape the browser sends over the Dev Tools WebSocket, optionally with the time {@code "t"} in microseconds since
+ * the first event and gzipped, as written by {@code EventRecorder}. Recorded times let {@link FakeCdpServer} replay
+ * the stream with its original pacing, see {@link ReplaySpeed}.
+ */
+public final class EventStream {
+
+    private static final Json JSON = new Json();
+
+    private final List<Event> events;
+
+    private EventStream(List<Event> events) {
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    public static EventStream of(List<Event> events) {
+        return new EventStream(new ArrayList<>(events));
+    }
+
+    /**
+     * Scripts a stream of the given size, e.g. {@code EventStream.generate(1000, i -> Events.responseReceived(...))}.
+     */
+    public static EventStream generate(int size, IntFunction<Event> event) {
+        List<Event> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(event.apply(i));
+        }
+        return new EventStream(events);
+    }
+
+    /**
+     * Reads a recording with one {@code {"t":...,"method":...,"params":{...}}} object per line, plain or gzipped.
+     */
+    public static EventStream fromJsonLines(Path recording) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(recording),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> message = JSON.toType(line, Json.MAP_TYPE);
+                Number offset = (Number) message.get("t");
+                events.add(new Event((String) message.get("method"), compactJson(message.get("params")),
+                        offset != null ? offset.longValue() : Event.NO_OFFSET));
+            }
+        }
+        return new EventStream(events);
+    }
+
+    private static String compactJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json).setPrettyPrint(false)) {
+            output.write(value);
+        }
+        return json.toString();
+    }
+
+    private static InputStream open(Path recording) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(recording));
+        in.mark(2);
+        int magic = in.read() | (in.read() << 8);
+        in.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * @return whether every event has its recorded time, so the stream can be replayed with its original pacing
+     */
+    public boolean hasOffsets() {
+        return events.stream().allMatch(event -> event.offsetMicros() != Event.NO_OFFSET);
+    }
+
+    /**
+     * @return time of the last event since the first one, or {@code 0} without recorded times
+     */
+    public long durationMicros() {
+        return hasOffsets() && !events.isEmpty() ? events.get(events.size() - 1).offsetMicros() : 0;
+    }
+
+    public List<Event> events() {
+        return events;
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Dev Tools event with its parameters as JSON.
+     */
+    public static final class Event {
+
+        public static final long NO_OFFSET = -1;
+
+        private final String method;
+        private final String paramsJson;
+        private final long offsetMicros;
+
+        public Event(String method, String paramsJson) {
+            this(method, paramsJson, NO_OFFSET);
+        }
+
+        public Event(String method, String paramsJson, long offsetMicros) {
+            this.method = method;
+            this.paramsJson = paramsJson;
+            this.offsetMicros = offsetMicros;
+        }
+
+        public String method() {
+            return method;
+        }
+
+        public String paramsJson() {
+            return paramsJson;
+        }
+
+        /**
+         * @return recorded time since the first event of the stream, or {@link #NO_OFFSET} for scripted events
+         */
+        public long offsetMicros() {
+            return offsetMicros;
+        }
+
+        public static Event requestWillBeSent(String requestId, String type, String method, String url) {
+            return new Event("Network.requestWillBeSent", "{\"requestId\":\"" + requestId + "\","
+                    + "\"loaderId\":\"loader\",\"documentURL\":\"" + url + "\","
+                    + "\"request\":{\"url\":\"" + url + "\",\"method\":\"" + method + "\",\"headers\":{},"
+                    + "\"initialPriority\":\"High\",\"referrerPolicy\":\"no-referrer\"},"
+                    + "\"timestamp\":1.0,\"wallTime\":1.0,\"initiator\":{\"type\":\"script\"},"
+                    + "\"type\":\"" + type + "\"}");
+        }
+
+        public static Event responseReceived(String requestId, String type, String url, int status) {
+            return new Event("Network.responseReceived", "{\"requestId\":\"" + requestId + "\","
+                    + "\"loaderId\":\"loader\",\"timestamp\":1.1,\"type\":\"" + type + "\","
+                    + "\"response\":{\"url\":\"" + url + "\",\"status\":" + status + ",\"statusText\":\"\","
+                    + "\"headers\":{},\"mimeType\":\"application/json\",\"connectionReused\":false,"
+                    + "\"connectionId\":0,\"encodedDataLength\":0,\"securityState\":\"secure\"}}");
+        }
+
+        public static Event loadingFinished(String requestId, long encodedDataLength) {
+            return new Event("Network.loadingFinished", "{\"requestId\":\"" + requestId + "\","
+                    + "\"timestamp\":1.2,\"encodedDataLength\":" + encodedDataLength + "}");
+        }
+
+        /**
+         * @param blockedReason reason the browser blocked the request, e.g. {@code "inspector"}, or {@code null}
+         */
+        public static Event loadingFailed(String requestId, String type, String errorText, String blockedReason) {
+            return new Event("Network.loadingFailed", "{\"requestId\":\"" + requestId + "\","
+                    + "\"timestamp\":1.2,\"type\":\"" + type + "\",\"errorText\":\"" + errorText + "\""
+                    + (blockedReason != null ? ",\"blockedReason\":\"" + blockedReason + "\"" : "") + "}");
+        }
+
+        /**
+         * {@code Fetch.requestPaused} at the request stage, or at the response stage when a status is given.
+         */
+        public static Event requestPaused(String requestId, String type, String method, String url, Integer status) {
+            return requestPaused(requestId, type, method, url, status, Map.of());
+        }
+
+        /**
+         * {@code Fetch.requestPaused} at the response stage with the given response headers.
+         */
+        public static Event requestPaused(String requestId, String type, String method, String url, Integer status,
+                                          Map<String, String> responseHeaders) {
+            String headers = responseHeaders.entrySet().stream()
+                    .map(header -> "{\"name\":\"" + header.getKey() + "\",\"value\":\"" + header.getValue() + "\"}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            return new Event("Fetch.requestPaused", "{\"requestId\":\"" + requestId + "\","
+                    + "\"request\":{\"url\":\"" + url + "\",\"method\":\"" + method + "\",\"headers\":{},"
+                    + "\"initialPriority\":\"High\",\"referrerPolicy\":\"no-referrer\"},"
+                    + "\"frameId\":\"frame\",\"resourceType\":\"" + type + "\""
+                    + (status != null ? ",\"responseStatusCode\":" + status + ",\"responseHeaders\":" + headers : "")
+                    + "}");
+        }
+
+        /**
+         * {@code Runtime.bindingCalled} of a binding the page called with the payload.
+         */
+        public static Event bindingCalled(String name, String payload) {
+            return new Event("Runtime.bindingCalled", "{\"name\":\"" + name + "\",\"payload\":\""
+                    + payload.replace("\\", "\\\\").replace("\"", "\\\"") + "\",\"executionContextId\":1}");
+        }
+
+        public static Event logEntry(String level, String text) {
+            return new Event("Log.entryAdded", "{\"entry\":{\"source\":\"javascript\",\"level\":\"" + level + "\","
+                    + "\"text\":\"" + text + "\",\"timestamp\":1.0}}");
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package io.webdriver.junitextension.cdplogger.fixtures;
+
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v96.V96Domains;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+
+/**
+ * In-process stand-in for a Chromium browser, speaking just enough WebDriver and Dev Tools protocol for
+ * {@code DevToolsExtension} to run its full lifecycle without a browser.
+ *
+ * <p>The server listens on a loopback port and serves:
+ * <ul>
+ *     <li>{@code POST /session} and the other WebDriver commands, so {@link #newDriver()} returns a real
+ *     {@link ChromiumDriver} whose {@code getDevTools()} connects to this server, with the window handle the
+ *     driver switched to tracked, see {@link #currentWindow()};</li>
+ *     <li>{@code GET /json/version} reporting the Dev Tools WebSocket URL, as Chrome does;</li>
+ *     <li>the Dev Tools WebSocket, which acknowledges every command, answers the {@code Target} commands used to
+ *     create browser contexts and pages and to attach a session and pushes scripted events with
+ *     {@link #play(EventStream, double)} or recorded ones with {@link #replay(EventStream, ReplaySpeed)}.</li>
+ * </ul>
+ *
+ * <p>Commands are answered after an optional latency, see {@link #withCommandLatency(Duration)}, and every
+ * received command is recorded for assertions.
+ */
+public final class FakeCdpServer implements AutoCloseable {
+
+    public static final String BROWSER_VERSION = "96.0.4664.45";
+    public static final String SESSION_ID = "fake-session";
+
+    private static final Json JSON = new Json();
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(daemon("fake-cdp-connection"));
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(daemon("fake-cdp-scheduler"));
+    private final List<WebSocketConnection> webSockets = new CopyOnWriteArrayList<>();
+    private final List<String> receivedCommands = new CopyOnWriteArrayList<>();
+    private final Map<String, Function<Map<String, Object>, Object>> results = new ConcurrentHashMap<>();
+    private final AtomicLong sentEvents = new AtomicLong();
+    private final AtomicLong createdContexts = new AtomicLong();
+    private final AtomicLong createdTargets = new AtomicLong();
+    private volatile String currentWindow = "fake-page";
+    private volatile Duration commandLatency = Duration.ZERO;
+    private volatile boolean running = true;
+
+    private FakeCdpServer() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        results.put("Target.getTargets", params -> Map.of("targetInfos", List.of(Map.of(
+                "targetId", "fake-page", "type", "page", "title", "Fake page", "url", "about:blank",
+                "attached", false, "canAccessOpener", false, "browserContextId", "fake-context"))));
+        results.put("Target.attachToTarget", params -> Map.of("sessionId", SESSION_ID));
+        results.put("Target.createBrowserContext", params -> Map.of("browserContextId",
+                "fake-context-" + createdContexts.incrementAndGet()));
+        results.put("Target.createTarget", params -> Map.of("targetId",
+                "fake-target-" + createdTargets.incrementAndGet()));
+        connections.execute(this::accept);
+    }
+
+    public static FakeCdpServer start() throws IOException {
+        return new FakeCdpServer();
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public String address() {
+        return serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    public URI httpUri() {
+        return URI.create("http://" + address());
+    }
+
+    public String webSocketUrl() {
+        return "ws://" + address() + "/devtools/browser/fake";
+    }
+
+    /**
+     * Delays the answer to every command, emulating a slow browser. Commands are still answered concurrently.
+     */
+    public FakeCdpServer withCommandLatency(Duration commandLatency) {
+        this.commandLatency = commandLatency;
+        return this;
+    }
+
+    /**
+     * Answers the command with the result computed from its parameters instead of an empty result.
+     */
+    public FakeCdpServer respondTo(String method, Function<Map<String, Object>, Object> result) {
+        results.put(method, result);
+        return this;
+    }
+
+    /**
+     * @return objects of the array parameter of a command passed to {@link #respondTo}, e.g. the cookies of
+     * {@code Network.setCookies}, empty when the parameter is missing
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> objects(Map<String, Object> params, String name) {
+        return (List<Map<String, Object>>) params.getOrDefault(name, List.of());
+    }
+
+    /**
+     * @return Dev Tools connected to this server over a WebSocket, as {@link ChromiumDriver#getDevTools()} would be
+     */
+    public DevTools connect() {
+        HttpClient client = HttpClient.Factory.createDefault()
+                .createClient(ClientConfig.defaultConfig().baseUri(httpUri()));
+        return new DevTools(V96Domains::new, new Connection(client, webSocketUrl()));
+    }
+
+    /**
+     * @return driver with a WebDriver session on this server, whose Dev Tools connect to this server
+     */
+    public ChromiumDriver newDriver() {
+        try {
+            return new FakeChromiumDriver(new HttpCommandExecutor(httpUri().toURL()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class FakeChromiumDriver extends ChromiumDriver {
+
+        private FakeChromiumDriver(HttpCommandExecutor executor) {
+            super(executor, new ImmutableCapabilities("browserName", "chrome"), "goog:chromeOptions");
+        }
+    }
+
+    /**
+     * @return methods of all commands received over Dev Tools WebSockets, in arrival order
+     */
+    public List<String> receivedCommands() {
+        return receivedCommands;
+    }
+
+    public long sentEvents() {
+        return sentEvents.get();
+    }
+
+    /**
+     * @return handle of the window the WebDriver session last switched to, {@code fake-page} initially. Targets
+     * created with {@code Target.createTarget} are named {@code fake-target-N}, as window handles are target IDs.
+     */
+    public String currentWindow() {
+        return currentWindow;
+    }
+
+    public int connectionCount() {
+        return webSockets.size();
+    }
+
+    /**
+     * Sends one event to every connected Dev Tools client.
+     */
+    public void emit(EventStream.Event event) {
+        String message = "{\"method\":\"" + event.method() + "\",\"params\":" + event.paramsJson()
+                + ",\"sessionId\":\"" + SESSION_ID + "\"}";
+        for (WebSocketConnection webSocket : webSockets) {
+            webSocket.sendText(message);
+        }
+        sentEvents.incrementAndGet();
+    }
+
+    /**
+     * Pushes the events of the stream to every connected client at the given rate.
+     *
+     * @param eventsPerSecond rate of the events, or {@code 0} to send them as fast as possible
+     * @return future completed when all events were sent
+     */
+    public CompletableFuture<Void> play(EventStream stream, double eventsPerSecond) {
+        long intervalNanos = eventsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / eventsPerSecond) : 0;
+        return send(stream, index -> index * intervalNanos);
+    }
+
+    /**
+     * Pushes a recorded stream to every connected client, pacing the events by their recorded times.
+     *
+     * @throws IllegalArgumentException when the stream has no recorded times and is not sent as fast as possible
+     */
+    public CompletableFuture<Void> replay(EventStream stream, ReplaySpeed speed) {
+        if (speed != ReplaySpeed.AS_FAST_AS_POSSIBLE && !stream.hasOffsets()) {
+            throw new IllegalArgumentException("Stream without recorded times cannot be replayed " + speed);
+        }
+        List<EventStream.Event> events = stream.events();
+        return send(stream, index -> speed.delayNanos(Math.max(0, events.get(index).offsetMicros())));
+    }
+
+    private CompletableFuture<Void> send(EventStream stream, IntToLongFunction delayNanos) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            List<EventStream.Event> events = stream.events();
+            for (int index = 0; index < events.size(); index++) {
+                long due = start + delayNanos.applyAsLong(index);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                emit(events.get(index));
+            }
+        }, connections);
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    throw new IllegalStateException("Fake CDP server stopped accepting connections", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            HttpRequest request;
+            while ((request = HttpRequest.read(in)) != null) {
+                if ("websocket".equalsIgnoreCase(request.headers.get("upgrade"))) {
+                    upgrade(request, out);
+                    WebSocketConnection webSocket = new WebSocketConnection(in, out);
+                    webSockets.add(webSocket);
+                    try {
+                        webSocket.readMessages(this::handleCommand);
+                    } finally {
+                        webSockets.remove(webSocket);
+                    }
+                    return;
+                }
+                respond(out, handleHttp(request));
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private Object handleHttp(HttpRequest request) {
+        if (request.path.equals("/json/version")) {
+            return Map.of("Browser", "Chrome/" + BROWSER_VERSION, "Protocol-Version", "1.3",
+                    "webSocketDebuggerUrl", webSocketUrl());
+        }
+        if (request.method.equals("POST") && request.path.equals("/session")) {
+            Map<String, Object> capabilities = new LinkedHashMap<>();
+            capabilities.put("browserName", "chrome");
+            capabilities.put("browserVersion", BROWSER_VERSION);
+            capabilities.put("platformName", "linux");
+            capabilities.put("goog:chromeOptions", Map.of("debuggerAddress", address()));
+            capabilities.put("se:cdp", webSocketUrl());
+            capabilities.put("se:cdpVersion", BROWSER_VERSION);
+            return Map.of("value", Map.of("sessionId", SESSION_ID, "capabilities", capabilities));
+        }
+        Map<String, Object> value = new HashMap<>();
+        if (request.path.equals("/session/" + SESSION_ID + "/window")) {
+            if (request.method.equals("POST")) {
+                Map<String, Object> body = JSON.toType(request.body, Json.MAP_TYPE);
+                currentWindow = (String) body.get("handle");
+            } else {
+                value.put("value", currentWindow);
+                return value;
+            }
+        }
+        value.put("value", null);
+        return value;
+    }
+
+    private static void upgrade(HttpRequest request, OutputStream out) throws IOException {
+        String accept;
+        try {
+            accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                    .digest((request.headers.get("sec-websocket-key") + WEBSOCKET_GUID)
+                            .getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void respond(OutputStream out, Object body) throws IOException {
+        byte[] content = JSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+        out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + content.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(content);
+        out.flush();
+    }
+
+    private void handleCommand(WebSocketConnection webSocket, String message) {
+        Map<String, Object> command = JSON.toType(message, Json.MAP_TYPE);
+        String method = (String) command.get("method");
+        receivedCommands.add(method);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> params = (Map<String, Object>) command.getOrDefault("params", Map.of());
+        Object result = results.getOrDefault(method, ignored -> Map.of()).apply(params);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", command.get("id"));
+        response.put("result", result);
+        if (command.containsKey("sessionId")) {
+            response.put("sessionId", command.get("sessionId"));
+        }
+        String answer = JSON.toJson(response);
+        Duration latency = commandLatency;
+        if (latency.isZero()) {
+            webSocket.sendText(answer);
+        } else {
+            scheduler.schedule(() -> webSocket.sendText(answer), latency.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        webSockets.forEach(WebSocketConnection::close);
+        scheduler.shutdownNow();
+        connections.shutdownNow();
+    }
+
+    private static final class HttpRequest {
+
+        private final String method;
+        private final String path;
+        private final Map<String, String> headers;
+        private final String body;
+
+        private HttpRequest(String method, String path, Map<String, String> headers, String body) {
+            this.method = method;
+            this.path = path;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * @return the next request of a keep-alive connection, or {@code null} when the client closed it
+         */
+        private static HttpRequest read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return null;
+            }
+            String[] parts = requestLine.split(" ");
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int separator = line.indexOf(':');
+                headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        line.substring(separator + 1).trim());
+            }
+            int contentLength = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+            String body = new String(in.readNBytes(contentLength), StandardCharsets.UTF_8);
+            String path = parts[1];
+            int query = path.indexOf('?');
+            return new HttpRequest(parts[0], query >= 0 ? path.substring(0, query) : path, headers, body);
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    return line.toString(StandardCharsets.US_ASCII).stripTrailing();
+                }
+                line.write(b);
+            }
+            return line.size() == 0 ? null : line.toString(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Server side of a WebSocket: reads masked client frames and writes unmasked text frames.
+     */
+    private static final class WebSocketConnection {
+
+        private static final int OPCODE_CONTINUATION = 0x0;
+        private static final int OPCODE_TEXT = 0x1;
+        private static final int OPCODE_CLOSE = 0x8;
+        private static final int OPCODE_PING = 0x9;
+        private static final int OPCODE_PONG = 0xA;
+
+        private final InputStream in;
+        private final OutputStream out;
+
+        private WebSocketConnection(InputStream in, OutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        private void readMessages(java.util.function.BiConsumer<WebSocketConnection, String> handler)
+                throws IOException {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            while (true) {
+                int first = in.read();
+                if (first < 0) {
+                    return;
+                }
+                boolean fin = (first & 0x80) != 0;
+                int opcode = first & 0x0F;
+                int second = readByte();
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = (readByte() << 8) | readByte();
+                } else if (length == 127) {
+                    length = 0;
+                    for (int i = 0; i < 8; i++) {
+                        length = (length << 8) | readByte();
+                    }
+                }
+                byte[] mask = (second & 0x80) != 0 ? in.readNBytes(4) : null;
+                byte[] payload = in.readNBytes((int) length);
+                if (payload.length < length) {
+                    throw new EOFException();
+                }
+                if (mask != null) {
+                    for (int i = 0; i < payload.length; i++) {
+                        payload[i] ^= mask[i & 3];
+                    }
+                }
+                switch (opcode) {
+                    case OPCODE_TEXT:
+                    case OPCODE_CONTINUATION:
+                        message.write(payload);
+                        if (fin) {
+                            handler.accept(this, message.toString(StandardCharsets.UTF_8));
+                            message.reset();
+                        }
+                        break;
+                    case OPCODE_PING:
+                        send(OPCODE_PONG, payload);
+                        break;
+                    case OPCODE_CLOSE:
+                        send(OPCODE_CLOSE, payload);
+                        return;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        private void sendText(String text) {
+            try {
+                send(OPCODE_TEXT, text.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // client went away, it is removed when its reader stops
+            }
+        }
+
+        private synchronized void send(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length & 0xFF);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >>> shift) & 0xFF);
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        private void close() {
+            try {
+                send(OPCODE_CLOSE, new byte[0]);
+            } catch (IOException | RuntimeException e) {
+                // already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.webdriver.junitextension.cdplogger.fixtures;
+
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.Message;
+import org.openqa.selenium.remote.http.WebSocket;
+
+/**
+ * {@link HttpClient} of a Dev Tools {@code Connection} without a browser, for Dev Tools which override the commands
+ * and listeners they need. Messages sent over its web socket are dropped.
+ */
+public final class NoOpHttpClient implements HttpClient {
+
+    @Override
+    public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+        return new WebSocket() {
+            @Override
+            public WebSocket send(Message message) {
+                return this;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest req) {
+        throw new UnsupportedOperationException("Dev Tools connection without a browser does not support HTTP");
+    }
+}
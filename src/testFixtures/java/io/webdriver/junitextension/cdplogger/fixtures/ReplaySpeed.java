@@ -0,0 +1,45 @@
+package io.webdriver.junitextension.cdplogger.fixtures;
+
+/**
+ * Pacing of a recorded {@link EventStream} replayed by {@link FakeCdpServer#replay(EventStream, ReplaySpeed)}.
+ */
+public final class ReplaySpeed {
+
+    /**
+     * Sends every event at its recorded time.
+     */
+    public static final ReplaySpeed REAL_TIME = new ReplaySpeed(1);
+
+    /**
+     * Sends the events back to back, ignoring recorded times.
+     */
+    public static final ReplaySpeed AS_FAST_AS_POSSIBLE = new ReplaySpeed(Double.POSITIVE_INFINITY);
+
+    private final double factor;
+
+    private ReplaySpeed(double factor) {
+        this.factor = factor;
+    }
+
+    /**
+     * @param factor how many times faster than recorded the events are sent, e.g. {@code 10}
+     */
+    public static ReplaySpeed accelerated(double factor) {
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("Replay speed factor must be positive: " + factor);
+        }
+        return new ReplaySpeed(factor);
+    }
+
+    /**
+     * @return time after the start of the replay the event recorded at the given time is sent at
+     */
+    long delayNanos(long offsetMicros) {
+        return Double.isInfinite(factor) ? 0 : (long) (offsetMicros * 1000 / factor);
+    }
+
+    @Override
+    public String toString() {
+        return Double.isInfinite(factor) ? "as fast as possible" : factor + "x";
+    }
+}